@@ -4,12 +4,40 @@ import java.io.IOException;
 
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.storage.search.SearchResults;
 
 public interface AqlSearchService
 {
 
-    public SearchResults search(Selector<ArtifactEntry> selector)
+    public default SearchResults search(Selector<ArtifactEntry> selector)
+        throws IOException
+    {
+        SearchResults result = new SearchResults();
+        result.setCursor(search(selector, true, result.getResults()::add));
+
+        return result;
+    }
+
+    /**
+     * Passes the results of the page one by one to the consumer, as soon as each of them is ready, so that they
+     * don't have to be kept in memory.
+     *
+     * @param snippets whether the code snippets should be generated for the results
+     * @return the cursor of the next keyset page, or {@code null} if there is no next keyset page
+     */
+    public String search(Selector<ArtifactEntry> selector,
+                         boolean snippets,
+                         SearchResultConsumer consumer)
         throws IOException;
 
+    @FunctionalInterface
+    public interface SearchResultConsumer
+    {
+
+        void accept(SearchResult searchResult)
+            throws IOException;
+
+    }
+
 }
@@ -2,7 +2,9 @@ package org.carlspring.strongbox.services.impl;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
@@ -11,7 +13,7 @@ import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
-import org.carlspring.strongbox.data.criteria.QueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
 import org.carlspring.strongbox.dependency.snippet.SnippetGenerator;
@@ -22,7 +24,6 @@ import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.AqlSearchService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.search.SearchResult;
-import org.carlspring.strongbox.storage.search.SearchResults;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -39,37 +40,69 @@ public class AqlSearchServiceImpl implements AqlSearchService
     @Inject
     private SnippetGenerator snippetGenerator;
 
-    public SearchResults search(Selector<ArtifactEntry> selector)
+    /**
+     * The page is read without detaching it as a whole, each artifact is detached and passed on one at a time. An
+     * artifact which the query returned more than once is passed on only once.
+     */
+    @Override
+    public String search(Selector<ArtifactEntry> selector,
+                         boolean snippets,
+                         SearchResultConsumer consumer)
         throws IOException
     {
-        SearchResults result = new SearchResults();
+        OQueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        DetachQueryTemplate<List<ArtifactEntry>, ArtifactEntry> detachQueryTemplate = new DetachQueryTemplate<>(queryTemplate);
 
-        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
-                new OQueryTemplate<>(entityManager));
-        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        List<ArtifactEntry> artifactEntries = queryTemplate.select(selector);
+        Set<String> artifactEntryIds = new HashSet<>();
+        for (ArtifactEntry artifactEntry : artifactEntries)
         {
-            SearchResult r = new SearchResult();
-            result.getResults().add(r);
+            if (!artifactEntryIds.add(artifactEntry.getUuid()))
+            {
+                continue;
+            }
 
-            r.setStorageId(artifactEntry.getStorageId());
-            r.setRepositoryId(artifactEntry.getRepositoryId());
-            r.setArtifactCoordinates(artifactEntry.getArtifactCoordinates());
+            consumer.accept(toSearchResult((ArtifactEntry) detachQueryTemplate.unproxy(artifactEntry), snippets));
+        }
 
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(artifactEntry.getStorageId(),
-                                                                           artifactEntry.getRepositoryId(),
-                                                                           artifactEntry.getArtifactPath());
+        // A full keyset page may be followed by the next one, a partial page is the last one.
+        Paginator paginator = selector.getPaginator();
+        if (paginator.isKeyset() && artifactEntries.size() >= paginator.getLimit())
+        {
+            String lastUuid = artifactEntries.get(artifactEntries.size() - 1).getUuid();
+            return Paginator.cursorOf(lastUuid);
+        }
 
-            Repository repository = repositoryPath.getRepository();
+        return null;
+    }
 
-            URL artifactResource = RepositoryFiles.readResourceUrl(repositoryPath);
-            r.setUrl(artifactResource.toString());
+    private SearchResult toSearchResult(ArtifactEntry artifactEntry,
+                                        boolean snippets)
+        throws IOException
+    {
+        SearchResult r = new SearchResult();
+
+        r.setStorageId(artifactEntry.getStorageId());
+        r.setRepositoryId(artifactEntry.getRepositoryId());
+        r.setArtifactCoordinates(artifactEntry.getArtifactCoordinates());
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(artifactEntry.getStorageId(),
+                                                                       artifactEntry.getRepositoryId(),
+                                                                       artifactEntry.getArtifactPath());
+
+        URL artifactResource = RepositoryFiles.readResourceUrl(repositoryPath);
+        r.setUrl(artifactResource.toString());
+
+        if (snippets)
+        {
+            Repository repository = repositoryPath.getRepository();
 
-            List<CodeSnippet> snippets = snippetGenerator.generateSnippets(repository.getLayout(),
-                                                                             artifactEntry.getArtifactCoordinates());
-            r.setSnippets(snippets);
+            List<CodeSnippet> codeSnippets = snippetGenerator.generateSnippets(repository.getLayout(),
+                                                                               artifactEntry.getArtifactCoordinates());
+            r.setSnippets(codeSnippets);
         }
 
-        return result;
+        return r;
     }
 
 }
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.data.criteria.Selector;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class AqlParserTest
 {
@@ -140,6 +142,41 @@ public class AqlParserTest
         assertThat(aqlParser.hasErrors()).isFalse();
     }
 
+    @Test
+    public void testKeysetPagination()
+    {
+        String query = "storage:storage-common-proxies +repository:carlspring asc: version";
+
+        Selector<ArtifactEntry> selector = new AqlQueryParser(query).parseQuery();
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(null);
+
+        selector.getPaginator().setCursor("");
+        String sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        assertThat(sqlQuery).startsWith("SELECT * FROM ArtifactEntry WHERE ")
+                            .endsWith(" ORDER BY uuid ASC LIMIT 25")
+                            .doesNotContain(":cursor");
+
+        String cursor = Paginator.cursorOf("storage-common-proxies-carlspring-org/carlspring/foo/1.0/foo-1.0.jar");
+        selector.getPaginator().setCursor(cursor);
+        sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        assertThat(sqlQuery).startsWith("SELECT * FROM ArtifactEntry WHERE (")
+                            .endsWith(") AND uuid > :cursor ORDER BY uuid ASC LIMIT 25");
+        assertThat(selector.getPaginator().getCursorKey())
+                .isEqualTo("storage-common-proxies-carlspring-org/carlspring/foo/1.0/foo-1.0.jar");
+    }
+
+    @Test
+    public void testInvalidCursor()
+    {
+        Selector<ArtifactEntry> selector = new AqlQueryParser("repository:carlspring").parseQuery();
+        selector.getPaginator().setCursor("not a cursor!");
+
+        assertThatThrownBy(() -> new OQueryTemplate<Object, ArtifactEntry>(null).calculateQueryString(selector))
+                .isInstanceOf(QueryParserException.class);
+    }
+
     @Test
     @Disabled
     public void testValidQueryWithUpperLowercaseCheck()
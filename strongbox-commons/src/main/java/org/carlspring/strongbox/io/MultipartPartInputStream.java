@@ -0,0 +1,253 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the first part of a `multipart/form-data` stream without buffering the whole part: {@link #readHeaders()}
+ * skips the preamble and reads the part headers, then the part body can be read from this stream, up to the next
+ * boundary.
+ * <p>
+ * The boundary which follows the body is matched both with the `CRLF` and with the bare `LF` line break before it,
+ * as the NuGet `push` implementation doesn't write the `CR` of the closing boundary.
+ */
+public class MultipartPartInputStream
+        extends InputStream
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int MAX_HEADERS_SIZE = 16 * 1024;
+
+    private final InputStream in;
+
+    private final byte[] boundary;
+
+    private final byte[] delimiter;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    private boolean eof;
+
+    private boolean headersRead;
+
+    /**
+     * The end of the body within the buffer, once the delimiter was found.
+     */
+    private int bodyEnd = -1;
+
+    public MultipartPartInputStream(InputStream in,
+                                    String boundary)
+    {
+        this.in = in;
+        this.boundary = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.delimiter = ("\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[BUFFER_SIZE + delimiter.length + 1];
+    }
+
+    /**
+     * Skips the preamble and reads the headers of the part.
+     *
+     * @return the headers of the part, separated with line breaks, or {@code null} if the stream has no parts
+     */
+    public String readHeaders()
+            throws IOException
+    {
+        if (headersRead)
+        {
+            throw new IllegalStateException("The part headers were read already.");
+        }
+        headersRead = true;
+
+        String line;
+        do
+        {
+            line = readLine();
+            if (line == null)
+            {
+                return null;
+            }
+        }
+        while (!line.equals(new String(boundary, StandardCharsets.ISO_8859_1)));
+
+        StringBuilder result = new StringBuilder();
+        while ((line = readLine()) != null && !line.isEmpty())
+        {
+            result.append(line).append("\n");
+            if (result.length() > MAX_HEADERS_SIZE)
+            {
+                throw new IOException("The multipart headers exceed the maximum size.");
+            }
+        }
+
+        if (line == null)
+        {
+            throw new IOException("Unexpected end of the multipart stream.");
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        byte[] b = new byte[1];
+
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b,
+                    int off,
+                    int len)
+            throws IOException
+    {
+        if (!headersRead)
+        {
+            throw new IllegalStateException("The part headers should be read first.");
+        }
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        int available = availableBody();
+        while (available == 0 && bodyEnd < 0)
+        {
+            if (eof)
+            {
+                throw new IOException("Unexpected end of the multipart stream.");
+            }
+
+            fill();
+            available = availableBody();
+        }
+
+        if (available == 0)
+        {
+            return -1;
+        }
+
+        int n = Math.min(len, available);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+
+        return n;
+    }
+
+    /**
+     * Doesn't close the underlying stream.
+     */
+    @Override
+    public void close()
+    {
+    }
+
+    /**
+     * @return the number of the body bytes which can be returned without reading the stream further
+     */
+    private int availableBody()
+    {
+        if (bodyEnd >= 0)
+        {
+            return bodyEnd - position;
+        }
+
+        int index = indexOfDelimiter();
+        if (index >= 0)
+        {
+            // The bytes before the delimiter were never returned, see below, so the `CR` is still in the buffer.
+            bodyEnd = index > position && buffer[index - 1] == '\r' ? index - 1 : index;
+
+            return bodyEnd - position;
+        }
+
+        // Keep enough bytes to match a delimiter (and its `CR`) which is not read completely yet.
+        return Math.max(0, limit - position - delimiter.length);
+    }
+
+    private int indexOfDelimiter()
+    {
+        for (int i = position; i <= limit - delimiter.length; i++)
+        {
+            if (buffer[i] != '\n')
+            {
+                continue;
+            }
+
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j])
+            {
+                j++;
+            }
+            if (j == delimiter.length)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private String readLine()
+            throws IOException
+    {
+        StringBuilder result = new StringBuilder();
+        while (true)
+        {
+            if (position == limit)
+            {
+                if (eof)
+                {
+                    return result.length() > 0 ? result.toString() : null;
+                }
+
+                fill();
+                continue;
+            }
+
+            byte b = buffer[position++];
+            if (b == '\n')
+            {
+                int length = result.length();
+
+                return length > 0 && result.charAt(length - 1) == '\r' ? result.substring(0, length - 1) :
+                       result.toString();
+            }
+
+            if (result.length() > MAX_HEADERS_SIZE)
+            {
+                throw new IOException("The multipart line exceeds the maximum size.");
+            }
+            result.append((char) (b & 0xff));
+        }
+    }
+
+    private void fill()
+            throws IOException
+    {
+        if (position > 0)
+        {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0)
+        {
+            eof = true;
+        }
+        else
+        {
+            limit += n;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MultipartPartInputStreamTest
+{
+
+    private static final String HEADERS = "Content-Disposition: form-data; name=\"package\"; filename=\"package\"\r\n" +
+                                          "Content-Type: application/octet-stream\r\n";
+
+    @Test
+    public void testReadPart()
+            throws IOException
+    {
+        byte[] body = randomBody(100000);
+
+        MultipartPartInputStream is = new MultipartPartInputStream(multipart(body, "\r\n"), "boundary");
+
+        assertThat(is.readHeaders()).contains("name=\"package\"");
+        assertThat(IOUtils.toByteArray(is)).isEqualTo(body);
+    }
+
+    @Test
+    public void testReadPartWithoutCarriageReturn()
+            throws IOException
+    {
+        byte[] body = randomBody(8193);
+
+        MultipartPartInputStream is = new MultipartPartInputStream(multipart(body, "\n"), "boundary");
+
+        assertThat(is.readHeaders()).contains("name=\"package\"");
+        assertThat(IOUtils.toByteArray(is)).isEqualTo(body);
+    }
+
+    @Test
+    public void testReadEmptyPart()
+            throws IOException
+    {
+        MultipartPartInputStream is = new MultipartPartInputStream(multipart(new byte[0], "\r\n"), "boundary");
+
+        assertThat(is.readHeaders()).isNotNull();
+        assertThat(IOUtils.toByteArray(is)).isEmpty();
+    }
+
+    @Test
+    public void testNoParts()
+            throws IOException
+    {
+        MultipartPartInputStream is = new MultipartPartInputStream(new ByteArrayInputStream(new byte[0]), "boundary");
+
+        assertThat(is.readHeaders()).isNull();
+    }
+
+    @Test
+    public void testMissingClosingBoundary()
+            throws IOException
+    {
+        String content = "--boundary\r\n" + HEADERS + "\r\nfoo";
+        MultipartPartInputStream is = new MultipartPartInputStream(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)), "boundary");
+
+        is.readHeaders();
+
+        assertThatThrownBy(() -> IOUtils.toByteArray(is)).isInstanceOf(IOException.class);
+    }
+
+    private ByteArrayInputStream multipart(byte[] body,
+                                           String lineBreak)
+            throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        result.write(("preamble\r\n--boundary\r\n" + HEADERS + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        result.write(body);
+        result.write((lineBreak + "--boundary--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        return new ByteArrayInputStream(result.toByteArray());
+    }
+
+    private byte[] randomBody(int size)
+    {
+        byte[] result = new byte[size];
+        new Random(size).nextBytes(result);
+
+        // Line breaks which are not followed by the boundary belong to the body.
+        for (int i = 0; i < size - 1; i += 100)
+        {
+            result[i] = '\r';
+            result[i + 1] = '\n';
+        }
+        result[size - 1] = 0;
+
+        return result;
+    }
+
+}
@@ -20,11 +20,19 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
 
     private static final String PROPERTY_MIN_SIZE_IN_BYTES = "minSizeInBytes";
 
+    private static final String PROPERTY_MAX_CACHE_SIZE_IN_BYTES = "maxCacheSizeInBytes";
+
+    private static final String PROPERTY_MAX_ARTIFACTS_PER_RUN = "maxArtifactsPerRun";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobIntegerTypeField(
                     new CronJobRequiredField(new CronJobNamedField(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS))),
             new CronJobIntegerTypeField(
-                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))));
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_CACHE_SIZE_IN_BYTES))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_ARTIFACTS_PER_RUN))));
 
     @Inject
     private LocalStorageProxyRepositoryExpiredArtifactsCleaner proxyRepositoryObsoleteArtifactsCleaner;
@@ -63,7 +71,40 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
             }
         }
 
-        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes);
+        final String maxCacheSizeInBytesText = config.getProperty(PROPERTY_MAX_CACHE_SIZE_IN_BYTES);
+        Long maxCacheSizeInBytes = null;
+        if (maxCacheSizeInBytesText != null)
+        {
+            try
+            {
+                maxCacheSizeInBytes = Long.valueOf(maxCacheSizeInBytesText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid long value [{}] of 'maxCacheSizeInBytes' property. Cron job won't be fired.",
+                             maxCacheSizeInBytesText, ex);
+                return;
+            }
+        }
+
+        final String maxArtifactsPerRunText = config.getProperty(PROPERTY_MAX_ARTIFACTS_PER_RUN);
+        Integer maxArtifactsPerRun = null;
+        if (maxArtifactsPerRunText != null)
+        {
+            try
+            {
+                maxArtifactsPerRun = Integer.valueOf(maxArtifactsPerRunText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid integer value [{}] of 'maxArtifactsPerRun' property. Cron job won't be fired.",
+                             maxArtifactsPerRunText, ex);
+                return;
+            }
+        }
+
+        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes, maxCacheSizeInBytes,
+                                                        maxArtifactsPerRun);
     }
 
     @Override
@@ -20,6 +20,9 @@ abstract class CommonOrientDbConfig
     private OrientDBConfig orientDBConfig = OrientDBConfig.builder()
                                                           .addConfig(OGlobalConfiguration.DB_POOL_MIN, 1L)
                                                           .addConfig(OGlobalConfiguration.DB_POOL_MAX, 100L)
+                                                          // The parsed statements are cached by their text, the
+                                                          // artifact lookups have more shapes than the default size.
+                                                          .addConfig(OGlobalConfiguration.STATEMENT_CACHE_SIZE, 1000)
                                                           .build();
 
     @Bean
@@ -7,6 +7,7 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Paginator.Order;
 import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    private static final String CURSOR_PARAMETER = "cursor";
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -49,6 +52,11 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
+        Paginator paginator = s.getPaginator();
+        if (paginator != null && paginator.getCursorKey() != null)
+        {
+            parameterMap.put(CURSOR_PARAMETER, paginator.getCursorKey());
+        }
 
         logger.debug("Executing SQL query:\n" +
                      "\t[{}]\n" +
@@ -106,15 +114,34 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
         Predicate p = selector.getPredicate();
-        if (p.isEmpty())
+        Paginator paginator = selector.getPaginator();
+        if (paginator != null && paginator.isKeyset())
+        {
+            appendKeysetPage(sb, p, paginator);
+        }
+        else if (p.isEmpty())
         {
             return sb.toString();
         }
+        else
+        {
+            sb.append(" WHERE ");
+            sb.append(predicateToken(p, 0));
 
-        sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
+            appendOffsetPage(sb, paginator);
+        }
 
-        Paginator paginator = selector.getPaginator();
+        if (selector.isFetch())
+        {
+            sb.append(" FETCHPLAN *:-1");
+        }
+
+        return sb.toString();
+    }
+
+    private void appendOffsetPage(StringBuilder sb,
+                                  Paginator paginator)
+    {
         if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
         {
             sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
@@ -128,13 +155,33 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         {
             sb.append(String.format(" LIMIT %s", paginator.getLimit()));
         }
+    }
 
-        if (selector.isFetch())
+    /**
+     * The keyset page starts right after the cursor key, so the index range scan doesn't depend on the page position,
+     * unlike the `SKIP` which reads all the previous results.
+     */
+    private void appendKeysetPage(StringBuilder sb,
+                                  Predicate p,
+                                  Paginator paginator)
+    {
+        String predicate = p.isEmpty() ? "" : predicateToken(p, 0);
+        String cursorCondition = paginator.getCursorKey() == null ? "" :
+                                 String.format("%s %s :%s", Paginator.KEYSET_PROPERTY,
+                                               Order.DESC.equals(paginator.getOrder()) ? "<" : ">",
+                                               CURSOR_PARAMETER);
+
+        if (!predicate.isEmpty() && !cursorCondition.isEmpty())
         {
-            sb.append(" FETCHPLAN *:-1");
+            sb.append(String.format(" WHERE (%s) AND %s", predicate, cursorCondition));
+        }
+        else if (!predicate.isEmpty() || !cursorCondition.isEmpty())
+        {
+            sb.append(" WHERE ").append(predicate).append(cursorCondition);
         }
 
-        return sb.toString();
+        sb.append(String.format(" ORDER BY %s %s", Paginator.KEYSET_PROPERTY, paginator.getOrder()));
+        sb.append(String.format(" LIMIT %s", paginator.getLimit()));
     }
 
     protected String predicateToken(Predicate p,
@@ -1,16 +1,31 @@
 package org.carlspring.strongbox.data.criteria;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Pages the query results either with an offset ({@link #getSkip()}), or with a keyset {@link #getCursor()}, which
+ * continues after the last result of the previous page. The cost of a keyset page doesn't depend on its position, so
+ * it should be used to walk through all the results.
+ * <p>
+ * The keyset pages are ordered by the (indexed and unique) `uuid` of the entities, in the {@link #getOrder()}
+ * direction, the {@link #getProperty()} and the {@link #getSkip()} are ignored.
+ */
 public class Paginator
 {
 
     public static final Integer MAX_LIMIT = 1000;
 
+    public static final String KEYSET_PROPERTY = "uuid";
+
     private Integer skip;
     private Integer limit;
 
     private String property;
     private Order order = Order.ASC;
 
+    private String cursor;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +66,53 @@ public class Paginator
         this.order = order;
     }
 
+    /**
+     * @return the continuation token of the keyset pagination, which is empty for the first page, or {@code null}
+     *         if the results are paged with an offset
+     */
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public void setCursor(String cursor)
+    {
+        this.cursor = cursor;
+    }
+
+    public boolean isKeyset()
+    {
+        return cursor != null;
+    }
+
+    /**
+     * @return the key after which the page starts, or {@code null} for the first page
+     */
+    public String getCursorKey()
+    {
+        if (cursor == null || cursor.isEmpty())
+        {
+            return null;
+        }
+
+        try
+        {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new QueryParserException(String.format("Invalid cursor [%s].", cursor));
+        }
+    }
+
+    /**
+     * @return the continuation token of the page which follows the given key
+     */
+    public static String cursorOf(String key)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -1,20 +1,15 @@
 package org.carlspring.strongbox.data.service;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.data.service.EntityCascadeDescriptor.CascadeField;
 import org.carlspring.strongbox.data.service.impl.EntityServiceRegistry;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import javax.persistence.CascadeType;
 import javax.persistence.EntityManager;
-import javax.persistence.ManyToMany;
-import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
 import javax.persistence.PersistenceContext;
 
-import java.lang.annotation.Annotation;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,7 +21,6 @@ import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
 
 @Transactional
 public abstract class CommonCrudService<T extends GenericEntity>
@@ -50,34 +44,16 @@ public abstract class CommonCrudService<T extends GenericEntity>
     protected <S extends T> S cascadeEntitySave(T entity)
     {
         identifyEntity(entity);
-        
-        ReflectionUtils.doWithFields(getEntityClass(), (field) -> {
-            ReflectionUtils.makeAccessible(field);
-
-            Set<CascadeType> cascadeTypeSet = Arrays.stream(field.getAnnotations())
-                                                    .map(a -> exposeCascadeType(a))
-                                                    .reduce((c1,
-                                                             c2) -> {
-                                                        c1.addAll(c2);
-                                                        return c1;
-                                                    })
-                                                    .orElse(Collections.emptySet());
-            
-            if (!cascadeTypeSet.stream().anyMatch(c -> CascadeType.ALL.equals(c) || CascadeType.MERGE.equals(c)
-                    || CascadeType.PERSIST.equals(c)))
-            {
-                return;
-            }
-            
-            Class<?> fieldType = field.getType();
-            Object fieldValue = ReflectionUtils.getField(field, entity);
 
+        for (CascadeField field : EntityCascadeDescriptor.of(getEntityClass()).getFields())
+        {
+            Object fieldValue = field.get(entity);
             if (fieldValue == null)
             {
-                return;
+                continue;
             }
 
-            if (Collection.class.isAssignableFrom(fieldType))
+            if (field.isCollection())
             {
                 Collection<Object> collection = (Collection<Object>) fieldValue;
                 List<Object> replaceCollection = new LinkedList<>();
@@ -97,37 +73,14 @@ public abstract class CommonCrudService<T extends GenericEntity>
                 Object newFieldValue = tryToCascadeEntitySave(fieldValue);
                 if (newFieldValue != fieldValue)
                 {
-                    ReflectionUtils.setField(field, entity, newFieldValue);
+                    field.set(entity, newFieldValue);
                 }
             }
-
-        });
+        }
 
         return getDelegate().save(entity);
     }
 
-    private Set<CascadeType> exposeCascadeType(Annotation a)
-    {
-        Set<CascadeType> result = new HashSet<>();
-        if (a instanceof OneToMany)
-        {
-            result.addAll(Arrays.asList(((OneToMany) a).cascade()));
-        }
-        else if (a instanceof OneToOne)
-        {
-            result.addAll(Arrays.asList(((OneToOne) a).cascade()));
-        }
-        else if (a instanceof ManyToMany)
-        {
-            result.addAll(Arrays.asList(((ManyToMany) a).cascade()));
-        }
-        else if (a instanceof ManyToOne)
-        {
-            result.addAll(Arrays.asList(((ManyToOne) a).cascade()));
-        }
-        return result;
-    }
-
     protected Object tryToCascadeEntitySave(Object entityCandidate)
     {
         if (!(entityCandidate instanceof GenericEntity))
@@ -152,6 +105,13 @@ public abstract class CommonCrudService<T extends GenericEntity>
             return false;
         }
         
+        String objectId = EntityIdentityMap.get(getEntityClass(), entity.getUuid());
+        if (objectId != null)
+        {
+            entity.setObjectId(objectId);
+            return true;
+        }
+
         String sQuery = String.format("SELECT @rid AS objectId FROM %s WHERE uuid = :uuid",
                                       getEntityClass().getSimpleName());
 
@@ -170,6 +130,7 @@ public abstract class CommonCrudService<T extends GenericEntity>
         ODocument record = resultList.iterator().next();
         ODocument value = record.field("objectId");
         entity.setObjectId(value.getIdentity().toString());
+        EntityIdentityMap.put(getEntityClass(), entity.getUuid(), entity.getObjectId());
 
         return true;
     }
@@ -245,12 +206,14 @@ public abstract class CommonCrudService<T extends GenericEntity>
     @Override
     public void delete(String id)
     {
+        EntityIdentityMap.clear(getEntityClass());
         getDelegate().delete(new ORecordId(id));
     }
 
     @Override
     public void delete(T entity)
     {
+        EntityIdentityMap.remove(getEntityClass(), entity.getUuid());
         entityManager.remove(entity);
     }
 
@@ -268,6 +231,8 @@ public abstract class CommonCrudService<T extends GenericEntity>
         Map<String, Object> parameterMap = new HashMap<>();
         parameterMap.put("uuids", entityList.stream().map(GenericEntity::getUuid).collect(Collectors.toList()));
 
+        entityList.forEach(e -> EntityIdentityMap.remove(getEntityClass(), e.getUuid()));
+
         OCommandSQL oCommandSQL = new OCommandSQL(sb.toString());
         return getDelegate().command(oCommandSQL).execute(parameterMap);
     }
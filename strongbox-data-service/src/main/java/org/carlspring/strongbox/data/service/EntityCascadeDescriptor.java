@@ -0,0 +1,176 @@
+package org.carlspring.strongbox.data.service;
+
+import javax.persistence.CascadeType;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * The relations of an entity class which are saved together with the entity (the ones with the `ALL`, `MERGE` or
+ * `PERSIST` cascade type).
+ * <p>
+ * The fields and their annotations are scanned only once per class, then the relations are read and written with
+ * method handles.
+ */
+final class EntityCascadeDescriptor
+{
+
+    private static final Set<CascadeType> SAVE_CASCADE_TYPES = EnumSet.of(CascadeType.ALL,
+                                                                          CascadeType.MERGE,
+                                                                          CascadeType.PERSIST);
+
+    private static final ClassValue<EntityCascadeDescriptor> DESCRIPTORS = new ClassValue<EntityCascadeDescriptor>()
+    {
+        @Override
+        protected EntityCascadeDescriptor computeValue(Class<?> entityClass)
+        {
+            return new EntityCascadeDescriptor(entityClass);
+        }
+    };
+
+    private final List<CascadeField> fields;
+
+    private EntityCascadeDescriptor(Class<?> entityClass)
+    {
+        List<CascadeField> result = new ArrayList<>();
+        ReflectionUtils.doWithFields(entityClass,
+                                     field -> result.add(new CascadeField(field)),
+                                     EntityCascadeDescriptor::isCascadeSaved);
+
+        this.fields = Collections.unmodifiableList(result);
+    }
+
+    static EntityCascadeDescriptor of(Class<?> entityClass)
+    {
+        return DESCRIPTORS.get(entityClass);
+    }
+
+    List<CascadeField> getFields()
+    {
+        return fields;
+    }
+
+    private static boolean isCascadeSaved(Field field)
+    {
+        return Arrays.stream(field.getAnnotations())
+                     .flatMap(a -> {
+                         if (a instanceof OneToMany)
+                         {
+                             return Arrays.stream(((OneToMany) a).cascade());
+                         }
+                         else if (a instanceof OneToOne)
+                         {
+                             return Arrays.stream(((OneToOne) a).cascade());
+                         }
+                         else if (a instanceof ManyToMany)
+                         {
+                             return Arrays.stream(((ManyToMany) a).cascade());
+                         }
+                         else if (a instanceof ManyToOne)
+                         {
+                             return Arrays.stream(((ManyToOne) a).cascade());
+                         }
+                         return Arrays.stream(new CascadeType[0]);
+                     })
+                     .anyMatch(SAVE_CASCADE_TYPES::contains);
+    }
+
+    static final class CascadeField
+    {
+
+        private final String name;
+
+        private final boolean collection;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private CascadeField(Field field)
+        {
+            ReflectionUtils.makeAccessible(field);
+
+            this.name = field.getName();
+            this.collection = Collection.class.isAssignableFrom(field.getType());
+            try
+            {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                this.getter = lookup.unreflectGetter(field);
+                this.setter = lookup.unreflectSetter(field);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new IllegalStateException(String.format("Failed to access the [%s] field of [%s].",
+                                                              field.getName(),
+                                                              field.getDeclaringClass().getName()),
+                                                e);
+            }
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        boolean isCollection()
+        {
+            return collection;
+        }
+
+        Object get(Object entity)
+        {
+            try
+            {
+                return getter.invoke(entity);
+            }
+            catch (Throwable e)
+            {
+                throw propagate(e);
+            }
+        }
+
+        void set(Object entity,
+                 Object value)
+        {
+            try
+            {
+                setter.invoke(entity, value);
+            }
+            catch (Throwable e)
+            {
+                throw propagate(e);
+            }
+        }
+
+        private static RuntimeException propagate(Throwable e)
+        {
+            if (e instanceof RuntimeException)
+            {
+                return (RuntimeException) e;
+            }
+            if (e instanceof Error)
+            {
+                throw (Error) e;
+            }
+
+            return new UndeclaredThrowableException(e);
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.carlspring.strongbox.data.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers the record ids of the entities which were already looked up by their `uuid` in the current transaction,
+ * so that saving several entities which refer to the same related entity (the same coordinates or tags, for example)
+ * doesn't query it again.
+ * <p>
+ * Only the persistent record ids are remembered, the map is bound to the transaction synchronization and it's
+ * discarded once the transaction completes. Nothing is remembered outside of a transaction.
+ */
+final class EntityIdentityMap
+{
+
+    private EntityIdentityMap()
+    {
+    }
+
+    static String get(Class<?> entityClass,
+                      String uuid)
+    {
+        Map<String, String> identities = getIdentities(entityClass, false);
+
+        return identities == null ? null : identities.get(uuid);
+    }
+
+    static void put(Class<?> entityClass,
+                    String uuid,
+                    String objectId)
+    {
+        if (uuid == null || objectId == null || !new ORecordId(objectId).isPersistent())
+        {
+            return;
+        }
+
+        Map<String, String> identities = getIdentities(entityClass, true);
+        if (identities != null)
+        {
+            identities.put(uuid, objectId);
+        }
+    }
+
+    static void remove(Class<?> entityClass,
+                       String uuid)
+    {
+        Map<String, String> identities = getIdentities(entityClass, false);
+        if (identities != null)
+        {
+            identities.remove(uuid);
+        }
+    }
+
+    static void clear(Class<?> entityClass)
+    {
+        Map<String, String> identities = getIdentities(entityClass, false);
+        if (identities != null)
+        {
+            identities.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> getIdentities(Class<?> entityClass,
+                                                     boolean create)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            return null;
+        }
+
+        Map<Class<?>, Map<String, String>> identityMap = (Map<Class<?>, Map<String, String>>) TransactionSynchronizationManager.getResource(EntityIdentityMap.class);
+        if (identityMap == null)
+        {
+            if (!create)
+            {
+                return null;
+            }
+
+            identityMap = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(EntityIdentityMap.class, identityMap);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+            {
+                @Override
+                public void afterCompletion(int status)
+                {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EntityIdentityMap.class);
+                }
+            });
+        }
+
+        return create ? identityMap.computeIfAbsent(entityClass, k -> new HashMap<>()) : identityMap.get(entityClass);
+    }
+
+}
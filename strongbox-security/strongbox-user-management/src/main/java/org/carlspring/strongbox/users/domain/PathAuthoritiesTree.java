@@ -0,0 +1,222 @@
+package org.carlspring.strongbox.users.domain;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.apache.commons.lang.StringUtils;
+import org.carlspring.strongbox.users.dto.PathPrivileges;
+import org.carlspring.strongbox.users.dto.RepositoryPrivileges;
+import org.carlspring.strongbox.users.dto.StoragePrivileges;
+
+/**
+ * Radix tree of the storage, repository and path privileges of an access model, keyed by the URL prefixes they are
+ * granted for (`/storages/{storageId}/{repositoryId}/{path}`).
+ * <p>
+ * The tree is built once, when the access model is created, so that the privileges for a request URL are resolved
+ * with a single walk along the URL instead of matching it against every storage, repository and path.
+ *
+ * @see AccessModelData#getPathAuthorities(String)
+ */
+@Immutable
+public class PathAuthoritiesTree
+        implements Serializable
+{
+
+    private final Node root = new Node("");
+
+    public PathAuthoritiesTree(Set<? extends StoragePrivileges> storages)
+    {
+        for (StoragePrivileges storage : storages)
+        {
+            String storageKey = "/storages/" + storage.getStorageId();
+            for (RepositoryPrivileges repository : storage.getRepositoryPrivileges())
+            {
+                String repositoryKey = storageKey + "/" + repository.getRepositoryId();
+                insert(repositoryKey).addPrefixPrivileges(repository.getRepositoryPrivileges());
+
+                for (PathPrivileges pathPrivilege : repository.getPathPrivileges())
+                {
+                    String normalizedPath = StringUtils.chomp(pathPrivilege.getPath(), "/");
+                    Node node = insert(repositoryKey + "/" + normalizedPath);
+                    if (pathPrivilege.isWildcard())
+                    {
+                        node.addPrefixPrivileges(pathPrivilege.getPrivileges());
+                    }
+                    else
+                    {
+                        node.addExactPrivileges(pathPrivilege.getPrivileges());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the privileges granted for the given URL: the privileges of all the repositories and wildcard paths
+     * which the URL starts with, and the privileges of the path which is equal to the URL.
+     */
+    public Set<Privileges> getPathAuthorities(String url)
+    {
+        String normalizedUrl = StringUtils.chomp(url, "/");
+
+        Set<Privileges> privileges = EnumSet.noneOf(Privileges.class);
+        Node node = root;
+        int position = 0;
+        while (true)
+        {
+            node.collectPrefixPrivileges(privileges);
+            if (position == normalizedUrl.length())
+            {
+                node.collectExactPrivileges(privileges);
+                break;
+            }
+
+            Node child = node.getChild(normalizedUrl.charAt(position));
+            if (child == null || !normalizedUrl.startsWith(child.label, position))
+            {
+                break;
+            }
+
+            position += child.label.length();
+            node = child;
+        }
+
+        return privileges;
+    }
+
+    private Node insert(String key)
+    {
+        Node node = root;
+        int position = 0;
+        while (position < key.length())
+        {
+            Node child = node.getChild(key.charAt(position));
+            if (child == null)
+            {
+                return node.addChild(new Node(key.substring(position)));
+            }
+
+            int commonLength = commonPrefixLength(child.label, key, position);
+            if (commonLength < child.label.length())
+            {
+                child = node.splitChild(child, commonLength);
+            }
+
+            position += commonLength;
+            node = child;
+        }
+
+        return node;
+    }
+
+    private static int commonPrefixLength(String label,
+                                          String key,
+                                          int position)
+    {
+        int maxLength = Math.min(label.length(), key.length() - position);
+        int result = 0;
+        while (result < maxLength && label.charAt(result) == key.charAt(position + result))
+        {
+            result++;
+        }
+
+        return result;
+    }
+
+    private static class Node
+            implements Serializable
+    {
+
+        private String label;
+
+        private Map<Character, Node> children = Collections.emptyMap();
+
+        /**
+         * Privileges granted for the URLs which start with the key of this node.
+         */
+        private Set<Privileges> prefixPrivileges = Collections.emptySet();
+
+        /**
+         * Privileges granted only for the URL which is equal to the key of this node.
+         */
+        private Set<Privileges> exactPrivileges = Collections.emptySet();
+
+        private Node(String label)
+        {
+            this.label = label;
+        }
+
+        private Node getChild(char c)
+        {
+            return children.get(c);
+        }
+
+        private Node addChild(Node child)
+        {
+            if (children.isEmpty())
+            {
+                children = new HashMap<>(4);
+            }
+            children.put(child.label.charAt(0), child);
+
+            return child;
+        }
+
+        /**
+         * Replaces the child with an intermediate node, which holds the first `length` characters of its label.
+         */
+        private Node splitChild(Node child,
+                                int length)
+        {
+            Node intermediate = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            intermediate.addChild(child);
+            children.put(intermediate.label.charAt(0), intermediate);
+
+            return intermediate;
+        }
+
+        private void addPrefixPrivileges(Set<Privileges> privileges)
+        {
+            prefixPrivileges = merge(prefixPrivileges, privileges);
+        }
+
+        private void addExactPrivileges(Set<Privileges> privileges)
+        {
+            exactPrivileges = merge(exactPrivileges, privileges);
+        }
+
+        private void collectPrefixPrivileges(Set<Privileges> target)
+        {
+            target.addAll(prefixPrivileges);
+        }
+
+        private void collectExactPrivileges(Set<Privileges> target)
+        {
+            target.addAll(exactPrivileges);
+        }
+
+        private static Set<Privileges> merge(Set<Privileges> source,
+                                             Set<Privileges> privileges)
+        {
+            if (privileges == null || privileges.isEmpty())
+            {
+                return source;
+            }
+
+            Set<Privileges> result = EnumSet.noneOf(Privileges.class);
+            result.addAll(source);
+            result.addAll(privileges);
+
+            return result;
+        }
+
+    }
+
+}
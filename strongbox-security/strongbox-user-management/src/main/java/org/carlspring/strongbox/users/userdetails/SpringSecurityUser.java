@@ -3,10 +3,12 @@ package org.carlspring.strongbox.users.userdetails;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.carlspring.strongbox.authorization.dto.Role;
+import org.carlspring.strongbox.users.domain.PathAuthoritiesTree;
 import org.carlspring.strongbox.users.domain.Privileges;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -97,13 +99,19 @@ public class SpringSecurityUser
         return roles.stream().flatMap(r -> r.getAccessModel().getApiAuthorities().stream()).collect(Collectors.toSet());
     }
 
+    /**
+     * Returns the storage, repository and path privileges of the user for the given URL. The path privileges of the
+     * role access models are resolved with their precomputed {@link PathAuthoritiesTree}s.
+     */
     public Collection<Privileges> getStorageAuthorities(String path)
     {
-        return getRoles().stream()
-                         .flatMap(r -> r.getAccessModel()
-                                        .getPathAuthorities(path)
-                                        .stream())
-                         .collect(Collectors.toSet());
+        Set<Privileges> result = EnumSet.noneOf(Privileges.class);
+        for (Role role : getRoles())
+        {
+            result.addAll(role.getAccessModel().getPathAuthorities(path));
+        }
+
+        return result;
     }
 
     public String getUrl()
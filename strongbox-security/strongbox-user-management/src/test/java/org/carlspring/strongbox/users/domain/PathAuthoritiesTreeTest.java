@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.users.domain;
+
+import org.carlspring.strongbox.users.dto.AccessModelDto;
+import org.carlspring.strongbox.users.dto.PathPrivilegesDto;
+import org.carlspring.strongbox.users.dto.RepositoryPrivilegesDto;
+import org.carlspring.strongbox.users.dto.StoragePrivilegesDto;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathAuthoritiesTreeTest
+{
+
+    @Test
+    public void testPathAuthorities()
+    {
+        AccessModelDto accessModelDto = new AccessModelDto();
+
+        StoragePrivilegesDto storage = new StoragePrivilegesDto("storage0");
+        accessModelDto.getStorageAuthorities().add(storage);
+
+        RepositoryPrivilegesDto releases = new RepositoryPrivilegesDto("releases");
+        releases.getRepositoryPrivileges().add(Privileges.ARTIFACTS_VIEW);
+        releases.getPathPrivileges().add(pathPrivileges("org/carlspring/", true, Privileges.ARTIFACTS_RESOLVE));
+        releases.getPathPrivileges().add(pathPrivileges("org/carlspring/foo", false, Privileges.ARTIFACTS_DEPLOY));
+        releases.getPathPrivileges().add(pathPrivileges("org/apache", false, Privileges.ARTIFACTS_DELETE));
+        storage.getRepositoryPrivileges().add(releases);
+
+        RepositoryPrivilegesDto snapshots = new RepositoryPrivilegesDto("snapshots");
+        snapshots.getRepositoryPrivileges().add(Privileges.ARTIFACTS_COPY);
+        storage.getRepositoryPrivileges().add(snapshots);
+
+        AccessModelData accessModel = new AccessModelData(accessModelDto);
+
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/com/example"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/org/carlspring/bar"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_RESOLVE);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/org/carlspring/foo/"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_RESOLVE, Privileges.ARTIFACTS_DEPLOY);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/org/carlspring/foo/1.0"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_RESOLVE);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/org/apache"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_DELETE);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/releases/org/apache/commons"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW);
+        assertThat(accessModel.getPathAuthorities("/storages/storage0/snapshots/org/carlspring/foo"))
+                .containsOnly(Privileges.ARTIFACTS_COPY);
+        assertThat(accessModel.getPathAuthorities("/storages/storage1/releases/org/carlspring/foo")).isEmpty();
+        assertThat(accessModel.getPathAuthorities("/storages/storage0")).isEmpty();
+
+        // The same privileges are resolved for the mutable access model.
+        assertThat(accessModelDto.getPathAuthorities("/storages/storage0/releases/org/carlspring/foo"))
+                .containsOnly(Privileges.ARTIFACTS_VIEW, Privileges.ARTIFACTS_RESOLVE, Privileges.ARTIFACTS_DEPLOY);
+    }
+
+    private PathPrivilegesDto pathPrivileges(String path,
+                                             boolean wildcard,
+                                             Privileges... privileges)
+    {
+        PathPrivilegesDto result = new PathPrivilegesDto(path);
+        result.setWildcard(wildcard);
+        result.setPrivileges(EnumSet.of(privileges[0], privileges));
+
+        return result;
+    }
+
+}
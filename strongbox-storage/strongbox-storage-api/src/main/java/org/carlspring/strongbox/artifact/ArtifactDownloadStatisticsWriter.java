@@ -0,0 +1,363 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Collects artifact download statistics in memory and periodically flushes them into {@link ArtifactEntry} records.
+ * Downloads of the same artifact are summed up between flushes, so that every artifact is updated at most once per
+ * flush, and the updates are written in batches of {@link #batchSize} entries per transaction.
+ * <p>
+ * If the transaction of a batch fails, its entries are written one by one, so that a failing entry doesn't hold back
+ * the others. The failed entries are retried with the next flushes, up to {@link #maxAttempts} times, and at most
+ * {@link #maxPending} artifacts are waiting to be written, the downloads of the other artifacts are dropped until the
+ * next flush.
+ */
+@Component
+public class ArtifactDownloadStatisticsWriter
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsWriter.class);
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.artifact.downloadStatistics.flushIntervalMillis:5000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.artifact.downloadStatistics.batchSize:500}")
+    private int batchSize;
+
+    @Value("${strongbox.artifact.downloadStatistics.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${strongbox.artifact.downloadStatistics.maxPending:100000}")
+    private int maxPending;
+
+    private final AtomicLong droppedDownloads = new AtomicLong();
+
+    private final ConcurrentMap<ArtifactKey, DownloadStatistics> pendingStatistics = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        Assert.isTrue(flushIntervalMillis > 0,
+                      "flushIntervalMillis cannot be negative or zero but was " + flushIntervalMillis);
+        Assert.isTrue(batchSize > 0, "batchSize cannot be negative or zero but was " + batchSize);
+        Assert.isTrue(maxAttempts > 0, "maxAttempts cannot be negative or zero but was " + maxAttempts);
+        Assert.isTrue(maxPending > 0, "maxPending cannot be negative or zero but was " + maxPending);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, ArtifactDownloadStatisticsWriter.class.getSimpleName());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+
+        logger.info("Artifact download statistics will be flushed every [{}] ms in batches of [{}].",
+                    flushIntervalMillis, batchSize);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        flush();
+    }
+
+    public void recordDownload(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        recordDownload(repository.getStorage().getId(), repository.getId(),
+                       RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    void recordDownload(String storageId,
+                        String repositoryId,
+                        String path)
+    {
+        ArtifactKey artifactKey = new ArtifactKey(storageId, repositoryId, path);
+        if (pendingStatistics.size() >= maxPending && !pendingStatistics.containsKey(artifactKey))
+        {
+            droppedDownloads.incrementAndGet();
+
+            return;
+        }
+
+        pendingStatistics.merge(artifactKey, new DownloadStatistics(1, System.currentTimeMillis(), 0),
+                                DownloadStatistics::merge);
+    }
+
+    public int getPendingCount()
+    {
+        return pendingStatistics.size();
+    }
+
+    /**
+     * Writes all the statistics collected so far. Statistics which failed to be written are kept and retried with
+     * the next flush, unless they have failed too many times already.
+     */
+    public synchronized void flush()
+    {
+        long dropped = droppedDownloads.getAndSet(0);
+        if (dropped > 0)
+        {
+            logger.warn("Dropped [{}] downloads, as the statistics of [{}] artifacts were waiting to be written already.",
+                        dropped, maxPending);
+        }
+
+        List<ArtifactKey> artifactKeys = new ArrayList<>(pendingStatistics.keySet());
+        if (artifactKeys.isEmpty())
+        {
+            return;
+        }
+
+        logger.debug("Flushing download statistics for [{}] artifacts.", artifactKeys.size());
+
+        List<ArtifactKey> batch = new ArrayList<>(Math.min(batchSize, artifactKeys.size()));
+        List<DownloadStatistics> batchStatistics = new ArrayList<>(Math.min(batchSize, artifactKeys.size()));
+        for (ArtifactKey artifactKey : artifactKeys)
+        {
+            DownloadStatistics statistics = pendingStatistics.remove(artifactKey);
+            if (statistics == null)
+            {
+                continue;
+            }
+
+            batch.add(artifactKey);
+            batchStatistics.add(statistics);
+            if (batch.size() < batchSize)
+            {
+                continue;
+            }
+
+            flushBatch(batch, batchStatistics);
+
+            batch.clear();
+            batchStatistics.clear();
+        }
+
+        if (!batch.isEmpty())
+        {
+            flushBatch(batch, batchStatistics);
+        }
+    }
+
+    private void flushSafely()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush artifact download statistics.", e);
+        }
+    }
+
+    private void flushBatch(List<ArtifactKey> batch,
+                            List<DownloadStatistics> batchStatistics)
+    {
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                for (int i = 0; i < batch.size(); i++)
+                {
+                    writeStatistics(batch.get(i), batchStatistics.get(i));
+                }
+
+                return null;
+            });
+        }
+        catch (Exception e)
+        {
+            logger.warn("Failed to write download statistics for [{}] artifacts at once, writing them one by one.",
+                        batch.size(), e);
+
+            for (int i = 0; i < batch.size(); i++)
+            {
+                flushOne(batch.get(i), batchStatistics.get(i));
+            }
+        }
+    }
+
+    private void flushOne(ArtifactKey artifactKey,
+                          DownloadStatistics statistics)
+    {
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                writeStatistics(artifactKey, statistics);
+
+                return null;
+            });
+        }
+        catch (Exception e)
+        {
+            int attempts = statistics.attempts + 1;
+            if (attempts >= maxAttempts)
+            {
+                logger.error("Failed to write download statistics for [{}] [{}] times, drop [{}] downloads.",
+                             artifactKey, attempts, statistics.downloadCount, e);
+
+                return;
+            }
+
+            // Concurrent modifications (ONeedRetryException) end up here as well, the statistics will be written
+            // against the fresh record on the next flush.
+            logger.warn("Failed to write download statistics for [{}], will retry with the next flush.",
+                        artifactKey, e);
+
+            pendingStatistics.merge(artifactKey,
+                                    new DownloadStatistics(statistics.downloadCount, statistics.lastUsed, attempts),
+                                    DownloadStatistics::merge);
+        }
+    }
+
+    private void writeStatistics(ArtifactKey artifactKey,
+                                 DownloadStatistics statistics)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(artifactKey.storageId,
+                                                                           artifactKey.repositoryId,
+                                                                           artifactKey.path);
+        if (artifactEntry == null)
+        {
+            logger.debug("No [{}] found for [{}], skip [{}] downloads.",
+                         ArtifactEntry.class.getSimpleName(), artifactKey, statistics.downloadCount);
+
+            return;
+        }
+
+        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + statistics.downloadCount);
+
+        Date lastUsed = artifactEntry.getLastUsed();
+        if (lastUsed == null || lastUsed.getTime() < statistics.lastUsed)
+        {
+            artifactEntry.setLastUsed(new Date(statistics.lastUsed));
+        }
+
+        artifactEntryService.save(artifactEntry);
+    }
+
+    private static class ArtifactKey
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final String path;
+
+        private ArtifactKey(String storageId,
+                            String repositoryId,
+                            String path)
+        {
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ArtifactKey))
+            {
+                return false;
+            }
+
+            ArtifactKey that = (ArtifactKey) o;
+
+            return Objects.equals(storageId, that.storageId)
+                    && Objects.equals(repositoryId, that.repositoryId)
+                    && Objects.equals(path, that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(storageId, repositoryId, path);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s:%s:%s", storageId, repositoryId, path);
+        }
+
+    }
+
+    private static class DownloadStatistics
+    {
+
+        private final int downloadCount;
+
+        private final long lastUsed;
+
+        /**
+         * The number of the failed attempts to write the statistics.
+         */
+        private final int attempts;
+
+        private DownloadStatistics(int downloadCount,
+                                   long lastUsed,
+                                   int attempts)
+        {
+            this.downloadCount = downloadCount;
+            this.lastUsed = lastUsed;
+            this.attempts = attempts;
+        }
+
+        private static DownloadStatistics merge(DownloadStatistics s1,
+                                                DownloadStatistics s2)
+        {
+            return new DownloadStatistics(s1.downloadCount + s2.downloadCount,
+                                          Math.max(s1.lastUsed, s2.lastUsed),
+                                          Math.max(s1.attempts, s2.attempts));
+        }
+
+    }
+
+}
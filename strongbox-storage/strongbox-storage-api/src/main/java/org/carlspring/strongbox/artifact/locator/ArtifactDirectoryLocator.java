@@ -6,6 +6,9 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -34,15 +37,7 @@ public class ArtifactDirectoryLocator
 
         RepositoryPath startingPath = getStartingPath();
 
-        try (Stream<Path> pathStream = Files.walk(startingPath))
-        {
-            pathStream.filter(Files::isDirectory)
-                      // Skip directories which start with a dot (like, for example: .index)
-                      .filter(path -> !path.getFileName().toString().startsWith("."))
-                      // Note: Sorting can be expensive:
-                      .sorted()
-                      .forEach(this::execute);
-        }
+        locateArtifactDirectories(startingPath);
 
         long endTime = System.currentTimeMillis();
 
@@ -52,6 +47,34 @@ public class ArtifactDirectoryLocator
         getOperation().getVisitedRootPaths().clear();
     }
 
+    /**
+     * Visits the directories depth-first, with the subdirectories of every directory in the order of their names. Only
+     * the subdirectories of the directories on the current path are kept in memory, instead of sorting the whole
+     * tree.
+     */
+    private void locateArtifactDirectories(RepositoryPath directory)
+        throws IOException
+    {
+        // Skip directories which start with a dot (like, for example: .index)
+        if (!directory.getFileName().toString().startsWith("."))
+        {
+            execute(directory);
+        }
+
+        List<Path> subdirectories;
+        try (Stream<Path> pathStream = Files.list(directory))
+        {
+            subdirectories = pathStream.filter(Files::isDirectory)
+                                       .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                                       .collect(Collectors.toList());
+        }
+
+        for (Path subdirectory : subdirectories)
+        {
+            locateArtifactDirectories((RepositoryPath) subdirectory);
+        }
+    }
+
     public RepositoryPath getStartingPath()
     {
         // The root path
@@ -27,6 +27,9 @@ public class ArtifactGroupEntry extends GenericEntity implements ArtifactGroup
                            CascadeType.PERSIST,
                            CascadeType.REFRESH })
     private Set<ArtifactEntry> artifactEntries = new HashSet<>();
+    @ManyToOne(cascade = { CascadeType.DETACH,
+                           CascadeType.REFRESH })
+    private Set<ArtifactEntry> lastVersionEntries = new HashSet<>();
 
     public ArtifactGroupEntry()
     {
@@ -55,6 +58,20 @@ public class ArtifactGroupEntry extends GenericEntity implements ArtifactGroup
         return artifactEntries != null ? artifactEntries : Collections.emptySet();
     }
 
+    /**
+     * @return the artifact entries of the last version in the group, the ones which have the `last-version` tag
+     */
+    @Nonnull
+    public Set<ArtifactEntry> getLastVersionEntries()
+    {
+        return lastVersionEntries != null ? lastVersionEntries : Collections.emptySet();
+    }
+
+    public void setLastVersionEntries(Set<ArtifactEntry> lastVersionEntries)
+    {
+        this.lastVersionEntries = lastVersionEntries;
+    }
+
     public ArtifactEntry putArtifactEntry(ArtifactEntry artifactEntry)
     {
         if (!artifactEntries.contains(artifactEntry))
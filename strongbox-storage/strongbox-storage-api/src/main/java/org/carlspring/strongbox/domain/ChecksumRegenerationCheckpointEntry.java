@@ -0,0 +1,115 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+import java.util.Date;
+
+/**
+ * The progress of a checksum regeneration of a repository (or of a path within it), so that an interrupted
+ * regeneration resumes after the last directory which was completed, instead of starting over.
+ */
+@Entity
+public class ChecksumRegenerationCheckpointEntry
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private String basePath;
+
+    private Boolean forceRegeneration;
+
+    private Date startedAt;
+
+    private String lastPath;
+
+    public ChecksumRegenerationCheckpointEntry()
+    {
+    }
+
+    public ChecksumRegenerationCheckpointEntry(String storageId,
+                                               String repositoryId,
+                                               String basePath)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.basePath = basePath;
+        this.uuid = calculateUuid(storageId, repositoryId, basePath);
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public String getBasePath()
+    {
+        return basePath;
+    }
+
+    public void setBasePath(String basePath)
+    {
+        this.basePath = basePath;
+    }
+
+    public Boolean getForceRegeneration()
+    {
+        return forceRegeneration;
+    }
+
+    public void setForceRegeneration(Boolean forceRegeneration)
+    {
+        this.forceRegeneration = forceRegeneration;
+    }
+
+    public Date getStartedAt()
+    {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt)
+    {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * @return the repository relative path of the last directory which was completed, every directory before it
+     *         (in the order of the regeneration) was completed as well
+     */
+    public String getLastPath()
+    {
+        return lastPath;
+    }
+
+    public void setLastPath(String lastPath)
+    {
+        this.lastPath = lastPath;
+    }
+
+    public static String calculateUuid(String storageId,
+                                       String repositoryId,
+                                       String basePath)
+    {
+        return String.format("checksum-regeneration:%s:%s:%s", storageId, repositoryId,
+                             basePath != null ? basePath : "");
+    }
+
+}
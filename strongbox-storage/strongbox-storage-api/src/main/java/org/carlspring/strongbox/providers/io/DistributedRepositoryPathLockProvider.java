@@ -0,0 +1,28 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import ca.thoughtwire.lock.DistributedLockService;
+
+/**
+ * Cluster wide {@link RepositoryPathLockProvider} backed by Hazelcast.
+ */
+public class DistributedRepositoryPathLockProvider implements RepositoryPathLockProvider
+{
+
+    private final DistributedLockService lockService;
+
+    public DistributedRepositoryPathLockProvider(HazelcastInstance hazelcastInstance)
+    {
+        this.lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+    }
+
+    @Override
+    public ReadWriteLock getLock(String lockName)
+    {
+        return lockService.getReentrantReadWriteLock(lockName);
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * {@link RepositoryPathLockProvider} which takes In-JVM read locks and cluster wide write locks. Writers also take
+ * the local write lock, so readers are still excluded by the writers of the same node, while reads don't need any
+ * cluster coordination.
+ */
+public class LocalReadDistributedWriteRepositoryPathLockProvider implements RepositoryPathLockProvider
+{
+
+    private final RepositoryPathLockProvider localLockProvider;
+
+    private final RepositoryPathLockProvider distributedLockProvider;
+
+    public LocalReadDistributedWriteRepositoryPathLockProvider(RepositoryPathLockProvider localLockProvider,
+                                                               RepositoryPathLockProvider distributedLockProvider)
+    {
+        this.localLockProvider = localLockProvider;
+        this.distributedLockProvider = distributedLockProvider;
+    }
+
+    @Override
+    public ReadWriteLock getLock(String lockName)
+    {
+        ReadWriteLock localLock = localLockProvider.getLock(lockName);
+
+        return new ReadWriteLock()
+        {
+
+            @Override
+            public Lock readLock()
+            {
+                return localLock.readLock();
+            }
+
+            @Override
+            public Lock writeLock()
+            {
+                return new CompositeLock(distributedLockProvider.getLock(lockName).writeLock(),
+                                         localLock.writeLock());
+            }
+
+        };
+    }
+
+    /**
+     * Acquires the outer lock and then the inner lock, releases them in the reverse order.
+     */
+    private static class CompositeLock implements Lock
+    {
+
+        private final Lock outer;
+
+        private final Lock inner;
+
+        private CompositeLock(Lock outer,
+                              Lock inner)
+        {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        public void lock()
+        {
+            outer.lock();
+            try
+            {
+                inner.lock();
+            }
+            catch (RuntimeException e)
+            {
+                outer.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            outer.lockInterruptibly();
+            try
+            {
+                inner.lockInterruptibly();
+            }
+            catch (InterruptedException | RuntimeException e)
+            {
+                outer.unlock();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            if (!outer.tryLock())
+            {
+                return false;
+            }
+            if (inner.tryLock())
+            {
+                return true;
+            }
+
+            outer.unlock();
+
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!outer.tryLock(time, unit))
+            {
+                return false;
+            }
+
+            boolean locked = false;
+            try
+            {
+                locked = inner.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            finally
+            {
+                if (!locked)
+                {
+                    outer.unlock();
+                }
+            }
+
+            return locked;
+        }
+
+        @Override
+        public void unlock()
+        {
+            try
+            {
+                inner.unlock();
+            }
+            finally
+            {
+                outer.unlock();
+            }
+        }
+
+        /**
+         * Not supported, a condition can only release the one lock it was created by. A condition of the outer lock
+         * would await with the inner lock still held, so that a signalling thread would block on the inner lock while
+         * holding the outer one, and neither thread could proceed. The path locks are never waited on with
+         * conditions.
+         */
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException("Conditions are not supported by composite locks.");
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * In-JVM {@link RepositoryPathLockProvider} with one lock per lock name, so there is no coordination cost.
+ * <p>
+ * Distinct names never share a lock. A thread which holds the lock of one path can wait for a helper thread which
+ * locks another one (like the {@code <id>?ArtifactEntry} locks of the artifact entry handlers), which could deadlock
+ * if both names were mapped onto the same stripe. The locks are weakly referenced, so the lock of a name is released
+ * once nobody uses it anymore.
+ */
+public class LocalRepositoryPathLockProvider implements RepositoryPathLockProvider
+{
+
+    private final LoadingCache<String, ReadWriteLock> locks = CacheBuilder.newBuilder()
+                                                                          .weakValues()
+                                                                          .build(CacheLoader.from(NamedReadWriteLock::new));
+
+    @Override
+    public ReadWriteLock getLock(String lockName)
+    {
+        return locks.getUnchecked(lockName);
+    }
+
+    /**
+     * The callers often keep only the read or the write lock, so these hold on to the lock they belong to. Otherwise
+     * the lock of a name could be collected while it's held, and the next caller would get a new one.
+     */
+    private static class NamedReadWriteLock implements ReadWriteLock
+    {
+
+        private final ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
+
+        private final Lock readLock = new StrongReferenceLock(delegate.readLock(), this);
+
+        private final Lock writeLock = new StrongReferenceLock(delegate.writeLock(), this);
+
+        @Override
+        public Lock readLock()
+        {
+            return readLock;
+        }
+
+        @Override
+        public Lock writeLock()
+        {
+            return writeLock;
+        }
+
+    }
+
+    private static class StrongReferenceLock implements Lock
+    {
+
+        private final Lock delegate;
+
+        @SuppressWarnings("unused")
+        private final ReadWriteLock owner;
+
+        private StrongReferenceLock(Lock delegate,
+                                    ReadWriteLock owner)
+        {
+            this.delegate = delegate;
+            this.owner = owner;
+        }
+
+        @Override
+        public void lock()
+        {
+            delegate.lock();
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            delegate.lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            return delegate.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            return delegate.tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock()
+        {
+            delegate.unlock();
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            return delegate.newCondition();
+        }
+
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared cache of the strongbox specific {@link RepositoryPath} attributes (see {@link RepositoryFileAttributeType}),
+ * so that they are calculated once per path rather than once per {@link RepositoryPath} instance.
+ * <p>
+ * The entries are keyed by the normalized path within the repository and are invalidated by the storage when the
+ * path is written, deleted or created as a directory, and all of them are invalidated when the configuration changes.
+ * Time dependent attributes, like {@link RepositoryFileAttributeType#EXPIRED}, and the mutable
+ * {@link RepositoryFileAttributeType#COORDINATES} are never cached, so that every caller gets its own coordinates.
+ */
+@Component
+public class RepositoryFileAttributesCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryFileAttributesCache.class);
+
+    private static final Set<RepositoryFileAttributeType> NON_CACHEABLE_ATTRIBUTES = EnumSet.of(
+            RepositoryFileAttributeType.EXPIRED,
+            RepositoryFileAttributeType.COORDINATES);
+
+    /**
+     * Marks the attributes which were calculated, but have no value (e.g. the attributes which don't apply to the path).
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    @Value("${strongbox.storage.fileAttributes.cache.maxSize:100000}")
+    private long maxSize;
+
+    @Value("${strongbox.storage.fileAttributes.cache.expireAfterWriteSeconds:600}")
+    private long expireAfterWriteSeconds;
+
+    private Cache<String, ConcurrentMap<RepositoryFileAttributeType, Object>> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                            .build();
+
+        logger.info("Repository file attributes cache will keep up to [{}] paths for [{}] seconds.",
+                    maxSize, expireAfterWriteSeconds);
+    }
+
+    /**
+     * Returns the requested attributes of the path, the ones which were not cached yet are calculated with the given
+     * loader. Attributes without value are not included into the result.
+     */
+    public Map<RepositoryFileAttributeType, Object> get(RepositoryPath path,
+                                                        RepositoryFileAttributeType[] attributeTypes,
+                                                        RepositoryFileAttributesLoader loader)
+            throws IOException
+    {
+        Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+        if (attributeTypes == null || attributeTypes.length == 0)
+        {
+            return result;
+        }
+
+        ConcurrentMap<RepositoryFileAttributeType, Object> cachedAttributes;
+        try
+        {
+            cachedAttributes = cache.get(getKey(path), ConcurrentHashMap::new);
+        }
+        catch (Exception e)
+        {
+            throw new IOException(e);
+        }
+
+        List<RepositoryFileAttributeType> missingAttributeTypes = new ArrayList<>(attributeTypes.length);
+        for (RepositoryFileAttributeType attributeType : attributeTypes)
+        {
+            Object value = cachedAttributes.get(attributeType);
+            if (value == null)
+            {
+                missingAttributeTypes.add(attributeType);
+            }
+            else if (value != NULL_VALUE)
+            {
+                result.put(attributeType, value);
+            }
+        }
+
+        if (missingAttributeTypes.isEmpty())
+        {
+            return result;
+        }
+
+        Map<RepositoryFileAttributeType, Object> loadedAttributes = loader.load(path,
+                                                                                missingAttributeTypes.toArray(new RepositoryFileAttributeType[missingAttributeTypes.size()]));
+        for (RepositoryFileAttributeType attributeType : missingAttributeTypes)
+        {
+            Object value = loadedAttributes.get(attributeType);
+            if (value != null)
+            {
+                result.put(attributeType, value);
+            }
+            if (!NON_CACHEABLE_ATTRIBUTES.contains(attributeType))
+            {
+                cachedAttributes.put(attributeType, value == null ? NULL_VALUE : value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Invalidates the cached attributes of the given path.
+     */
+    public void invalidate(RepositoryPath path)
+    {
+        cache.invalidate(getKey(path));
+    }
+
+    /**
+     * Invalidates the cached attributes of the given directory and all the paths within it.
+     */
+    public void invalidateDirectory(RepositoryPath path)
+    {
+        String key = getKey(path);
+        String prefix = key.endsWith("/") ? key : key + "/";
+
+        cache.asMap().keySet().removeIf(k -> k.equals(key) || k.startsWith(prefix));
+    }
+
+    /**
+     * Invalidates the cached attributes of all the paths within the repository.
+     */
+    public void invalidateRepository(Repository repository)
+    {
+        String prefix = getKeyPrefix(repository);
+
+        cache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    public long size()
+    {
+        return cache.size();
+    }
+
+    private String getKey(RepositoryPath path)
+    {
+        // Don't use `RepositoryFiles.relativizePath()` here, because it depends on the attributes itself.
+        return getKeyPrefix(path.getRepository()) + path.getTarget().normalize().toString().replace('\\', '/');
+    }
+
+    private String getKeyPrefix(Repository repository)
+    {
+        return String.format("%s:%s:", repository.getStorage().getId(), repository.getId());
+    }
+
+    @FunctionalInterface
+    public interface RepositoryFileAttributesLoader
+    {
+
+        Map<RepositoryFileAttributeType, Object> load(RepositoryPath path,
+                                                      RepositoryFileAttributeType... attributeTypes)
+                throws IOException;
+
+    }
+
+}
@@ -31,31 +31,31 @@ public abstract class RepositoryFiles
     public static Boolean isChecksum(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.CHECKSUM));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.CHECKSUM);
     }
 
     public static Boolean isMetadata(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.METADATA));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.METADATA);
     }
 
     public static Boolean isTrash(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TRASH));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.TRASH);
     }
 
     public static Boolean isTemp(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TEMP));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.TEMP);
     }
     
     public static Boolean isArtifact(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.ARTIFACT));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.ARTIFACT);
     }
 
     public static boolean wasModifiedAfter(RepositoryPath path,
@@ -69,22 +69,33 @@ public abstract class RepositoryFiles
     public static Boolean hasExpired(RepositoryPath path)
             throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.EXPIRED));
+        return (Boolean) readAttribute(path, RepositoryFileAttributeType.EXPIRED);
     }
 
     public static ArtifactCoordinates readCoordinates(RepositoryPath path)
         throws IOException
     {
-        return (ArtifactCoordinates) Files.getAttribute(path,
-                                                        formatAttributes(RepositoryFileAttributeType.COORDINATES));
+        return (ArtifactCoordinates) readAttribute(path, RepositoryFileAttributeType.COORDINATES);
     }
 
     public static URL readResourceUrl(RepositoryPath path)
         throws IOException
     {
-        return (URL) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.RESOURCE_URL));
+        return (URL) readAttribute(path, RepositoryFileAttributeType.RESOURCE_URL);
     }
     
+    /**
+     * Reads single strongbox attribute of the path, this is the same as
+     * {@code Files.getAttribute(path, formatAttributes(attributeType))} but without formatting and parsing of the
+     * attribute name.
+     */
+    public static Object readAttribute(RepositoryPath path,
+                                       RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        return path.getFileSystem().provider().readRepositoryFileAttribute(path, attributeType);
+    }
+
     public static String formatAttributes(RepositoryFileAttributeType... attributeTypes)
     {
         if (attributeTypes == null)
@@ -10,30 +10,57 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import com.hazelcast.core.HazelcastInstance;
 
-import ca.thoughtwire.lock.DistributedLockService;
-
 /**
  * @author Przemyslaw Fusik
  */
 @Component
-public class RepositoryPathLock
+public class RepositoryPathLock implements InitializingBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryPathLock.class);
 
-    private DistributedLockService lockService;
-
     @Inject
-    public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
+    private HazelcastInstance hazelcastInstance;
+
+    @Value("${strongbox.lock.mode:}")
+    private String lockMode;
+
+    @Value("${cacheManagerConfiguration.enableMulticastConfig:false}")
+    private boolean clusteringEnabled;
+
+    private RepositoryPathLockProvider lockProvider;
+
+    @Override
+    public void afterPropertiesSet()
     {
-        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+        RepositoryPathLockMode mode = StringUtils.isBlank(lockMode)
+                ? (clusteringEnabled ? RepositoryPathLockMode.DISTRIBUTED : RepositoryPathLockMode.LOCAL)
+                : RepositoryPathLockMode.valueOf(lockMode.trim().toUpperCase());
+
+        switch (mode)
+        {
+            case DISTRIBUTED:
+                lockProvider = new DistributedRepositoryPathLockProvider(hazelcastInstance);
+                break;
+            case LOCAL_READ_DISTRIBUTED_WRITE:
+                lockProvider = new LocalReadDistributedWriteRepositoryPathLockProvider(new LocalRepositoryPathLockProvider(),
+                                                                                       new DistributedRepositoryPathLockProvider(hazelcastInstance));
+                break;
+            default:
+                lockProvider = new LocalRepositoryPathLockProvider();
+        }
+
+        logger.info("Using [{}] repository path lock mode.", mode);
     }
 
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -44,13 +71,29 @@ public class RepositoryPathLock
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath,
                               String id) throws IOException
     {
-        URI lock = getLock(repositoryPath);
-        String lockName = Optional.ofNullable(id)
-                                  .map(p -> String.format("%s?%s", lock, p))
-                                  .orElseGet(() -> lock.toString());
-        logger.debug("Get lock for [{}]", lock);
+        String lockName = getLockName(repositoryPath, id);
+        logger.debug("Get lock for [{}]", lockName);
         
-        return lockService.getReentrantReadWriteLock(lockName);
+        return lockProvider.getLock(lockName);
+    }
+
+    /**
+     * The paths which share a lock have the same lock name, so callers which need several locks at once can take
+     * them ordered by their names.
+     */
+    public String getLockName(final @Nonnull RepositoryPath repositoryPath) throws IOException
+    {
+        return getLockName(repositoryPath, null);
+    }
+
+    private String getLockName(final @Nonnull RepositoryPath repositoryPath,
+                               String id) throws IOException
+    {
+        URI lock = getLock(repositoryPath);
+
+        return Optional.ofNullable(id)
+                       .map(p -> String.format("%s?%s", lock, p))
+                       .orElseGet(() -> lock.toString());
     }
 
     private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
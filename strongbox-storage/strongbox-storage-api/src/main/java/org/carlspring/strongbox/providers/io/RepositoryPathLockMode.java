@@ -0,0 +1,26 @@
+package org.carlspring.strongbox.providers.io;
+
+/**
+ * Defines how {@link RepositoryPathLock} locks are coordinated, it can be configured with the
+ * {@code strongbox.lock.mode} property. If the mode is not configured, then {@link #DISTRIBUTED} is used for clustered
+ * deployments and {@link #LOCAL} otherwise.
+ */
+public enum RepositoryPathLockMode
+{
+
+    /**
+     * In-JVM locks only, suitable for standalone deployments.
+     */
+    LOCAL,
+
+    /**
+     * Cluster wide Hazelcast locks.
+     */
+    DISTRIBUTED,
+
+    /**
+     * In-JVM read locks along with cluster wide write locks.
+     */
+    LOCAL_READ_DISTRIBUTED_WRITE;
+
+}
@@ -0,0 +1,15 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Source of the named {@link ReadWriteLock}s used by {@link RepositoryPathLock}.
+ *
+ * @see RepositoryPathLockMode
+ */
+public interface RepositoryPathLockProvider
+{
+
+    ReadWriteLock getLock(String lockName);
+
+}
@@ -3,7 +3,9 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -130,6 +132,20 @@ public class RepositoryStreamSupport
             }
         }
         
+        /**
+         * Discards the content written so far: the target file is kept as it was when this stream is closed, and
+         * nothing is committed.
+         */
+        public void abort()
+        {
+            StorageFileSystemProvider.TempOutputStream tempOutputStream = StreamUtils.findSource(StorageFileSystemProvider.TempOutputStream.class,
+                                                                                                 out);
+            if (tempOutputStream != null)
+            {
+                tempOutputStream.abort();
+            }
+        }
+
         @Override
         protected void beforeWrite(int n)
             throws IOException
@@ -185,6 +201,8 @@ public class RepositoryStreamSupport
             extends ProxyInputStream
     {
 
+        private FileChannel fileChannel;
+
         protected RepositoryInputStream(Path path,
                                         InputStream in) throws IOException
         {
@@ -221,12 +239,54 @@ public class RepositoryStreamSupport
         protected void beforeRead(int n)
             throws IOException
         {
-            if (((CountingInputStream) in).getByteCount() == 0)
+            if (((CountingInputStream) in).getByteCount() == 0 && fileChannel == null)
             {
                 callback.onBeforeRead((RepositoryStreamReadContext) ctx);
             }
         }
 
+        /**
+         * Opens {@link FileChannel} for the file behind this stream, so that its content can be sent with
+         * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} or memory mapping instead
+         * of reading it through this stream. The channel is read under the same lock and with the same callbacks as
+         * the stream itself, and it will be closed along with the stream.
+         *
+         * @return the channel or {@code null} if the underlying storage doesn't support {@link FileChannel}s
+         */
+        public FileChannel getFileChannel()
+            throws IOException
+        {
+            if (fileChannel != null)
+            {
+                return fileChannel;
+            }
+
+            FileChannel result;
+            try
+            {
+                result = FileChannel.open(getContext().getPath(), StandardOpenOption.READ);
+            }
+            catch (UnsupportedOperationException e)
+            {
+                logger.debug("File channels are not supported for [{}].", getContext().getPath());
+
+                return null;
+            }
+
+            try
+            {
+                beforeRead(0);
+            }
+            catch (IOException e)
+            {
+                result.close();
+                throw e;
+            }
+            fileChannel = result;
+
+            return fileChannel;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -234,7 +294,11 @@ public class RepositoryStreamSupport
             try
             {
                 super.close();
-                if (((CountingInputStream) in).getByteCount() > 0) 
+                if (fileChannel != null)
+                {
+                    fileChannel.close();
+                }
+                if (((CountingInputStream) in).getByteCount() > 0 || fileChannel != null) 
                 {
                     callback.onAfterRead((RepositoryStreamReadContext) ctx);
                 }
@@ -24,14 +24,14 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -519,9 +519,7 @@ public abstract class StorageFileSystemProvider
         }
 
         RepositoryFileAttributes repositoryFileAttributes = new RepositoryFileAttributes(targetAttributes,
-                getRepositoryFileAttributes((RepositoryPath) path,
-                                            RepositoryFiles.parseAttributes("*")
-                                                           .toArray(new RepositoryFileAttributeType[] {})));
+                getRepositoryFileAttributes((RepositoryPath) path, RepositoryFileAttributeType.values()));
 
         return (A) repositoryFileAttributes;
     }
@@ -548,43 +546,65 @@ public abstract class StorageFileSystemProvider
             }
         }
 
-        Set<RepositoryFileAttributeType> targetRepositoryAttributes = new HashSet<>(
-                RepositoryFiles.parseAttributes(attributes));
+        Set<RepositoryFileAttributeType> targetRepositoryAttributes = RepositoryFiles.parseAttributes(attributes);
+        readRepositoryFileAttributes(repositoryPath,
+                                     targetRepositoryAttributes.toArray(new RepositoryFileAttributeType[targetRepositoryAttributes.size()]))
+                .forEach((k, v) -> result.put(k.getName(), v));
 
-        final Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = new HashMap<>();
-        for (Iterator<RepositoryFileAttributeType> iterator = targetRepositoryAttributes.iterator(); iterator.hasNext();)
-        {
-            RepositoryFileAttributeType repositoryFileAttributeType = iterator.next();
-            Optional.ofNullable(repositoryPath.cachedAttributes.get(repositoryFileAttributeType))
-                    .ifPresent(v -> {
-                        repositoryFileAttributes.put(repositoryFileAttributeType, v);
-                        iterator.remove();
-                    });
+        return result;
+    }
 
+    /**
+     * Typed alternative to {@link #readAttributes(Path, String, LinkOption...)} for the strongbox attributes, which
+     * avoids formatting and parsing of the attribute names.
+     */
+    public Map<RepositoryFileAttributeType, Object> readRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                 RepositoryFileAttributeType... attributeTypes)
+        throws IOException
+    {
+        Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+
+        List<RepositoryFileAttributeType> missingAttributeTypes = new ArrayList<>(attributeTypes.length);
+        for (RepositoryFileAttributeType attributeType : attributeTypes)
+        {
+            Object value = repositoryPath.cachedAttributes.get(attributeType);
+            if (value != null)
+            {
+                result.put(attributeType, value);
+            }
+            else
+            {
+                missingAttributeTypes.add(attributeType);
+            }
         }
-        if (!targetRepositoryAttributes.isEmpty())
+        if (missingAttributeTypes.isEmpty())
         {
-            Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
-                                                                                                 targetRepositoryAttributes.toArray(new RepositoryFileAttributeType[targetRepositoryAttributes.size()]));
-            newAttributes.entrySet()
-                         .stream()
-                         .forEach(e -> {
-                             repositoryFileAttributes.put(e.getKey(),
-                                                          e.getValue());
-                             repositoryPath.cachedAttributes.put(e.getKey(),
-                                                                 e.getValue());
-                         });
+            return result;
         }
 
-        result.putAll(repositoryFileAttributes.entrySet()
-                                              .stream()
-                                              .collect(Collectors.toMap(e -> e.getKey()
-                                                                              .getName(),
-                                                                        e -> e.getValue())));
+        Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
+                                                                                             missingAttributeTypes.toArray(new RepositoryFileAttributeType[missingAttributeTypes.size()]));
+        newAttributes.forEach((k, v) -> {
+            result.put(k, v);
+            repositoryPath.cachedAttributes.put(k, v);
+        });
 
         return result;
     }
 
+    public Object readRepositoryFileAttribute(RepositoryPath repositoryPath,
+                                              RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        Object value = repositoryPath.cachedAttributes.get(attributeType);
+        if (value != null)
+        {
+            return value;
+        }
+
+        return readRepositoryFileAttributes(repositoryPath, attributeType).get(attributeType);
+    }
+
     protected abstract Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
                                                                                             RepositoryFileAttributeType... attributeTypes)
         throws IOException;
@@ -651,11 +671,13 @@ public abstract class StorageFileSystemProvider
     }
 
     
-    private class TempOutputStream extends ProxyOutputStream
+    class TempOutputStream extends ProxyOutputStream
     {
 
         private TempRepositoryPath path;
 
+        private boolean aborted;
+
         public TempOutputStream(TempRepositoryPath path,
                                 OpenOption... options)
             throws IOException
@@ -665,6 +687,14 @@ public abstract class StorageFileSystemProvider
             this.path = path;
         }
 
+        /**
+         * The temporary file will be removed on close, instead of replacing the target file.
+         */
+        void abort()
+        {
+            aborted = true;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -673,7 +703,10 @@ public abstract class StorageFileSystemProvider
 
             try
             {
-                moveFromTemporaryDirectory(path);
+                if (!aborted)
+                {
+                    moveFromTemporaryDirectory(path);
+                }
             } 
             finally
             {
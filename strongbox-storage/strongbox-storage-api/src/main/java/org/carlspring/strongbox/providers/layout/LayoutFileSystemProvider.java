@@ -2,7 +2,9 @@ package org.carlspring.strongbox.providers.layout;
 
 import org.carlspring.commons.io.reloading.FSReloadableInputStreamHandler;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
@@ -13,27 +15,37 @@ import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.LazyOutputStream.OutputStreamSupplier;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.providers.io.TempRepositoryPath;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.carlspring.strongbox.storage.ArtifactResolutionException;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.checksum.ChecksumValueCache;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.CopyOption;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +72,15 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private ChecksumValueCache checksumValueCache;
+
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -68,10 +89,34 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     protected abstract AbstractLayoutProvider getLayoutProvider();
     
+    /**
+     * Opens plain stream to read the file content, no digests will be calculated while reading it.
+     * 
+     * @see #newDigestInputStream(Path, OpenOption...)
+     */
     @Override
     public LazyInputStream newInputStream(Path path,
                                           OpenOption... options)
             throws IOException
+    {        
+        return newInputStream(path, false, options);
+    }
+
+    /**
+     * Opens stream which calculates the file digests, with all the repository digest algorithms, while reading it.
+     * This should be used only by those who need the digests, see {@link LayoutInputStream#getHexDigests()}.
+     */
+    public LazyInputStream newDigestInputStream(Path path,
+                                                OpenOption... options)
+            throws IOException
+    {
+        return newInputStream(path, true, options);
+    }
+
+    private LazyInputStream newInputStream(Path path,
+                                           boolean digest,
+                                           OpenOption... options)
+            throws IOException
     {        
         return new LazyInputStream(() -> {
             try
@@ -92,7 +137,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                 bris.setReloadableInputStreamHandler(new FSReloadableInputStreamHandler(path));
                 bris.setLength(Files.size(path));
 
-                return decorateStream((RepositoryPath) path, bris);
+                return decorateStream((RepositoryPath) path, bris, digest);
             }
             catch (NoSuchAlgorithmException e)
             {
@@ -102,11 +147,13 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     }
 
     protected LayoutInputStream decorateStream(RepositoryPath path,
-                                               InputStream is)
+                                               InputStream is,
+                                               boolean digest)
             throws NoSuchAlgorithmException, IOException
     {
-        // Add digest algorithm only if it is not a Checksum (we don't need a Checksum of Checksum).
-        if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
+        // Add digest algorithm only if it was requested and it is not a Checksum (we don't need a Checksum of
+        // Checksum).
+        if (!digest || Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
         {
             return new LayoutInputStream(is, Collections.emptySet());
         }
@@ -122,6 +169,45 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return path.resolveSibling(path.getFileName().toString().concat(checksumExtension));
     }
     
+    /**
+     * Resolves the checksum values of the file by digest algorithm, the values are cached so that the checksum files
+     * don't need to be read every time. Missing checksum files are skipped.
+     */
+    public Map<String, String> resolveChecksumValueMap(RepositoryPath path)
+            throws IOException
+    {
+        return checksumValueCache.get(path, () -> readChecksumValueMap(path));
+    }
+
+    private Map<String, String> readChecksumValueMap(RepositoryPath path)
+            throws IOException
+    {
+        Map<String, RepositoryPath> checksumPathMap = resolveChecksumPathMap(path);
+
+        // The checksums of the stored artifacts are known from the `ArtifactEntry`, if we already have one.
+        ArtifactEntry artifactEntry = path.getArtifactEntry();
+        if (artifactEntry != null && artifactEntry.getChecksums().keySet().containsAll(checksumPathMap.keySet()))
+        {
+            return artifactEntry.getChecksums();
+        }
+
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, RepositoryPath> checksumPathEntry : checksumPathMap.entrySet())
+        {
+            try
+            {
+                result.put(checksumPathEntry.getKey(),
+                           new String(Files.readAllBytes(checksumPathEntry.getValue()), StandardCharsets.UTF_8).trim());
+            }
+            catch (IOException e)
+            {
+                logger.debug("Failed to read checksum [{}]", checksumPathEntry.getValue(), e);
+            }
+        }
+
+        return result;
+    }
+
     @Override
     public LazyOutputStream newOutputStream(Path path,
                                             OpenOption... options)
@@ -178,67 +264,103 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                               boolean forceRegeneration)
             throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error("Failed to read attributes for [{}]", p, e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error("Failed to write checksum for [{}]", p, e);
-                 }
-             });
+        storeChecksum(basePath, forceRegeneration, null);
+    }
+
+    /**
+     * Writes the checksum files of the files within the base path.
+     * <p>
+     * Without the forced regeneration only the missing checksum files and the ones which are older than their file
+     * are written. With the forced regeneration every checksum file is written, except the ones which were written
+     * since the given time (if any), so that a resumed regeneration doesn't write them once again. The files are not
+     * read at all if none of their checksum files need to be written.
+     */
+    public void storeChecksum(RepositoryPath basePath,
+                              boolean forceRegeneration,
+                              FileTime regeneratedSince)
+            throws IOException
+    {
+        try (Stream<Path> pathStream = Files.walk(basePath))
+        {
+            pathStream.filter(p -> !Files.isDirectory(p))
+                      .filter(p -> {
+                          try
+                          {
+                              return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
+                          }
+                          catch (IOException e)
+                          {
+                              logger.error("Failed to read attributes for [{}]", p, e);
+                          }
+                          return false;
+                      })
+                      .forEach(p -> {
+                          try
+                          {
+                              writeChecksum((RepositoryPath) p, forceRegeneration, regeneratedSince);
+                          }
+                          catch (IOException e)
+                          {
+                              logger.error("Failed to write checksum for [{}]", p, e);
+                          }
+                      });
+        }
     }
 
-    
     protected void writeChecksum(RepositoryPath path,
-                                 boolean force)
+                                 boolean force,
+                                 FileTime regeneratedSince)
             throws IOException
     {
-        try (InputStream is = newInputStream(path))
+        FileTime upToDateSince = force ? regeneratedSince : Files.getLastModifiedTime(path);
+
+        Map<String, RepositoryPath> checksumPathMap = new HashMap<>();
+        for (String digestAlgorithm : path.getFileSystem().getDigestAlgorithmSet())
         {
-            byte[] buffer = new byte[1024];
+            RepositoryPath checksumPath = getChecksumPath(path, digestAlgorithm);
+            if (!isUpToDate(checksumPath, upToDateSince))
+            {
+                checksumPathMap.put(digestAlgorithm, checksumPath);
+            }
+        }
+
+        if (checksumPathMap.isEmpty())
+        {
+            return;
+        }
+
+        try (InputStream is = newDigestInputStream(path))
+        {
+            byte[] buffer = new byte[8192];
             while (is.read(buffer) > 0)
             {
                 //calculate checksum while reading the stream
             }
-            Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-            digestAlgorithmSet.stream()
-                              .forEach(p ->
-                                       {
-                                           String checksum = StreamUtils.findSource(LayoutInputStream.class, is)
-                                                                        .getMessageDigestAsHexadecimalString(p);
-                                           RepositoryPath checksumPath = getChecksumPath(path, p);
-                                           if (Files.exists(checksumPath) && !force)
-                                           {
-                                               return;
-                                           }
-                                           try
-                                           {
-                                               Files.write(checksumPath, checksum.getBytes());
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.error("Failed to write checksum for [{}]",
-                                                            checksumPath.toString(), e);
-                                           }
-                                       });
+
+            LayoutInputStream layoutInputStream = StreamUtils.findSource(LayoutInputStream.class, is);
+            checksumPathMap.forEach((digestAlgorithm, checksumPath) -> {
+                String checksum = layoutInputStream.getMessageDigestAsHexadecimalString(digestAlgorithm);
+                try
+                {
+                    Files.write(checksumPath, checksum.getBytes());
+                }
+                catch (IOException e)
+                {
+                    logger.error("Failed to write checksum for [{}]", checksumPath.toString(), e);
+                }
+            });
         }
     }
 
+    private boolean isUpToDate(RepositoryPath checksumPath,
+                               FileTime upToDateSince)
+            throws IOException
+    {
+        return upToDateSince != null &&
+               Files.exists(checksumPath) &&
+               Files.getLastModifiedTime(checksumPath).compareTo(upToDateSince) >= 0;
+    }
+
     @Override
     public void delete(Path path,
                        boolean force)
@@ -259,6 +381,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
         boolean directory = Files.isDirectory(path);
         super.delete(path, force);
+        invalidateCaches(repositoryPath, directory);
         if (!directory)
         {
             artifactEventListenerRegistry.dispatchArtifactPathDeletedEvent(path);
@@ -281,12 +404,30 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                               .orElseGet(() -> fetchArtifactEntry(repositoryPath));
         if (artifactEntry != null)
         {
+            removeArtifactFromGroup(artifactEntry);
             artifactEntryService.delete(artifactEntry);
         }
         
         super.doDeletePath(repositoryPath, force);
     }
 
+    private void removeArtifactFromGroup(ArtifactEntry artifactEntry)
+    {
+        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+        if (coordinates == null)
+        {
+            return;
+        }
+
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(artifactEntry.getStorageId(),
+                                                                                                artifactEntry.getRepositoryId(),
+                                                                                                coordinates.getId());
+        if (artifactGroup != null)
+        {
+            repositoryArtifactIdGroupService.removeArtifactFromGroup(artifactGroup, artifactEntry);
+        }
+    }
+
     private ArtifactEntry fetchArtifactEntry(RepositoryPath repositoryPath)
     {
         Repository repository = repositoryPath.getRepository();
@@ -316,6 +457,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         logger.debug("Emptying trash for {}:{}...", storage.getId(), repository.getId());
 
         super.deleteTrash(path);
+        repositoryFileAttributesCache.invalidateRepository(repository);
 
         repositoryEventListenerRegistry.dispatchEmptyTrashEvent(storage.getId(), repository.getId());
 
@@ -334,18 +476,77 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         logger.debug("Attempting to restore: [{}]; ", path);
         
         super.undelete(path);
+        invalidateCaches(path, Files.isDirectory(path));
 
         repositoryEventListenerRegistry.dispatchUndeleteTrashEvent(storage.getId(), repository.getId());
 
         logger.debug("The trash for {}:{} has been undeleted.", storage.getId(), repository.getId());
     }
 
+    @Override
+    public RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath)
+            throws IOException
+    {
+        RepositoryPath result = super.moveFromTemporaryDirectory(tempPath);
+        invalidateCaches(result, false);
+
+        return result;
+    }
+
+    @Override
+    public void copy(Path source,
+                     Path target,
+                     CopyOption... options)
+            throws IOException
+    {
+        super.copy(source, target, options);
+        invalidateCaches((RepositoryPath) target, Files.isDirectory(target));
+    }
+
+    @Override
+    public void move(Path source,
+                     Path target,
+                     CopyOption... options)
+            throws IOException
+    {
+        super.move(source, target, options);
+        boolean directory = Files.isDirectory(target);
+        invalidateCaches((RepositoryPath) source, directory);
+        invalidateCaches((RepositoryPath) target, directory);
+    }
+
+    @Override
+    public void createDirectory(Path dir,
+                                FileAttribute<?>... attrs)
+            throws IOException
+    {
+        super.createDirectory(dir, attrs);
+        repositoryFileAttributesCache.invalidate((RepositoryPath) dir);
+    }
+
+    protected void invalidateCaches(RepositoryPath path,
+                                    boolean directory)
+            throws IOException
+    {
+        if (directory)
+        {
+            repositoryFileAttributesCache.invalidateDirectory(path);
+            checksumValueCache.invalidateDirectory(path);
+        }
+        else
+        {
+            repositoryFileAttributesCache.invalidate(path);
+            checksumValueCache.invalidate(path);
+        }
+    }
+
     @Override
     protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
                                                                                    RepositoryFileAttributeType... attributeTypes)
             throws IOException
     {
-        return getLayoutProvider().getRepositoryFileAttributes(repositoryRelativePath, attributeTypes);
+        return repositoryFileAttributesCache.get(repositoryRelativePath, attributeTypes,
+                                                 getLayoutProvider()::getRepositoryFileAttributes);
     }
     
     protected void deleteMetadata(RepositoryPath repositoryPath)
@@ -3,16 +3,25 @@ package org.carlspring.strongbox.providers.repository;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
@@ -31,22 +40,42 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryNegativeLookupCache;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
-import org.carlspring.strongbox.util.ThrowingFunction;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
 /**
+ * Resolves the paths of group repositories from their members, in the configured member order.
+ * <p>
+ * By default the members are checked one after another. With
+ * {@code strongbox.storage.groupRepository.parallelResolution.enabled} the local content of the members (including
+ * the members of nested groups) is checked concurrently, which makes a lookup cost about as much as the slowest member
+ * instead of the sum of all of them. Only when no member has the path locally, the remote repositories of the proxy
+ * members are checked for it, concurrently as well, and the path is downloaded from the first proxy member which has
+ * it. The path from the first member in the configured order wins.
+ *
  * @author carlspring
  */
 @Component
 public class GroupRepositoryProvider
         extends AbstractRepositoryProvider
+        implements InitializingBean, DisposableBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryProvider.class);
@@ -68,6 +97,59 @@ public class GroupRepositoryProvider
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private GroupRepositoryNegativeLookupCache negativeLookupCache;
+
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Value("${strongbox.storage.groupRepository.parallelResolution.enabled:false}")
+    private boolean parallelResolution;
+
+    @Value("${strongbox.storage.groupRepository.parallelResolution.threads:16}")
+    private int parallelResolutionThreads;
+
+    private ExecutorService parallelResolutionExecutor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!parallelResolution)
+        {
+            return;
+        }
+
+        Assert.isTrue(parallelResolutionThreads > 0,
+                      "parallelResolutionThreads cannot be negative or zero but was " + parallelResolutionThreads);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        parallelResolutionExecutor = Executors.newFixedThreadPool(parallelResolutionThreads, r -> {
+            Thread thread = new Thread(r, "group-repository-resolver-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        logger.info("Group repository members will be resolved in parallel with [{}] threads.",
+                    parallelResolutionThreads);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        if (parallelResolutionExecutor == null)
+        {
+            return;
+        }
+
+        parallelResolutionExecutor.shutdownNow();
+        parallelResolutionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
     @Override
     public String getAlias()
     {
@@ -93,9 +175,215 @@ public class GroupRepositoryProvider
             return result;
         }
 
+        if (parallelResolutionExecutor != null)
+        {
+            return resolvePathParallel(repositoryPath);
+        }
+
         return resolvePathTraversal(repositoryPath);
     }
 
+    /**
+     * Checks the local content of all the (nested) group members concurrently and waits for them in the configured
+     * member order: the hosted members are fully resolved, while the proxy members are only checked for an already
+     * cached path. If none of the members has the path locally, the remote repositories of all the proxy members are
+     * asked whether they have it, again concurrently and with HEAD requests only. The path is then downloaded from
+     * the first proxy member in the member order which has it, so that a miss costs about one remote round-trip and
+     * a hit never triggers downloads in the other members.
+     */
+    protected RepositoryPath resolvePathParallel(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        List<RepositoryPath> memberPaths = new ArrayList<>();
+        collectMemberPaths(repositoryPath, memberPaths, new HashSet<>());
+
+        List<Future<RepositoryPath>> memberResults = new ArrayList<>(memberPaths.size());
+        for (RepositoryPath memberPath : memberPaths)
+        {
+            memberResults.add(parallelResolutionExecutor.submit(() -> resolvePathLocally(memberPath)));
+        }
+
+        try
+        {
+            for (int i = 0; i < memberPaths.size(); i++)
+            {
+                RepositoryPath result = getResult(memberResults.get(i), repositoryPath);
+                if (result != null && isProxyRepository(result.getRepository()))
+                {
+                    // Let the proxy serve its cached path, it knows whether the path has expired.
+                    result = resolvePathFromGroupMember(memberPaths.get(i));
+                }
+
+                if (result != null)
+                {
+                    logger.debug("Located artifact: [{}]", result);
+
+                    return result;
+                }
+            }
+        }
+        finally
+        {
+            // Only the local content is checked concurrently, so the running checks are cheap to let finish.
+            memberResults.forEach(f -> f.cancel(false));
+        }
+
+        List<RepositoryPath> proxyMemberPaths = new ArrayList<>();
+        List<Future<Boolean>> remoteResults = new ArrayList<>();
+        for (RepositoryPath memberPath : memberPaths)
+        {
+            if (isProxyRepository(memberPath.getRepository()))
+            {
+                proxyMemberPaths.add(memberPath);
+                remoteResults.add(parallelResolutionExecutor.submit(() -> existsRemotely(memberPath)));
+            }
+        }
+
+        try
+        {
+            for (int i = 0; i < proxyMemberPaths.size(); i++)
+            {
+                if (!getResult(remoteResults.get(i), repositoryPath))
+                {
+                    continue;
+                }
+
+                RepositoryPath result = resolvePathFromGroupMember(proxyMemberPaths.get(i));
+                if (result != null)
+                {
+                    logger.debug("Located artifact: [{}]", result);
+
+                    return result;
+                }
+            }
+        }
+        finally
+        {
+            // The remaining checks are HEAD requests, which are left to finish.
+            remoteResults.forEach(f -> f.cancel(false));
+        }
+
+        return null;
+    }
+
+    private <T> T getResult(Future<T> future,
+                            RepositoryPath repositoryPath)
+            throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while resolving [%s]", repositoryPath));
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Asks the remote repository of the proxy member whether it has the path, a definite miss is remembered.
+     */
+    private boolean existsRemotely(RepositoryPath repositoryPath)
+    {
+        if (negativeLookupCache.isMissing(repositoryPath))
+        {
+            logger.debug("- Path [{}] was recently not found, skipping...", repositoryPath);
+
+            return false;
+        }
+
+        try
+        {
+            boolean result = proxyRepositoryArtifactResolver.remoteResourceExists(repositoryPath);
+            if (!result && isRemoteRepositoryAlive(repositoryPath.getRepository()))
+            {
+                negativeLookupCache.putMissing(repositoryPath);
+            }
+
+            return result;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Failed to check the remote path [{}]", repositoryPath, e);
+
+            return false;
+        }
+    }
+
+    /**
+     * Resolves the path from the hosted members, or only from the local cache of the proxy members.
+     */
+    private RepositoryPath resolvePathLocally(RepositoryPath repositoryPath)
+    {
+        if (!isProxyRepository(repositoryPath.getRepository()))
+        {
+            return resolvePathFromGroupMember(repositoryPath);
+        }
+
+        try
+        {
+            return hostedRepositoryProvider.fetchPath(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to resolve path [{}]", repositoryPath);
+            return null;
+        }
+    }
+
+    private boolean isProxyRepository(Repository repository)
+    {
+        return RepositoryTypeEnum.PROXY.getType().equals(repository.getType());
+    }
+
+    /**
+     * Collects the paths of the non-group members in the order they would be checked by
+     * {@link #resolvePathTraversal(RepositoryPath)}, each member only once.
+     */
+    private void collectMemberPaths(RepositoryPath repositoryPath,
+                                    List<RepositoryPath> memberPaths,
+                                    Set<String> visitedRepositories)
+            throws IOException
+    {
+        Repository groupRepository = repositoryPath.getRepository();
+        Storage storage = groupRepository.getStorage();
+
+        for (String storageAndRepositoryId : groupRepository.getGroupRepositories())
+        {
+            String sId = ConfigurationUtils.getStorageId(storage.getId(), storageAndRepositoryId);
+            String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+
+            Repository subRepository = getConfiguration().getStorage(sId).getRepository(rId);
+            RepositoryPath subRepositoryPath = repositoryPathResolver.resolve(subRepository, repositoryPath);
+
+            if (!isRepositoryResolvable(groupRepository, subRepository, subRepositoryPath)
+                    || !visitedRepositories.add(subRepository.getStorageIdAndRepositoryId()))
+            {
+                continue;
+            }
+
+            if (getAlias().equals(subRepository.getType()))
+            {
+                collectMemberPaths(subRepositoryPath, memberPaths, visitedRepositories);
+            }
+            else
+            {
+                memberPaths.add(subRepositoryPath);
+            }
+        }
+    }
+
     protected RepositoryPath resolvePathTraversal(RepositoryPath repositoryPath)
             throws IOException
     {
@@ -175,10 +463,29 @@ public class GroupRepositoryProvider
             return resolvePathTraversal(repositoryPath);
         }
 
+        return resolvePathFromGroupMember(repositoryPath);
+    }
+
+    private RepositoryPath resolvePathFromGroupMember(RepositoryPath repositoryPath)
+    {
+        Repository repository = repositoryPath.getRepository();
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
         try
         {
-            return (RepositoryPath) provider.fetchPath(repositoryPath);
+            if (negativeLookupCache.isMissing(repositoryPath))
+            {
+                logger.debug("- Path [{}] was recently not found, skipping...", repositoryPath);
+
+                return null;
+            }
+
+            RepositoryPath result = (RepositoryPath) provider.fetchPath(repositoryPath);
+            if (result == null && isRemoteRepositoryAlive(repository))
+            {
+                negativeLookupCache.putMissing(repositoryPath);
+            }
+
+            return result;
         }
         catch (IOException e)
         {
@@ -187,6 +494,18 @@ public class GroupRepositoryProvider
         }
     }
 
+    /**
+     * A proxy returns nothing while its remote repository is down, which is not a miss that could be remembered.
+     */
+    private boolean isRemoteRepositoryAlive(Repository repository)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+
+        return !isProxyRepository(repository)
+                || remoteRepository == null
+                || remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository);
+    }
+
     @Override
     protected OutputStream getOutputStreamInternal(RepositoryPath repositoryPath)
     {
@@ -197,6 +516,12 @@ public class GroupRepositoryProvider
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Merges the ordered search results of the group members, so that every member is read with a single cursor
+     * instead of re-querying all the members for each page. The results are deduplicated by the artifact
+     * coordinates, the first member (in the configured order) wins if the same coordinates are found in several
+     * members.
+     */
     @Override
     public List<Path> search(String storageId,
                              String repositoryId,
@@ -205,84 +530,249 @@ public class GroupRepositoryProvider
     {
         logger.debug("Search in [{}]:[{}] ...", storageId, repositoryId);
 
-        Map<ArtifactCoordinates, Path> resultMap = new LinkedHashMap<>();
-
         Storage storage = getConfiguration().getStorage(storageId);
         Repository groupRepository = storage.getRepository(repositoryId);
         Set<Repository> groupRepositorySet = groupRepositorySetCollector.collect(groupRepository);
 
+        List<Path> result = new LinkedList<>();
         if (groupRepositorySet.isEmpty())
         {
-            return new LinkedList<>();
+            return result;
         }
 
         int skip = paginator.getSkip();
         int limit = paginator.getLimit();
+        int batchSize = Math.min(skip + limit, Paginator.MAX_LIMIT);
 
-        int groupSize = groupRepositorySet.size();
-        int groupSkip = (skip / (limit * groupSize)) * limit;
-        int groupLimit = limit;
-
-        skip = skip - groupSkip;
+        PriorityQueue<MemberSearchCursor> cursors = new PriorityQueue<>(groupRepositorySet.size(),
+                                                                        createCursorComparator(paginator));
+        int memberIndex = 0;
+        for (Repository r : groupRepositorySet)
+        {
+            MemberSearchCursor cursor = new MemberSearchCursor(memberIndex++, r, predicate, paginator, batchSize);
+            if (cursor.hasNext())
+            {
+                cursors.add(cursor);
+            }
+        }
 
-        outer:
-        do
+        Set<ArtifactCoordinates> visitedCoordinates = new HashSet<>();
+        int skipped = 0;
+        while (!cursors.isEmpty() && result.size() < limit)
         {
-            Paginator paginatorLocal = new Paginator();
-            paginatorLocal.setLimit(groupLimit);
-            paginatorLocal.setSkip(groupSkip);
-            paginatorLocal.setProperty(paginator.getProperty());
-            paginatorLocal.setOrder(paginator.getOrder());
+            MemberSearchCursor cursor = cursors.poll();
+            Path path = cursor.next();
+            if (cursor.hasNext())
+            {
+                cursors.add(cursor);
+            }
 
-            groupLimit = 0;
+            if (!visitedCoordinates.add(getArtifactCoordinates(path)))
+            {
+                continue;
+            }
 
-            for (Iterator<Repository> i = groupRepositorySet.iterator(); i.hasNext(); )
+            if (skipped < skip)
             {
-                Repository r = i.next();
-                RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(r.getType());
+                skipped++;
+                continue;
+            }
 
-                List<Path> repositoryResult = repositoryProvider.search(r.getStorage().getId(), r.getId(), predicate,
-                                                                        paginatorLocal);
-                if (repositoryResult.isEmpty())
-                {
-                    i.remove();
-                    continue;
-                }
+            result.add(path);
+        }
 
-                // count coordinates intersection
-                groupLimit += repositoryResult.stream()
-                                              .map(ThrowingFunction.unchecked((Path p) -> resultMap.put(getArtifactCoordinates(p), p)))
-                                              .filter(p -> p != null)
-                                              .collect(Collectors.toList())
-                                              .size();
+        return result;
+    }
 
-                //Break search iterations if we have reached enough list size.
-                if (resultMap.size() >= limit + skip)
-                {
-                    break outer;
-                }
-            }
-            groupSkip += limit;
+    private Comparator<MemberSearchCursor> createCursorComparator(Paginator paginator)
+    {
+        Comparator<MemberSearchCursor> memberOrder = Comparator.comparingInt(c -> c.memberIndex);
+
+        String property = paginator.getProperty();
+        if (property == null || property.trim().isEmpty())
+        {
+            // Members results are not ordered, so they are just concatenated in the member order.
+            return memberOrder;
+        }
+
+        Comparator<MemberSearchCursor> propertyOrder = (c1, c2) -> compareSortValues(c1.peekSortValue(),
+                                                                                     c2.peekSortValue());
+        if (paginator.getOrder() == Paginator.Order.DESC)
+        {
+            propertyOrder = propertyOrder.reversed();
+        }
+
+        return propertyOrder.thenComparing(memberOrder);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareSortValues(Object v1,
+                                         Object v2)
+    {
+        if (v1 == v2)
+        {
+            return 0;
+        }
+        else if (v1 == null)
+        {
+            return -1;
+        }
+        else if (v2 == null)
+        {
+            return 1;
+        }
+        else if (v1 instanceof Comparable && v1.getClass().isInstance(v2))
+        {
+            return ((Comparable) v1).compareTo(v2);
+        }
 
-            // Will iterate until there is no more coordinates intersection and
-            // there is more search results within group repositories
+        return v1.toString().compareTo(v2.toString());
+    }
+
+    /**
+     * Resolves the value of the (dot separated) order by property from the {@link ArtifactEntry} of the path.
+     */
+    private static Object getSortValue(Path path,
+                                       String property)
+    {
+        Object result;
+        try
+        {
+            result = ((RepositoryPath) path).getArtifactEntry();
+        }
+        catch (IOException e)
+        {
+            return null;
         }
-        while (groupLimit > 0 && !groupRepositorySet.isEmpty());
 
-        LinkedList<Path> resultList = new LinkedList<>();
-        if (skip >= resultMap.size())
+        for (String name : property.trim().split("\\."))
         {
-            return resultList;
+            if (result == null)
+            {
+                return null;
+            }
+            else if (result instanceof Map)
+            {
+                result = ((Map<?, ?>) result).get(name);
+                continue;
+            }
+
+            BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(result);
+            result = beanWrapper.isReadableProperty(name) ? beanWrapper.getPropertyValue(name) : null;
         }
-        resultList.addAll(resultMap.values());
 
-        int toIndex = resultList.size() - skip > limit ? limit + skip : resultList.size();
-        return resultList.subList(skip, toIndex);
+        return result;
     }
 
-    private ArtifactCoordinates getArtifactCoordinates(Path p) throws IOException
+    private ArtifactCoordinates getArtifactCoordinates(Path p)
     {
-        return RepositoryFiles.readCoordinates((RepositoryPath) p);
+        RepositoryPath repositoryPath = (RepositoryPath) p;
+        try
+        {
+            ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
+            if (artifactEntry != null && artifactEntry.getArtifactCoordinates() != null)
+            {
+                return artifactEntry.getArtifactCoordinates();
+            }
+
+            return RepositoryFiles.readCoordinates(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Reads the search results of the group member page by page, as they are consumed by the merge.
+     */
+    private class MemberSearchCursor
+    {
+
+        private final int memberIndex;
+
+        private final Repository repository;
+
+        private final Predicate predicate;
+
+        private final Paginator paginator;
+
+        private final int batchSize;
+
+        private List<Path> batch = new ArrayList<>();
+
+        private int position;
+
+        private int offset;
+
+        private boolean exhausted;
+
+        private Object sortValue;
+
+        private MemberSearchCursor(int memberIndex,
+                                   Repository repository,
+                                   Predicate predicate,
+                                   Paginator paginator,
+                                   int batchSize)
+        {
+            this.memberIndex = memberIndex;
+            this.repository = repository;
+            this.predicate = predicate;
+            this.paginator = paginator;
+            this.batchSize = batchSize;
+        }
+
+        private boolean hasNext()
+        {
+            if (position < batch.size())
+            {
+                return true;
+            }
+            else if (exhausted)
+            {
+                return false;
+            }
+
+            Paginator paginatorLocal = new Paginator();
+            paginatorLocal.setSkip(offset);
+            paginatorLocal.setLimit(batchSize);
+            paginatorLocal.setProperty(paginator.getProperty());
+            paginatorLocal.setOrder(paginator.getOrder());
+
+            RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+            batch = repositoryProvider.search(repository.getStorage().getId(), repository.getId(), predicate,
+                                              paginatorLocal);
+            position = 0;
+            offset += batchSize;
+            // The member can drop the results it failed to resolve, so only an empty batch means the end.
+            exhausted = batch.isEmpty();
+
+            updateSortValue();
+
+            return !exhausted;
+        }
+
+        private Path next()
+        {
+            Path result = batch.get(position++);
+            updateSortValue();
+
+            return result;
+        }
+
+        private Object peekSortValue()
+        {
+            return sortValue;
+        }
+
+        private void updateSortValue()
+        {
+            String property = paginator.getProperty();
+            sortValue = position < batch.size() && property != null && !property.trim().isEmpty()
+                    ? getSortValue(batch.get(position), property)
+                    : null;
+        }
+
     }
 
     @Override
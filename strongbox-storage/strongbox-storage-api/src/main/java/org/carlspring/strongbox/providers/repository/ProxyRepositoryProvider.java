@@ -16,10 +16,15 @@ import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArti
 import javax.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -49,6 +54,12 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    /**
+     * Remote fetches which are currently in progress on this node, mapped by the artifact path. The value completes
+     * with {@code true} if the artifact was fetched and stored.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> inFlightFetches = new ConcurrentHashMap<>();
+
     @Override
     public String getAlias()
     {
@@ -70,7 +81,7 @@ public class ProxyRepositoryProvider
 
         if (targetPath == null)
         {
-            targetPath = resolvePathExclusive(repositoryPath);
+            targetPath = resolvePathSingleFlight(repositoryPath);
         }
         else if (RepositoryFiles.hasExpired(targetPath))
         {
@@ -80,6 +91,79 @@ public class ProxyRepositoryProvider
         return targetPath;
     }
 
+    /**
+     * Only the first of the concurrent requests for the same path goes for the remote resource, the others just wait
+     * for its result instead of queuing on the remote fetch locks one by one.
+     */
+    private RepositoryPath resolvePathSingleFlight(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        String fetchKey = String.format("%s:%s:%s",
+                                        repositoryPath.getRepository().getStorage().getId(),
+                                        repositoryPath.getRepository().getId(),
+                                        RepositoryFiles.relativizePath(repositoryPath));
+
+        CompletableFuture<Boolean> fetch = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlightFetch = inFlightFetches.putIfAbsent(fetchKey, fetch);
+        if (inFlightFetch != null)
+        {
+            logger.debug("Join in-flight remote fetch for [{}]", repositoryPath);
+
+            return awaitInFlightFetch(repositoryPath, inFlightFetch);
+        }
+
+        try
+        {
+            RepositoryPath targetPath = resolvePathExclusive(repositoryPath);
+            fetch.complete(targetPath != null);
+
+            return targetPath;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            fetch.completeExceptionally(e);
+
+            throw e;
+        }
+        finally
+        {
+            inFlightFetches.remove(fetchKey, fetch);
+        }
+    }
+
+    private RepositoryPath awaitInFlightFetch(RepositoryPath repositoryPath,
+                                              CompletableFuture<Boolean> inFlightFetch)
+        throws IOException
+    {
+        boolean fetched;
+        try
+        {
+            fetched = inFlightFetch.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while waiting for [%s]", repositoryPath));
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException(cause);
+        }
+
+        return fetched ? hostedRepositoryProvider.fetchPath(repositoryPath) : null;
+    }
+
     private RepositoryPath resolvePathExclusive(RepositoryPath repositoryPath)
             throws IOException
     {
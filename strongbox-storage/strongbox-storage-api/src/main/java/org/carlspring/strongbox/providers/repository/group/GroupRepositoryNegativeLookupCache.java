@@ -0,0 +1,151 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the paths which were not found in the group repository members, so that a miss in a wide group doesn't
+ * need to query every member (and possibly its remote repository) again within a short time.
+ * <p>
+ * Entries are invalidated when the path is stored into the member repository and expire after the configured time
+ * otherwise. The cache is disabled when the expiration time is zero, which is the default.
+ *
+ * @see org.carlspring.strongbox.providers.repository.GroupRepositoryProvider
+ */
+@Component
+public class GroupRepositoryNegativeLookupCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryNegativeLookupCache.class);
+
+    private static final Set<ArtifactEventTypeEnum> STORE_EVENT_TYPES = EnumSet.of(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPLOADING,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED,
+                                                                                   ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED);
+
+    @Value("${strongbox.storage.groupRepository.negativeLookupCache.expireAfterWriteSeconds:0}")
+    private long expireAfterWriteSeconds;
+
+    @Value("${strongbox.storage.groupRepository.negativeLookupCache.maxSize:100000}")
+    private long maxSize;
+
+    private Cache<String, Boolean> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!isEnabled())
+        {
+            logger.info("Group repository negative lookup cache is disabled.");
+
+            return;
+        }
+
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                            .build();
+
+        logger.info("Group repository negative lookup cache will keep up to [{}] paths for [{}] seconds.",
+                    maxSize, expireAfterWriteSeconds);
+    }
+
+    public boolean isEnabled()
+    {
+        return expireAfterWriteSeconds > 0;
+    }
+
+    /**
+     * @return {@code true} if the path was recently not found in its repository
+     */
+    public boolean isMissing(RepositoryPath path)
+            throws IOException
+    {
+        return isEnabled() && cache.getIfPresent(getKey(path)) != null;
+    }
+
+    public void putMissing(RepositoryPath path)
+            throws IOException
+    {
+        if (isEnabled())
+        {
+            cache.put(getKey(path), Boolean.TRUE);
+        }
+    }
+
+    public void invalidate(RepositoryPath path)
+            throws IOException
+    {
+        if (isEnabled())
+        {
+            cache.invalidate(getKey(path));
+        }
+    }
+
+    public void invalidateAll()
+    {
+        if (isEnabled())
+        {
+            cache.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+            throws IOException
+    {
+        if (!isEnabled() || STORE_EVENT_TYPES.stream().noneMatch(t -> t.getType() == event.getType()))
+        {
+            return;
+        }
+
+        Path sourcePath = event.getPath();
+        Path targetPath = event.getTargetPath();
+
+        invalidateIfRepositoryPath(sourcePath);
+        invalidateIfRepositoryPath(targetPath);
+    }
+
+    private void invalidateIfRepositoryPath(Path path)
+            throws IOException
+    {
+        if (path instanceof RepositoryPath)
+        {
+            invalidate((RepositoryPath) path);
+        }
+    }
+
+    private String getKey(RepositoryPath path)
+            throws IOException
+    {
+        Repository repository = path.getRepository();
+
+        return String.format("%s:%s:%s",
+                             repository.getStorage().getId(),
+                             repository.getId(),
+                             RepositoryFiles.relativizePath(path));
+    }
+
+}
@@ -1,7 +1,6 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
-import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -15,17 +14,27 @@ import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteReposi
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Removes the locally stored artifacts of the proxy repositories, which can be downloaded from their remote
+ * repositories again.
+ * <p>
+ * The artifacts are read in chunks ordered by their last usage (the chunks are paged by the last artifact of the
+ * previous chunk, not by an offset) and every chunk is removed in its own transaction, so that a large cleanup
+ * neither loads all the artifacts nor holds a long transaction.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -49,74 +58,231 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     @Inject
     private ArtifactManagementService artifactManagementService;
 
-    @Transactional(rollbackFor = Exception.class)
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.proxy.expiredArtifactsCleanup.batchSize:500}")
+    private int batchSize;
+
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
             throws IOException
     {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
+        cleanup(lastAccessedTimeInDays, minSizeInBytes, null, null);
+    }
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+    /**
+     * Removes the artifacts which were not used for the given number of days, then the least recently used artifacts
+     * of every repository which still stores more than the given size.
+     *
+     * @param lastAccessedTimeInDays the artifacts which were not used for this number of days are removed, no
+     *                               artifacts are removed by their age if it's {@code null} or not positive
+     * @param minSizeInBytes         only the artifacts of this size or bigger are removed by their age
+     * @param maxSizeInBytes         the size of the artifacts stored by every proxy repository, no artifacts are
+     *                               removed by the size of the repository if it's {@code null}
+     * @param maxArtifactsPerRun     the number of artifacts which are removed at most, there is no limit if it's
+     *                               {@code null} or not positive
+     */
+    public void cleanup(final Integer lastAccessedTimeInDays,
+                        final Long minSizeInBytes,
+                        final Long maxSizeInBytes,
+                        final Integer maxArtifactsPerRun)
+            throws IOException
+    {
+        long remainingArtifacts = maxArtifactsPerRun != null && maxArtifactsPerRun > 0 ? maxArtifactsPerRun :
+                                  Long.MAX_VALUE;
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+        for (final Repository repository : getAccessibleProxyRepositories())
         {
-            return;
+            if (lastAccessedTimeInDays != null && lastAccessedTimeInDays > 0)
+            {
+                final ArtifactEntrySearchCriteria searchCriteria = searchCriteria(repository)
+                                                                           .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                           .withMinSizeInBytes(minSizeInBytes)
+                                                                           .build();
+
+                remainingArtifacts -= evict(repository, searchCriteria, Long.MAX_VALUE, remainingArtifacts);
+            }
+
+            if (maxSizeInBytes != null && remainingArtifacts > 0)
+            {
+                final long excessSizeInBytes = artifactEntryService.sumSizeInBytes(repository.getStorage().getId(),
+                                                                                   repository.getId()) -
+                                               maxSizeInBytes;
+                if (excessSizeInBytes > 0)
+                {
+                    logger.debug("Repository [{}] exceeds the size quota by [{}] bytes.", repository.getId(),
+                                 excessSizeInBytes);
+
+                    remainingArtifacts -= evict(repository, searchCriteria(repository).build(), excessSizeInBytes,
+                                                remainingArtifacts);
+                }
+            }
+
+            if (remainingArtifacts <= 0)
+            {
+                logger.info("The limit of [{}] artifacts to clean up per run was reached.", maxArtifactsPerRun);
+
+                return;
+            }
         }
+    }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+    private ArtifactEntrySearchCriteria.Builder searchCriteria(final Repository repository)
+    {
+        return anArtifactEntrySearchCriteria().withStorageId(repository.getStorage().getId())
+                                              .withRepositoryId(repository.getId());
     }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
+    private List<Repository> getAccessibleProxyRepositories()
     {
-        if (CollectionUtils.isEmpty(artifactEntries))
+        final List<Repository> result = new ArrayList<>();
+        for (final Storage storage : configurationManager.getConfiguration().getStorages().values())
         {
-            return;
+            for (final Repository repository : storage.getRepositories().values())
+            {
+                if (!repository.isProxyRepository())
+                {
+                    continue;
+                }
+                final RemoteRepository remoteRepository = repository.getRemoteRepository();
+                if (remoteRepository == null)
+                {
+                    logger.warn("Repository {} is not associated with remote repository", repository.getId());
+                    continue;
+                }
+                if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+                {
+                    logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
+                    continue;
+                }
+
+                result.add(repository);
+            }
         }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+
+        return result;
+    }
+
+    /**
+     * Removes the least recently used artifacts which match the criteria, chunk by chunk, until the given size was
+     * removed or the given number of artifacts.
+     *
+     * @return the number of the removed artifacts
+     */
+    private long evict(final Repository repository,
+                       final ArtifactEntrySearchCriteria searchCriteria,
+                       final long sizeInBytes,
+                       final long maxArtifacts)
+            throws IOException
+    {
+        EvictedChunk chunk = new EvictedChunk(null, null);
+        long evictedArtifacts = 0;
+        long evictedSizeInBytes = 0;
+        do
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
+            final EvictedChunk previousChunk = chunk;
+            final int limit = (int) Math.min(batchSize, maxArtifacts - evictedArtifacts);
+            final long remainingSizeInBytes = sizeInBytes - evictedSizeInBytes;
+            try
             {
-                it.remove();
-                continue;
+                chunk = new TransactionTemplate(transactionManager).execute(
+                        t -> evictChunk(repository, searchCriteria, previousChunk, limit, remainingSizeInBytes));
             }
-            final RemoteRepository remoteRepository = repository.getRemoteRepository();
-            if (remoteRepository == null)
+            catch (UndeclaredThrowableException e)
             {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
+                if (e.getCause() instanceof IOException)
+                {
+                    throw (IOException) e.getCause();
+                }
+
+                throw e;
             }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+
+            evictedArtifacts += chunk.evictedArtifacts;
+            evictedSizeInBytes += chunk.evictedSizeInBytes;
+        }
+        while (!chunk.last && evictedArtifacts < maxArtifacts && evictedSizeInBytes < sizeInBytes);
+
+        return evictedArtifacts;
+    }
+
+    private EvictedChunk evictChunk(final Repository repository,
+                                    final ArtifactEntrySearchCriteria searchCriteria,
+                                    final EvictedChunk previousChunk,
+                                    final int limit,
+                                    final long sizeInBytes)
+    {
+        final List<ArtifactEntry> artifactEntries = artifactEntryService.findLeastRecentlyUsed(searchCriteria,
+                                                                                               previousChunk.lastUsed,
+                                                                                               previousChunk.uuid,
+                                                                                               limit);
+        logger.debug("Cleaning [{}] artifacts of [{}].", artifactEntries.size(), repository.getId());
+
+        if (artifactEntries.isEmpty())
+        {
+            return new EvictedChunk(null, null).markLast();
+        }
+
+        // The key of the chunk should be read before its artifacts are removed.
+        final ArtifactEntry lastArtifactEntry = artifactEntries.get(artifactEntries.size() - 1);
+        final EvictedChunk result = new EvictedChunk(lastArtifactEntry.getLastUsed(), lastArtifactEntry.getUuid());
+        if (artifactEntries.size() < limit)
+        {
+            result.markLast();
+        }
+
+        for (final ArtifactEntry artifactEntry : artifactEntries)
+        {
+            final Long artifactSizeInBytes = artifactEntry.getSizeInBytes();
+            final RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            try
+            {
+                artifactManagementService.delete(repositoryPath, true);
+            }
+            catch (IOException e)
             {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
+                throw new UndeclaredThrowableException(e);
+            }
+
+            result.evictedArtifacts++;
+            result.evictedSizeInBytes += artifactSizeInBytes != null ? artifactSizeInBytes : 0;
+            if (result.evictedSizeInBytes >= sizeInBytes)
+            {
+                return result.markLast();
             }
         }
 
+        return result;
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
-            throws IOException
+    private static class EvictedChunk
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+
+        private final Date lastUsed;
+
+        private final String uuid;
+
+        private long evictedArtifacts;
+
+        private long evictedSizeInBytes;
+
+        private boolean last;
+
+        EvictedChunk(Date lastUsed,
+                     String uuid)
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            this.lastUsed = lastUsed;
+            this.uuid = uuid;
+        }
 
-            artifactManagementService.delete(repositoryPath, true);
+        EvictedChunk markLast()
+        {
+            last = true;
+
+            return this;
         }
+
     }
 
 }
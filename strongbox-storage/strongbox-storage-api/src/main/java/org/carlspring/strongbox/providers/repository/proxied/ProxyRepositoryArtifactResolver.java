@@ -80,6 +80,28 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    /**
+     * Checks whether the remote repository has the resource, without fetching it and without taking any locks.
+     *
+     * @return {@code false} if the remote repository is down or doesn't have the resource
+     */
+    public boolean remoteResourceExists(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.debug("Remote repository '{}' is down.", remoteRepository.getUrl());
+
+            return false;
+        }
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+
+        return new RemoteArtifactStreamFetcher(client).exists(repositoryPath);
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
@@ -50,6 +50,22 @@ public class RemoteArtifactStreamFetcher
 
     }
 
+    /**
+     * Checks with a HEAD request whether the remote repository has the resource. Only a "not found" response counts
+     * as a miss, any other response is left to be sorted out by the download.
+     */
+    public boolean exists(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        URI resource = getRestClientResourcePath(repositoryPath);
+        try (final CloseableRestResponse closeableRestResponse = client.head(resource.toString()))
+        {
+            int status = closeableRestResponse.getResponse().getStatus();
+
+            return status != 404 && status != 410;
+        }
+    }
+
     private URI getRestClientResourcePath(final RepositoryPath artifactPath)
         throws IOException
     {
@@ -0,0 +1,27 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Stores a large number of new artifact entries of a repository, like the ones read from a remote feed or imported
+ * from the disk.
+ */
+public interface ArtifactEntryIngestionService
+{
+
+    /**
+     * Reads the artifact entries in batches and stores every artifact group of a batch in its own transaction. The
+     * entries which exist already are skipped, the entries which fail don't abort the rest of the batch.
+     *
+     * @param repository      the repository of the artifact entries
+     * @param artifactEntries the artifact entries, which are read lazily
+     * @return the numbers of the stored and skipped entries and the errors of the failed ones
+     */
+    ArtifactEntryIngestionResult ingest(Repository repository,
+                                        Stream<? extends ArtifactEntry> artifactEntries);
+
+}
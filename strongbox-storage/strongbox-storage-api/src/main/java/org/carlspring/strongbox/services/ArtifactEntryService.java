@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -56,6 +57,23 @@ public interface ArtifactEntryService
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
+    /**
+     * Returns the next chunk of the matching artifact entries which are stored locally, the least recently used first.
+     * The chunk starts after the entry with the given `lastUsed` and `uuid` (from the end of the previous chunk), or
+     * at the beginning if they are {@code null}, so that the entries are not skipped and counted again for every
+     * chunk.
+     */
+    List<ArtifactEntry> findLeastRecentlyUsed(ArtifactEntrySearchCriteria searchCriteria,
+                                              Date afterLastUsed,
+                                              String afterUuid,
+                                              int limit);
+
+    /**
+     * Returns the total size of the artifacts which are stored locally in the repository.
+     */
+    long sumSizeInBytes(String storageId,
+                        String repositoryId);
+
     Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                           Map<String, String> coordinates,
                           boolean strict);
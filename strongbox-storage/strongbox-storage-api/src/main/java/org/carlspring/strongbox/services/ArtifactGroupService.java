@@ -4,6 +4,8 @@ import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactGroupEntry;
 
+import java.util.Collection;
+
 /**
  * @author Przemyslaw Fusik
  */
@@ -13,5 +15,17 @@ public interface ArtifactGroupService<T extends ArtifactGroupEntry>
 
     void addArtifactToGroup(T artifactGroup,
                             ArtifactEntry artifactEntry);
-    
+
+    /**
+     * Adds all the artifacts to the group and saves the group only once.
+     */
+    void addArtifactsToGroup(T artifactGroup,
+                             Collection<? extends ArtifactEntry> artifactEntries);
+
+    /**
+     * Removes the artifact from the group, the last version is looked up again only if the artifact belonged to it.
+     */
+    void removeArtifactFromGroup(T artifactGroup,
+                                 ArtifactEntry artifactEntry);
+
 }
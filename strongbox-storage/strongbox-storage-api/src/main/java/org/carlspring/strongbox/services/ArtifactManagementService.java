@@ -86,9 +86,24 @@ public class ArtifactManagementService
         throws IOException,
         ProviderImplementationException,
         ArtifactCoordinatesValidationException
+    {
+        return validateAndStore(repositoryPath, os -> IOUtils.copyLarge(is, os));
+    }
+
+    /**
+     * Stores the artifact content which is written by the given writer, for the content which can't be provided as
+     * an {@link InputStream} without buffering it first. If the writer fails, neither the artifact file nor the
+     * artifact entry is changed.
+     */
+    @Transactional
+    public long validateAndStore(RepositoryPath repositoryPath,
+                                 ArtifactWriter writer)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
     {
         performRepositoryAcceptanceValidation(repositoryPath);
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, writer);
     }
 
     @Transactional
@@ -96,11 +111,11 @@ public class ArtifactManagementService
                       InputStream is)
         throws IOException
     {
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, os -> IOUtils.copyLarge(is, os));
     }
 
     private long doStore(RepositoryPath repositoryPath,
-                         InputStream is)
+                         ArtifactWriter writer)
             throws IOException
     {
         long result;
@@ -113,7 +128,16 @@ public class ArtifactManagementService
         
         try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
         {
-            result = writeArtifact(repositoryPath, is, aos);
+            try
+            {
+                result = writeArtifact(repositoryPath, writer, aos);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                // The rejected content must not replace the stored artifact.
+                aos.abort();
+                throw e;
+            }
             logger.debug("Stored [{}] bytes for [{}].", result, repositoryPath);
             aos.flush();
         }
@@ -145,7 +169,7 @@ public class ArtifactManagementService
     }
 
     private long writeArtifact(RepositoryPath repositoryPath,
-                               InputStream is,
+                               ArtifactWriter writer,
                                OutputStream os)
             throws IOException
     {
@@ -166,7 +190,7 @@ public class ArtifactManagementService
             artifactEventListenerRegistry.dispatchArtifactUploadingEvent(repositoryPath);
         }
         
-        long totalAmountOfBytes = IOUtils.copy(is, os);
+        long totalAmountOfBytes = writer.write(os);
 
         URI repositoryPathId = repositoryPath.toUri();
         Map<String, String> digestMap = aos.getDigestMap();
@@ -366,4 +390,19 @@ public class ArtifactManagementService
         }
     }
 
+    /**
+     * Writes the artifact content into the repository output stream.
+     */
+    @FunctionalInterface
+    public interface ArtifactWriter
+    {
+
+        /**
+         * @return the number of the written bytes
+         */
+        long write(OutputStream os)
+            throws IOException;
+
+    }
+
 }
@@ -0,0 +1,22 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.ChecksumRegenerationCheckpointEntry;
+
+import java.util.Optional;
+
+public interface ChecksumRegenerationCheckpointService
+        extends CrudService<ChecksumRegenerationCheckpointEntry, String>
+{
+
+    Optional<ChecksumRegenerationCheckpointEntry> findCheckpoint(String storageId,
+                                                                 String repositoryId,
+                                                                 String basePath);
+
+    void saveCheckpoint(ChecksumRegenerationCheckpointEntry checkpoint);
+
+    void deleteCheckpoint(String storageId,
+                          String repositoryId,
+                          String basePath);
+
+}
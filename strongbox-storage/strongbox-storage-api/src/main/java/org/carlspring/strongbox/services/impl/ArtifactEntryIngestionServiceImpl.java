@@ -0,0 +1,326 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryIngestionService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactTagService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The entries are read in batches, and every batch is stored in a single transaction, under the locks of its artifact
+ * groups: the tags of the batch are resolved once and every group is saved once with all its new entries. If the
+ * transaction of a batch fails, its groups and then the entries of the failed groups are stored one by one, so that
+ * only the failing entries are reported.
+ * <p>
+ * The artifacts of a group share the lock of the group (see {@link RepositoryPathLock}). The locks of a batch are
+ * taken in the order of their names, so the concurrent ingestions can't deadlock with each other, and they are held
+ * until the transaction is committed, so that the concurrent writers see the stored entries.
+ */
+@Component
+public class ArtifactEntryIngestionServiceImpl
+        implements ArtifactEntryIngestionService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryIngestionServiceImpl.class);
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactTagService artifactTagService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.artifact.ingestion.batchSize:1000}")
+    private int batchSize;
+
+    @Override
+    public ArtifactEntryIngestionResult ingest(Repository repository,
+                                               Stream<? extends ArtifactEntry> artifactEntries)
+    {
+        ArtifactEntryIngestionResult result = new ArtifactEntryIngestionResult();
+
+        List<ArtifactEntry> batch = new ArrayList<>(batchSize);
+        for (Iterator<? extends ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+        {
+            batch.add(it.next());
+            if (batch.size() >= batchSize)
+            {
+                ingestBatch(repository, batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            ingestBatch(repository, batch, result);
+        }
+
+        logger.debug("Ingested artifact entries of [{}]: stored [{}], skipped [{}], failed [{}].",
+                     repository.getId(), result.getStoredCount(), result.getSkippedCount(),
+                     result.getFailures().size());
+
+        return result;
+    }
+
+    private void ingestBatch(Repository repository,
+                             List<ArtifactEntry> batch,
+                             ArtifactEntryIngestionResult result)
+    {
+        Map<String, Map<String, ArtifactEntry>> artifactIdGroups = new LinkedHashMap<>();
+        for (ArtifactEntry artifactEntry : batch)
+        {
+            ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+            if (coordinates == null)
+            {
+                result.addFailure(String.valueOf(artifactEntry),
+                                  new IllegalArgumentException("The artifact coordinates should not be null."));
+                continue;
+            }
+
+            Map<String, ArtifactEntry> artifactIdGroup = artifactIdGroups.computeIfAbsent(coordinates.getId(),
+                                                                                          k -> new LinkedHashMap<>());
+            if (artifactIdGroup.putIfAbsent(artifactEntry.getArtifactPath(), artifactEntry) != null)
+            {
+                result.addSkipped(1);
+            }
+        }
+
+        if (artifactIdGroups.isEmpty())
+        {
+            return;
+        }
+
+        SortedMap<String, RepositoryPath> lockPaths = new TreeMap<>();
+        RootRepositoryPath repositoryRoot = repositoryPathResolver.resolve(repository);
+        artifactIdGroups.values().removeIf(artifactEntries -> {
+            RepositoryPath lockPath = repositoryRoot.resolve(artifactEntries.values().iterator().next());
+            try
+            {
+                lockPaths.putIfAbsent(repositoryPathLock.getLockName(lockPath), lockPath);
+
+                return false;
+            }
+            catch (IOException e)
+            {
+                artifactEntries.keySet().forEach(path -> result.addFailure(path, e));
+
+                return true;
+            }
+        });
+
+        Deque<Lock> locks = new ArrayDeque<>(lockPaths.size());
+        try
+        {
+            for (RepositoryPath lockPath : lockPaths.values())
+            {
+                Lock lock = repositoryPathLock.lock(lockPath).writeLock();
+                lock.lock();
+                locks.push(lock);
+            }
+
+            ingestArtifactIdGroupsLocked(repository, artifactIdGroups, result);
+        }
+        catch (IOException e)
+        {
+            artifactIdGroups.values().forEach(g -> g.keySet().forEach(path -> result.addFailure(path, e)));
+        }
+        finally
+        {
+            while (!locks.isEmpty())
+            {
+                locks.pop().unlock();
+            }
+        }
+    }
+
+    /**
+     * The whole batch is stored in a single transaction, so the tags are resolved once for the batch and every group
+     * is saved once with all its new entries. Should the transaction fail, the groups and then the entries of the
+     * failed groups are stored one by one, only to find out which entries to report.
+     */
+    private void ingestArtifactIdGroupsLocked(Repository repository,
+                                              Map<String, Map<String, ArtifactEntry>> artifactIdGroups,
+                                              ArtifactEntryIngestionResult result)
+    {
+        int size = artifactIdGroups.values().stream().mapToInt(Map::size).sum();
+        try
+        {
+            int stored = new TransactionTemplate(transactionManager).execute(
+                    t -> store(repository, toArtifactEntries(artifactIdGroups)));
+
+            result.addStored(stored);
+            result.addSkipped(size - stored);
+
+            return;
+        }
+        catch (RuntimeException e)
+        {
+            logger.warn("Failed to store the batch of [{}] artifact entries of [{}] at once, storing the artifact " +
+                        "groups one by one.", size, repository.getId(), e);
+        }
+
+        for (Map.Entry<String, Map<String, ArtifactEntry>> artifactIdGroup : artifactIdGroups.entrySet())
+        {
+            ingestArtifactIdGroupLocked(repository, artifactIdGroup.getKey(), artifactIdGroup.getValue(), result);
+        }
+    }
+
+    private void ingestArtifactIdGroupLocked(Repository repository,
+                                             String artifactId,
+                                             Map<String, ArtifactEntry> artifactEntries,
+                                             ArtifactEntryIngestionResult result)
+    {
+        try
+        {
+            int stored = new TransactionTemplate(transactionManager).execute(
+                    t -> store(repository, Collections.singletonMap(artifactId, artifactEntries.values())));
+
+            result.addStored(stored);
+            result.addSkipped(artifactEntries.size() - stored);
+
+            return;
+        }
+        catch (RuntimeException e)
+        {
+            logger.warn("Failed to store [{}] artifact entries of [{}] in [{}] at once, storing them one by one.",
+                        artifactEntries.size(), artifactId, repository.getId(), e);
+        }
+
+        for (Map.Entry<String, ArtifactEntry> artifactEntry : artifactEntries.entrySet())
+        {
+            try
+            {
+                int stored = new TransactionTemplate(transactionManager).execute(
+                        t -> store(repository,
+                                   Collections.singletonMap(artifactId,
+                                                            Collections.singleton(artifactEntry.getValue()))));
+
+                result.addStored(stored);
+                result.addSkipped(1 - stored);
+            }
+            catch (RuntimeException e)
+            {
+                logger.debug("Failed to store the artifact entry [{}].", artifactEntry.getKey(), e);
+
+                result.addFailure(artifactEntry.getKey(), e);
+            }
+        }
+    }
+
+    private static Map<String, Collection<ArtifactEntry>> toArtifactEntries(Map<String, Map<String, ArtifactEntry>> artifactIdGroups)
+    {
+        Map<String, Collection<ArtifactEntry>> result = new LinkedHashMap<>();
+        artifactIdGroups.forEach((artifactId, artifactEntries) -> result.put(artifactId, artifactEntries.values()));
+
+        return result;
+    }
+
+    /**
+     * @return the number of the stored entries, the other entries exist already
+     */
+    private int store(Repository repository,
+                      Map<String, Collection<ArtifactEntry>> artifactIdGroups)
+    {
+        Map<String, List<ArtifactEntry>> newArtifactIdGroups = new LinkedHashMap<>();
+        for (Map.Entry<String, Collection<ArtifactEntry>> artifactIdGroup : artifactIdGroups.entrySet())
+        {
+            List<ArtifactEntry> newArtifactEntries = artifactIdGroup.getValue()
+                                                                    .stream()
+                                                                    .filter(e -> !artifactEntryService.artifactExists(e.getStorageId(),
+                                                                                                                      e.getRepositoryId(),
+                                                                                                                      e.getArtifactPath()))
+                                                                    .collect(Collectors.toList());
+            if (!newArtifactEntries.isEmpty())
+            {
+                newArtifactIdGroups.put(artifactIdGroup.getKey(), newArtifactEntries);
+            }
+        }
+
+        resolveTags(newArtifactIdGroups.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+
+        int result = 0;
+        for (Map.Entry<String, List<ArtifactEntry>> newArtifactIdGroup : newArtifactIdGroups.entrySet())
+        {
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(repository.getStorage().getId(),
+                                                                                                            repository.getId(),
+                                                                                                            newArtifactIdGroup.getKey());
+            repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup, newArtifactIdGroup.getValue());
+
+            result += newArtifactIdGroup.getValue().size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the tags of the entries with the stored ones, each tag is looked up only once.
+     */
+    private void resolveTags(List<ArtifactEntry> artifactEntries)
+    {
+        Map<String, ArtifactTag> tags = new HashMap<>();
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            Set<ArtifactTag> tagSet = artifactEntry.getTagSet();
+            if (tagSet.isEmpty())
+            {
+                continue;
+            }
+
+            Set<ArtifactTag> resolvedTagSet = new HashSet<>();
+            for (ArtifactTag tag : tagSet)
+            {
+                resolvedTagSet.add(tags.computeIfAbsent(tag.getName(), artifactTagService::findOneOrCreate));
+            }
+
+            tagSet.clear();
+            tagSet.addAll(resolvedTagSet);
+        }
+    }
+
+}
@@ -10,9 +10,12 @@ import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
@@ -35,6 +38,23 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    /**
+     * The remote artifact entries are stored locally only once they were cached, the other entries always are.
+     */
+    private static final String LOCALLY_STORED_CONDITION = "(isCached IS NULL OR isCached = true)";
+
+    private static final String ARTIFACT_COORDINATES_ID_QUERY = "SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path";
+
+    private static final String ARTIFACT_ENTRY_ID_QUERY = "SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]";
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+
+    private static final int COORDINATES_QUERY_CACHE_MAX_SIZE = 1000;
+
+    private final Cache<CoordinatesQueryShape, String> coordinatesQueryCache = CacheBuilder.newBuilder()
+                                                                                          .maximumSize(COORDINATES_QUERY_CACHE_MAX_SIZE)
+                                                                                          .build();
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -83,22 +103,16 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                                      .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
                                                                                t -> (ArtifactTagEntry) t));
 
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
-                                              skip,
-                                              limit, orderBy, strict);
+        List<Pair<String, String>> storageRepositoryPairList = toList(storageId, repositoryId);
+        String sQuery = getCoordinatesQuery("*", storageRepositoryPairList, coordinates.keySet(), tagMap.keySet(),
+                                            skip, limit, orderBy, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
-        if (storageId != null && !storageId.trim().isEmpty())
-        {
-            parameterMap.put("storageId0", storageId);
-        }
-        if (repositoryId != null && !repositoryId.trim().isEmpty())
-        {
-            parameterMap.put("repositoryId0", repositoryId);
-        }
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
 
         tagMap.entrySet().stream().forEach(e -> parameterMap.put(e.getKey(), e.getValue().getName()));
+        putPageParameters(parameterMap, skip, limit);
 
         List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
 
@@ -111,35 +125,46 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
-        Map<String, Object> parameterMap = Collections.emptyMap();
-
+        Map<String, Object> parameterMap = new HashMap<>();
 
-        if (!searchCriteria.isEmpty())
+        List<String> conditions = buildSearchCriteriaConditions(searchCriteria, parameterMap);
+        if (!conditions.isEmpty())
         {
-            StringBuilder criteriaQueryClasuse = new StringBuilder();
-            sb.append(" WHERE ");
-            parameterMap = new HashMap<>();
+            sb.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
 
-            if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
-            {
-                criteriaQueryClasuse.append(" sizeInBytes >= :minSizeInBytes ");
-                parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
-            }
-            if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
-            {
-                if (criteriaQueryClasuse.length() > 0)
-                {
-                    criteriaQueryClasuse.append(" AND ");
-                }
-                Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
-                criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
-                parameterMap.put("lastUsed", lastUsed);
-            }
+        appendPagingCriteria(sb, pagingCriteria);
+
+        logger.debug("Executing SQL query> {}", sb);
+
+        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
+
+        return getDelegate().command(oQuery).execute(parameterMap);
+    }
 
-            sb.append(criteriaQueryClasuse);
+    @Override
+    public List<ArtifactEntry> findLeastRecentlyUsed(ArtifactEntrySearchCriteria searchCriteria,
+                                                     Date afterLastUsed,
+                                                     String afterUuid,
+                                                     int limit)
+    {
+        Map<String, Object> parameterMap = new HashMap<>();
+
+        List<String> conditions = buildSearchCriteriaConditions(searchCriteria, parameterMap);
+        conditions.add(LOCALLY_STORED_CONDITION);
+        conditions.add("lastUsed IS NOT NULL");
+        if (afterLastUsed != null && afterUuid != null)
+        {
+            conditions.add("(lastUsed > :afterLastUsed OR (lastUsed = :afterLastUsed AND uuid > :afterUuid))");
+            parameterMap.put("afterLastUsed", afterLastUsed);
+            parameterMap.put("afterUuid", afterUuid);
         }
 
-        appendPagingCriteria(sb, pagingCriteria);
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
+        sb.append(" WHERE ").append(String.join(" AND ", conditions));
+        sb.append(" ORDER BY lastUsed ASC, uuid ASC");
+        sb.append(" LIMIT ").append(limit);
 
         logger.debug("Executing SQL query> {}", sb);
 
@@ -148,6 +173,60 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return getDelegate().command(oQuery).execute(parameterMap);
     }
 
+    @Override
+    public long sumSizeInBytes(String storageId,
+                               String repositoryId)
+    {
+        String sQuery = String.format("SELECT sum(sizeInBytes) AS sizeInBytes FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId AND %s",
+                                      getEntityClass().getSimpleName(), LOCALLY_STORED_CONDITION);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        Number sizeInBytes = result.isEmpty() ? null : result.iterator().next().field("sizeInBytes");
+
+        return sizeInBytes != null ? sizeInBytes.longValue() : 0;
+    }
+
+    private List<String> buildSearchCriteriaConditions(ArtifactEntrySearchCriteria searchCriteria,
+                                                       Map<String, Object> parameterMap)
+    {
+        List<String> conditions = new ArrayList<>();
+        if (searchCriteria.isEmpty())
+        {
+            return conditions;
+        }
+
+        if (searchCriteria.getStorageId() != null)
+        {
+            conditions.add("storageId = :storageId");
+            parameterMap.put("storageId", searchCriteria.getStorageId());
+        }
+        if (searchCriteria.getRepositoryId() != null)
+        {
+            conditions.add("repositoryId = :repositoryId");
+            parameterMap.put("repositoryId", searchCriteria.getRepositoryId());
+        }
+        if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
+        {
+            conditions.add("sizeInBytes >= :minSizeInBytes");
+            parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
+        }
+        if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
+        {
+            Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
+            conditions.add("lastUsed < :lastUsed");
+            parameterMap.put("lastUsed", lastUsed);
+        }
+
+        return conditions;
+    }
+
     @Override
     public List<ArtifactEntry> findArtifactList(String storageId,
                                                 String repositoryId,
@@ -166,27 +245,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  boolean strict)
     {
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
+        String sQuery = getCoordinatesQuery("count(distinct(artifactCoordinates))", storageRepositoryPairList,
+                                            coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
-
-        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
-            String storageId = p[idx].getValue0();
-            String repositoryId = p[idx].getValue1();
-
-            if (storageId != null && !storageId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
-            }
-            if (repositoryId != null && !repositoryId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
-            }
-        });
-
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
 
         List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
         return (Long) result.iterator().next().field("count");
@@ -198,12 +262,36 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                boolean strict)
     {
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(*)");
+        String sQuery = getCoordinatesQuery("count(*)", storageRepositoryPairList, coordinates.keySet(),
+                                            Collections.emptySet(), 0, 0, null, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        return (Long) result.iterator().next().field("count");
+    }
 
+    @Override
+    public Long countArtifacts(String storageId,
+                               String repositoryId,
+                               Map<String, String> coordinates,
+                               boolean strict)
+    {
+        return countArtifacts(toList(storageId, repositoryId), coordinates,
+                              strict);
+    }
+
+    public List<Pair<String, String>> toList(String storageId,
+                                             String repositoryId)
+    {
+        return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
+    }
+
+    private void putStorageRepositoryParameters(Map<String, Object> parameterMap,
+                                                Collection<Pair<String, String>> storageRepositoryPairList)
+    {
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
             String storageId = p[idx].getValue0();
@@ -218,26 +306,50 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                 parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
             }
         });
-
-
-        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
-        return (Long) result.iterator().next().field("count");
     }
 
-    @Override
-    public Long countArtifacts(String storageId,
-                               String repositoryId,
-                               Map<String, String> coordinates,
-                               boolean strict)
+    private void putPageParameters(Map<String, Object> parameterMap,
+                                   int skip,
+                                   int limit)
     {
-        return countArtifacts(toList(storageId, repositoryId), coordinates,
-                              strict);
+        if (skip > 0)
+        {
+            parameterMap.put("skip", skip);
+        }
+        if (limit > 0)
+        {
+            parameterMap.put("limit", limit);
+        }
     }
 
-    public List<Pair<String, String>> toList(String storageId,
-                                             String repositoryId)
+    /**
+     * Returns the query of the given shape, which is built only once. The values are always passed as parameters, so
+     * the same query text is reused for all the lookups of the same shape and OrientDB parses it only once, as its
+     * statement cache is keyed by the query text.
+     */
+    String getCoordinatesQuery(String projection,
+                               Collection<Pair<String, String>> storageRepositoryPairList,
+                               Set<String> parameterNameSet,
+                               Set<String> tagNameSet,
+                               int skip,
+                               int limit,
+                               String orderBy,
+                               boolean strict)
     {
-        return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
+        CoordinatesQueryShape shape = new CoordinatesQueryShape(projection, storageRepositoryPairList,
+                                                                parameterNameSet, tagNameSet, skip, limit, orderBy,
+                                                                strict);
+        String sQuery = coordinatesQueryCache.getIfPresent(shape);
+        if (sQuery == null)
+        {
+            sQuery = buildCoordinatesQuery(storageRepositoryPairList, parameterNameSet, tagNameSet, skip, limit,
+                                           orderBy, strict).replace("SELECT *", "SELECT " + projection);
+            coordinatesQueryCache.put(shape, sQuery);
+        }
+
+        logger.debug("Executing SQL query> {}", sQuery);
+
+        return sQuery;
     }
 
     protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
@@ -254,13 +366,15 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         // COORDINATES
         StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
-                        .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
-                                        .append("artifactCoordinates.coordinates.")
-                                        .append(e)
-                                        .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
+        // The names are sorted, so that the same coordinates always produce the same query text.
+        new TreeSet<>(parameterNameSet).stream()
+                                       .map(ArtifactEntryServiceImpl::checkIdentifier)
+                                       .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
+                                                       .append("artifactCoordinates.coordinates.")
+                                                       .append(e)
+                                                       .append(".toLowerCase()")
+                                                       .append(strict ? " = " : " like ")
+                                                       .append(String.format(":%s", e)));
         sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
 
         //REPOSITORIES
@@ -271,7 +385,9 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         sb.append(c2.length() > 0 ? c2.toString() : "true");
 
         //TAGS
-        tagNameSet.stream().forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
+        new TreeSet<>(tagNameSet).stream()
+                                 .map(ArtifactEntryServiceImpl::checkIdentifier)
+                                 .forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
 
         //ORDER
         if ("uuid".equals(orderBy))
@@ -280,27 +396,38 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         }
         else if (orderBy != null && !orderBy.trim().isEmpty())
         {
-            sb.append(String.format(" ORDER BY artifactCoordinates.coordinates.%s", orderBy));
+            sb.append(String.format(" ORDER BY artifactCoordinates.coordinates.%s", checkIdentifier(orderBy)));
         }
 
         //PAGE
         if (skip > 0)
         {
-            sb.append(String.format(" SKIP %s", skip));
+            sb.append(" SKIP :skip");
         }
         if (limit > 0)
         {
-            sb.append(String.format(" LIMIT %s", limit));
+            sb.append(" LIMIT :limit");
         }
 
         // now query should looks like
         // SELECT * FROM Foo WHERE blah = :blah AND moreBlah = :moreBlah
 
-        logger.debug("Executing SQL query> {}", sb);
-
         return sb.toString();
     }
 
+    /**
+     * The names are written into the query text (only the values are parameters), so they can't be arbitrary.
+     */
+    private static String checkIdentifier(String name)
+    {
+        if (!IDENTIFIER_PATTERN.matcher(name).matches())
+        {
+            throw new IllegalArgumentException(String.format("Invalid query property name [%s].", name));
+        }
+
+        return name;
+    }
+
     public String calculateStorageAndRepositoryCondition(Pair<String, String> storageRepositoryPairArray,
                                                          int idx)
     {
@@ -394,12 +521,10 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                      String repositoryId,
                                      String path)
     {
-        String sQuery = String.format("SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path");
-
         HashMap<String, Object> params = new HashMap<>();
         params.put("path", path);
 
-        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(ARTIFACT_COORDINATES_ID_QUERY);
         oQuery.setLimit(1);
 
         List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
@@ -411,9 +536,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             return null;
         }
 
-        sQuery = String.format("SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]");
-
-        oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery = new OSQLSynchQuery<>(ARTIFACT_ENTRY_ID_QUERY);
         oQuery.setLimit(1);
 
         params = new HashMap<>();
@@ -442,6 +565,88 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result;
     }
 
+    /**
+     * Everything which makes the text of a coordinates query differ, except the parameter values. The page is passed
+     * as parameters too, only whether there is one matters.
+     */
+    private static final class CoordinatesQueryShape
+    {
+
+        private final String projection;
+
+        private final List<String> storageRepositoryPattern;
+
+        private final Set<String> parameterNameSet;
+
+        private final Set<String> tagNameSet;
+
+        private final boolean paged;
+
+        private final boolean limited;
+
+        private final String orderBy;
+
+        private final boolean strict;
 
+        CoordinatesQueryShape(String projection,
+                              Collection<Pair<String, String>> storageRepositoryPairList,
+                              Set<String> parameterNameSet,
+                              Set<String> tagNameSet,
+                              int skip,
+                              int limit,
+                              String orderBy,
+                              boolean strict)
+        {
+            this.projection = projection;
+            this.storageRepositoryPattern = storageRepositoryPairList.stream()
+                                                                     .map(p -> String.format("%s:%s",
+                                                                                             isBlank(p.getValue0()),
+                                                                                             isBlank(p.getValue1())))
+                                                                     .collect(Collectors.toList());
+            this.parameterNameSet = new HashSet<>(parameterNameSet);
+            this.tagNameSet = new HashSet<>(tagNameSet);
+            this.paged = skip > 0;
+            this.limited = limit > 0;
+            this.orderBy = orderBy;
+            this.strict = strict;
+        }
+
+        private static boolean isBlank(String value)
+        {
+            return value == null || value.trim().isEmpty();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof CoordinatesQueryShape))
+            {
+                return false;
+            }
+
+            CoordinatesQueryShape that = (CoordinatesQueryShape) o;
+
+            return paged == that.paged &&
+                   limited == that.limited &&
+                   strict == that.strict &&
+                   projection.equals(that.projection) &&
+                   storageRepositoryPattern.equals(that.storageRepositoryPattern) &&
+                   parameterNameSet.equals(that.parameterNameSet) &&
+                   tagNameSet.equals(that.tagNameSet) &&
+                   Objects.equals(orderBy, that.orderBy);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(projection, storageRepositoryPattern, parameterNameSet, tagNameSet, paged, limited,
+                                orderBy, strict);
+        }
+
+    }
 
 }
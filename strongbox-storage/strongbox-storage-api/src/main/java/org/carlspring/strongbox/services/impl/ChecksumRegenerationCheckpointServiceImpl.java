@@ -0,0 +1,71 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.ChecksumRegenerationCheckpointEntry;
+import org.carlspring.strongbox.services.ChecksumRegenerationCheckpointService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class ChecksumRegenerationCheckpointServiceImpl
+        extends CommonCrudService<ChecksumRegenerationCheckpointEntry>
+        implements ChecksumRegenerationCheckpointService
+{
+
+    @Override
+    public Optional<ChecksumRegenerationCheckpointEntry> findCheckpoint(String storageId,
+                                                                        String repositoryId,
+                                                                        String basePath)
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put("uuid", ChecksumRegenerationCheckpointEntry.calculateUuid(storageId, repositoryId, basePath));
+
+        String sQuery = buildQuery(params);
+
+        OSQLSynchQuery<ChecksumRegenerationCheckpointEntry> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(1);
+
+        List<ChecksumRegenerationCheckpointEntry> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream().findFirst();
+    }
+
+    /**
+     * Saves the progress of the checkpoint into the stored checkpoint of the same regeneration, if there is one.
+     */
+    @Override
+    public void saveCheckpoint(ChecksumRegenerationCheckpointEntry checkpoint)
+    {
+        ChecksumRegenerationCheckpointEntry result = findCheckpoint(checkpoint.getStorageId(),
+                                                                    checkpoint.getRepositoryId(),
+                                                                    checkpoint.getBasePath()).orElse(checkpoint);
+        result.setForceRegeneration(checkpoint.getForceRegeneration());
+        result.setStartedAt(checkpoint.getStartedAt());
+        result.setLastPath(checkpoint.getLastPath());
+
+        save(result);
+    }
+
+    @Override
+    public void deleteCheckpoint(String storageId,
+                                 String repositoryId,
+                                 String basePath)
+    {
+        findCheckpoint(storageId, repositoryId, basePath).ifPresent(this::delete);
+    }
+
+    @Override
+    public Class<ChecksumRegenerationCheckpointEntry> getEntityClass()
+    {
+        return ChecksumRegenerationCheckpointEntry.class;
+    }
+
+}
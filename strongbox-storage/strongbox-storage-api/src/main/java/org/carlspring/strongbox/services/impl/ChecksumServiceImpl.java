@@ -1,43 +1,105 @@
 package org.carlspring.strongbox.services.impl;
 
-import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
-import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.domain.ChecksumRegenerationCheckpointEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.services.ChecksumRegenerationCheckpointService;
 import org.carlspring.strongbox.services.ChecksumService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * Regenerates the checksums of the artifact directories (the directories which contain metadata, together with
+ * everything below them) in parallel.
+ * <p>
+ * The directories are located with a depth-first traversal, which lists one directory at a time in the order of the
+ * file names, instead of collecting and sorting the whole tree first. The located directories are processed by a
+ * work-stealing pool, and the traversal waits when there are too many of them in progress. The last directory, up to
+ * which every directory was completed, is checkpointed, so that an interrupted regeneration resumes after it.
+ *
  * @author Kate Novik.
  */
 @Component
 public class ChecksumServiceImpl
-        implements ChecksumService
+        implements ChecksumService, InitializingBean, DisposableBean
 {
     private final Logger logger = LoggerFactory.getLogger(ChecksumServiceImpl.class);
 
+    private static final Comparator<Path> FILE_NAME_COMPARATOR = Comparator.comparing(p -> p.getFileName().toString());
+
     @Inject
     private ConfigurationManager configurationManager;
-    
+
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
-    
+
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private ChecksumRegenerationCheckpointService checksumRegenerationCheckpointService;
+
+    /**
+     * The number of the threads which regenerate the checksums, the number of the processors if not positive.
+     */
+    @Value("${strongbox.checksum.regeneration.parallelism:0}")
+    private int parallelism;
+
+    /**
+     * The number of the completed directories after which the progress is checkpointed.
+     */
+    @Value("${strongbox.checksum.regeneration.checkpointInterval:100}")
+    private int checkpointInterval;
+
+    private ForkJoinPool regenerationPool;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        int poolParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        regenerationPool = new ForkJoinPool(poolParallelism);
+
+        logger.info("Checksums will be regenerated with [{}] threads.", poolParallelism);
+    }
+
+    @Override
+    public void destroy()
+    {
+        regenerationPool.shutdownNow();
+    }
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
@@ -55,23 +117,298 @@ public class ChecksumServiceImpl
                         repository.getId(), repository.getLayout());
             return;
         }
-        
-        
+
+
         RepositoryPath repositoryBasePath = Optional.ofNullable(basePath)
                                                     .map(p -> repositoryPathResolver.resolve(repository, basePath))
                                                     .orElseGet(() -> repositoryPathResolver.resolve(repository));
-        
-        ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
-        operation.setBasePath(repositoryBasePath);
-        operation.setForceRegeneration(forceRegeneration);
-
-        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-        locator.setOperation(operation);
-        locator.locateArtifactDirectories();
+        RepositoryPath startingPath = Files.isDirectory(repositoryBasePath) ? repositoryBasePath :
+                                      repositoryBasePath.getParent();
+
+        ChecksumRegenerationCheckpointEntry checkpoint =
+                checksumRegenerationCheckpointService.findCheckpoint(storageId, repositoryId, basePath)
+                                                     .filter(c -> Boolean.valueOf(forceRegeneration)
+                                                                         .equals(c.getForceRegeneration()))
+                                                     .orElse(null);
+        if (checkpoint != null && checkpoint.getLastPath() != null)
+        {
+            logger.info("Resuming the checksum regeneration of [{}] after [{}].", startingPath,
+                        checkpoint.getLastPath());
+        }
+        else
+        {
+            checkpoint = new ChecksumRegenerationCheckpointEntry(storageId, repositoryId, basePath);
+            checkpoint.setForceRegeneration(forceRegeneration);
+            checkpoint.setStartedAt(new Date());
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        ChecksumRegeneration regeneration = new ChecksumRegeneration(checkpoint);
+        regeneration.regenerate(startingPath);
+
+        checksumRegenerationCheckpointService.deleteCheckpoint(storageId, repositoryId, basePath);
+
+        logger.debug("Regenerated the checksums of [{}] directories in [{}] in {} ms.",
+                     regeneration.getCompletedCount(), startingPath, System.currentTimeMillis() - startTime);
     }
 
     public Configuration getConfiguration()
     {
         return configurationManager.getConfiguration();
     }
+
+    private static List<String> getPathElements(String path)
+    {
+        return path == null || path.isEmpty() ? Collections.emptyList() : Arrays.asList(path.split("/"));
+    }
+
+    /**
+     * Compares the paths in the order of the depth-first traversal: element by element, with the parent directory
+     * before its subdirectories.
+     */
+    private static int compareTraversalOrder(List<String> path1,
+                                             List<String> path2)
+    {
+        for (int i = 0; i < Math.min(path1.size(), path2.size()); i++)
+        {
+            int result = path1.get(i).compareTo(path2.get(i));
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+
+        return Integer.compare(path1.size(), path2.size());
+    }
+
+    private static boolean isHidden(RepositoryPath path)
+    {
+        // Skip directories which start with a dot (like, for example: .index)
+        return path.getFileName() != null && path.getFileName().toString().startsWith(".");
+    }
+
+    private boolean containsMetadata(RepositoryPath path)
+            throws IOException
+    {
+        try (Stream<Path> pathStream = Files.list(path))
+        {
+            return pathStream.anyMatch(p -> {
+                try
+                {
+                    return Boolean.TRUE.equals(RepositoryFiles.isMetadata((RepositoryPath) p));
+                }
+                catch (IOException e)
+                {
+                    logger.error("Failed to read attributes for [{}]", p, e);
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * A single run of the regeneration, which keeps track of the directories in progress.
+     */
+    private class ChecksumRegeneration
+    {
+
+        private final ChecksumRegenerationCheckpointEntry checkpoint;
+
+        private final List<String> resumeAfter;
+
+        private final FileTime regeneratedSince;
+
+        private final Semaphore inProgressPermits = new Semaphore(regenerationPool.getParallelism() * 2);
+
+        /**
+         * The directories which were submitted and not checkpointed yet, in the order of the traversal.
+         */
+        private final Deque<ArtifactDirectory> submitted = new ArrayDeque<>();
+
+        private int completedCount;
+
+        private int completedSinceCheckpoint;
+
+        ChecksumRegeneration(ChecksumRegenerationCheckpointEntry checkpoint)
+        {
+            this.checkpoint = checkpoint;
+            this.resumeAfter = checkpoint.getLastPath() != null ? getPathElements(checkpoint.getLastPath()) : null;
+            // The checksums which were written since the interrupted regeneration started are not written again.
+            this.regeneratedSince = resumeAfter != null && Boolean.TRUE.equals(checkpoint.getForceRegeneration()) ?
+                                    FileTime.fromMillis(checkpoint.getStartedAt().getTime()) : null;
+        }
+
+        void regenerate(RepositoryPath startingPath)
+                throws IOException
+        {
+            boolean regenerated = false;
+            try
+            {
+                traverse(startingPath);
+
+                // Wait for the directories in progress.
+                inProgressPermits.acquire(regenerationPool.getParallelism() * 2);
+                regenerated = true;
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException(String.format("Checksum regeneration of [%s] was interrupted.",
+                                                               startingPath));
+            }
+            finally
+            {
+                if (!regenerated)
+                {
+                    checkpoint();
+                }
+            }
+        }
+
+        int getCompletedCount()
+        {
+            return completedCount;
+        }
+
+        private void traverse(RepositoryPath directory)
+                throws IOException,
+                       InterruptedException
+        {
+            List<String> pathElements = getPathElements(RepositoryFiles.relativizePath(directory));
+            if (resumeAfter != null && compareTraversalOrder(pathElements, resumeAfter) <= 0 &&
+                !isAncestor(pathElements, resumeAfter))
+            {
+                // Completed by the interrupted regeneration.
+                return;
+            }
+
+            if (!isHidden(directory) && containsMetadata(directory))
+            {
+                submit(new ArtifactDirectory(directory, String.join("/", pathElements)));
+
+                return;
+            }
+
+            List<RepositoryPath> subdirectories;
+            try (Stream<Path> pathStream = Files.list(directory))
+            {
+                subdirectories = pathStream.filter(Files::isDirectory)
+                                           .sorted(FILE_NAME_COMPARATOR)
+                                           .map(RepositoryPath.class::cast)
+                                           .collect(Collectors.toList());
+            }
+
+            for (RepositoryPath subdirectory : subdirectories)
+            {
+                traverse(subdirectory);
+            }
+        }
+
+        private boolean isAncestor(List<String> path1,
+                                   List<String> path2)
+        {
+            return path1.size() < path2.size() && path2.subList(0, path1.size()).equals(path1);
+        }
+
+        private void submit(ArtifactDirectory artifactDirectory)
+                throws InterruptedException
+        {
+            inProgressPermits.acquire();
+            synchronized (this)
+            {
+                submitted.addLast(artifactDirectory);
+            }
+
+            regenerationPool.execute(() -> {
+                try
+                {
+                    storeChecksum(artifactDirectory.path);
+                }
+                finally
+                {
+                    complete(artifactDirectory);
+                }
+            });
+
+            boolean checkpointDue;
+            synchronized (this)
+            {
+                checkpointDue = completedSinceCheckpoint >= checkpointInterval;
+            }
+            if (checkpointDue)
+            {
+                checkpoint();
+            }
+        }
+
+        private void storeChecksum(RepositoryPath path)
+        {
+            LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+            try
+            {
+                provider.storeChecksum(path, Boolean.TRUE.equals(checkpoint.getForceRegeneration()),
+                                       regeneratedSince);
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed to regenerate checksums for [{}]", path, e);
+            }
+        }
+
+        private synchronized void complete(ArtifactDirectory artifactDirectory)
+        {
+            artifactDirectory.completed = true;
+            completedCount++;
+            completedSinceCheckpoint++;
+
+            inProgressPermits.release();
+        }
+
+        /**
+         * Checkpoints the last directory up to which every directory was completed. The checkpoint is saved only by
+         * the thread which traverses the directories, not by the pool threads.
+         */
+        private void checkpoint()
+        {
+            String lastPath = null;
+            synchronized (this)
+            {
+                while (!submitted.isEmpty() && submitted.peekFirst().completed)
+                {
+                    lastPath = submitted.removeFirst().relativePath;
+                }
+                completedSinceCheckpoint = 0;
+
+                if (lastPath == null)
+                {
+                    return;
+                }
+            }
+
+            checkpoint.setLastPath(lastPath);
+            checksumRegenerationCheckpointService.saveCheckpoint(checkpoint);
+        }
+
+    }
+
+    private static class ArtifactDirectory
+    {
+
+        private final RepositoryPath path;
+
+        private final String relativePath;
+
+        private boolean completed;
+
+        ArtifactDirectory(RepositoryPath path,
+                          String relativePath)
+        {
+            this.path = path;
+            this.relativePath = relativePath;
+        }
+
+    }
+
 }
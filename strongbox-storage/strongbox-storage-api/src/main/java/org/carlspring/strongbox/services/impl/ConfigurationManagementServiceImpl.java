@@ -5,6 +5,7 @@ import org.carlspring.strongbox.configuration.*;
 import org.carlspring.strongbox.event.repository.RepositoryEvent;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
@@ -58,6 +59,9 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
     /**
      * Yes, this is a state object.
      * It is protected by the {@link #configurationLock} here
@@ -67,6 +71,12 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    /**
+     * Immutable snapshot of the {@link #configuration}, it's created on demand and dropped with every modification,
+     * so that the readers get the same instance until the configuration changes.
+     */
+    private volatile Configuration configurationSnapshot;
+
     @PostConstruct
     public void init()
     {
@@ -114,7 +124,14 @@ public class ConfigurationManagementServiceImpl
 
         try
         {
-            return new Configuration(configuration);
+            // The snapshot is published under the read lock, so that it can't outlive a concurrent modification.
+            Configuration result = configurationSnapshot;
+            if (result == null)
+            {
+                configurationSnapshot = result = new Configuration(configuration);
+            }
+
+            return result;
         }
         finally
         {
@@ -614,6 +631,10 @@ public class ConfigurationManagementServiceImpl
         }
         finally
         {
+            // The operation may read the configuration itself, so the snapshot is dropped only once it's done.
+            configurationSnapshot = null;
+            // The path attributes depend on the repository configuration (layout, remote URL, etc.).
+            repositoryFileAttributesCache.invalidateAll();
             writeLock.unlock();
         }
     }
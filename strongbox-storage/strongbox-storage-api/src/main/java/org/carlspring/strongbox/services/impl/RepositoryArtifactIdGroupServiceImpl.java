@@ -10,10 +10,15 @@ import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
 import com.orientechnologies.orient.core.record.impl.ODocument;
@@ -44,63 +49,164 @@ public class RepositoryArtifactIdGroupServiceImpl
     public void addArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
                                    ArtifactEntry artifactEntry)
     {
-        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
-        Assert.notNull(coordinates, "coordinates should not be null");
+        addArtifactsToGroup(artifactGroup, Collections.singleton(artifactEntry));
+    }
 
+    @Override
+    public void addArtifactsToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                    Collection<? extends ArtifactEntry> artifactEntries)
+    {
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+        Set<ArtifactEntry> lastVersionEntries = getLastVersionEntries(artifactGroup, lastVersionTag);
 
-        artifactEntry.getTagSet().add(lastVersionTag);
-        artifactGroup.putArtifactEntry(artifactEntry);
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            putArtifactEntry(artifactGroup, artifactEntry, lastVersionTag, lastVersionEntries);
+        }
 
-        artifactGroup.getArtifactEntries()
-                     .stream()
-                     .filter(e -> e.getTagSet().contains(lastVersionTag))
-                     .sorted((e1,
-                              e2) -> e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates()))
-                     .forEach(e -> checkAndUpdateLastVersionTagIfNeeded(e, artifactEntry, lastVersionTag));
+        artifactGroup.setLastVersionEntries(lastVersionEntries);
+        saveGroup(artifactGroup);
+    }
 
+    @Override
+    public void removeArtifactFromGroup(RepositoryArtifactIdGroupEntry artifactGroup,
+                                        ArtifactEntry artifactEntry)
+    {
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+        Set<ArtifactEntry> lastVersionEntries = getLastVersionEntries(artifactGroup, lastVersionTag);
+
+        artifactGroup.getArtifactEntries().remove(artifactEntry);
+        if (lastVersionEntries.remove(artifactEntry) && lastVersionEntries.isEmpty())
+        {
+            // The last version is gone, so this is the only case when all the versions of the group are compared.
+            artifactGroup.getArtifactEntries()
+                         .stream()
+                         .filter(RepositoryArtifactIdGroupServiceImpl::hasCoordinates)
+                         .max(RepositoryArtifactIdGroupServiceImpl::compareVersions)
+                         .ifPresent(e -> artifactGroup.getArtifactEntries()
+                                                      .stream()
+                                                      .filter(RepositoryArtifactIdGroupServiceImpl::hasCoordinates)
+                                                      .filter(e2 -> compareVersions(e2, e) == 0)
+                                                      .forEach(e2 -> {
+                                                          e2.getTagSet().add(lastVersionTag);
+                                                          lastVersionEntries.add((ArtifactEntry) tryToCascadeEntitySave(e2));
+                                                      }));
 
-        save(artifactGroup);
+            logger.debug("Set [{}] last version to [{}]",
+                         artifactGroup.getName(),
+                         lastVersionEntries.stream()
+                                           .map(e -> e.getArtifactCoordinates().getVersion())
+                                           .findFirst()
+                                           .orElse(null));
+        }
+
+        artifactGroup.setLastVersionEntries(lastVersionEntries);
+        saveGroup(artifactGroup);
     }
 
-    private <S extends ArtifactEntry> Optional<S> checkAndUpdateLastVersionTagIfNeeded(S lastVersionEntry,
-                                                                                       S entity,
-                                                                                       ArtifactTag lastVersionTag)
+    /**
+     * The new artifact is compared only with the last version of the group (with any artifact of it, as they all
+     * have the same version), so the cost doesn't depend on the number of versions in the group.
+     */
+    private void putArtifactEntry(RepositoryArtifactIdGroupEntry artifactGroup,
+                                  ArtifactEntry artifactEntry,
+                                  ArtifactTag lastVersionTag,
+                                  Set<ArtifactEntry> lastVersionEntries)
     {
-        Optional<S> result = Optional.empty();
-        ArtifactCoordinates coordinates = entity.getArtifactCoordinates();
+        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+        Assert.notNull(coordinates, "coordinates should not be null");
 
-        int artifactCoordinatesComparison = entity.getArtifactCoordinates()
-                                                  .compareTo(lastVersionEntry.getArtifactCoordinates());
+        ArtifactEntry lastVersionEntry = lastVersionEntries.stream().findFirst().orElse(null);
+        int artifactCoordinatesComparison = lastVersionEntry == null ? 1 : compareVersions(artifactEntry,
+                                                                                           lastVersionEntry);
         if (artifactCoordinatesComparison == 0)
         {
             logger.debug("Set [{}] last version to [{}]",
-                         entity.getArtifactPath(),
+                         artifactEntry.getArtifactPath(),
                          coordinates.getVersion());
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
         }
         else if (artifactCoordinatesComparison > 0)
         {
             logger.debug("Update [{}] last version from [{}] to [{}]",
-                         entity.getArtifactPath(),
-                         lastVersionEntry.getArtifactCoordinates().getVersion(),
+                         artifactEntry.getArtifactPath(),
+                         lastVersionEntry != null ? lastVersionEntry.getArtifactCoordinates().getVersion() : null,
                          coordinates.getVersion());
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.getTagSet().add(lastVersionTag);
 
-            lastVersionEntry.getTagSet().remove(lastVersionTag);
-            result = Optional.of(lastVersionEntry);
+            for (ArtifactEntry e : lastVersionEntries)
+            {
+                e.getTagSet().remove(lastVersionTag);
+                tryToCascadeEntitySave(e);
+            }
+            lastVersionEntries.clear();
         }
         else
         {
             logger.debug("Keep [{}] last version [{}]",
-                         entity.getArtifactPath(),
+                         artifactEntry.getArtifactPath(),
                          lastVersionEntry.getArtifactCoordinates().getVersion());
-            entity.getTagSet().remove(lastVersionTag);
+            artifactEntry.getTagSet().remove(lastVersionTag);
         }
 
+        ArtifactEntry result = (ArtifactEntry) tryToCascadeEntitySave(artifactEntry);
+        artifactGroup.putArtifactEntry(result);
+
+        lastVersionEntries.remove(result);
+        if (artifactCoordinatesComparison >= 0)
+        {
+            lastVersionEntries.add(result);
+        }
+    }
+
+    /**
+     * @return the artifact entries of the last version, the groups which were stored before they were kept with the
+     *         group are looked up by the tag once
+     */
+    private Set<ArtifactEntry> getLastVersionEntries(RepositoryArtifactIdGroupEntry artifactGroup,
+                                                     ArtifactTag lastVersionTag)
+    {
+        Set<ArtifactEntry> result = artifactGroup.getLastVersionEntries()
+                                                 .stream()
+                                                 .filter(RepositoryArtifactIdGroupServiceImpl::hasCoordinates)
+                                                 .collect(Collectors.toCollection(HashSet::new));
+        if (!result.isEmpty())
+        {
+            return result;
+        }
+
+        artifactGroup.getArtifactEntries()
+                     .stream()
+                     .filter(RepositoryArtifactIdGroupServiceImpl::hasCoordinates)
+                     .filter(e -> e.getTagSet().contains(lastVersionTag))
+                     .forEach(result::add);
+
         return result;
     }
 
+    /**
+     * Saves the group without the cascade over all of its artifact entries, the changed ones were saved already.
+     */
+    private void saveGroup(RepositoryArtifactIdGroupEntry artifactGroup)
+    {
+        identifyEntity(artifactGroup);
+        getDelegate().save(artifactGroup);
+    }
+
+    /**
+     * The entries stored before the coordinates were mandatory may have none, they can't be compared by version.
+     */
+    private static boolean hasCoordinates(ArtifactEntry artifactEntry)
+    {
+        return artifactEntry != null && artifactEntry.getArtifactCoordinates() != null;
+    }
+
+    private static int compareVersions(ArtifactEntry e1,
+                                       ArtifactEntry e2)
+    {
+        return e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates());
+    }
+
     @Override
     public long count(String storageId,
                       String repositoryId)
@@ -0,0 +1,59 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of an {@link org.carlspring.strongbox.services.ArtifactEntryIngestionService} run.
+ */
+public class ArtifactEntryIngestionResult
+{
+
+    private long storedCount;
+
+    private long skippedCount;
+
+    private final Map<String, Exception> failures = new LinkedHashMap<>();
+
+    /**
+     * @return the number of the new artifact entries which were stored
+     */
+    public long getStoredCount()
+    {
+        return storedCount;
+    }
+
+    /**
+     * @return the number of the artifact entries which were skipped, as they exist already
+     */
+    public long getSkippedCount()
+    {
+        return skippedCount;
+    }
+
+    /**
+     * @return the errors of the artifact entries which couldn't be stored, by their artifact paths
+     */
+    public Map<String, Exception> getFailures()
+    {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public void addStored(long count)
+    {
+        storedCount += count;
+    }
+
+    public void addSkipped(long count)
+    {
+        skippedCount += count;
+    }
+
+    public void addFailure(String artifactPath,
+                           Exception error)
+    {
+        failures.put(artifactPath, error);
+    }
+
+}
@@ -0,0 +1,273 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.RepositoryIdentifiable;
+import org.carlspring.strongbox.storage.routing.RoutingRule;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * {@link RoutingRules} compiled into a structure which answers the routing checks without scanning all the rules:
+ * <ul>
+ * <li>the rules are indexed by the group repository they apply to (exact `storageId:repositoryId` and the
+ * `storageId:*`, `*:repositoryId`, `*:*` wildcards);</li>
+ * <li>the rules of the group repository member are resolved once and their patterns are combined into a single
+ * {@link Pattern} for deny and accept rules.</li>
+ * </ul>
+ * Instances are immutable snapshots of the {@link RoutingRules} they were created from.
+ *
+ * @see ArtifactRoutingRulesChecker
+ */
+class CompiledRoutingRules
+{
+
+    /**
+     * Blank storage or repository identifier of the rule means that it is applied to all storages or repositories.
+     */
+    private static final String WILDCARD = "";
+
+    /**
+     * Patterns with back references can't be combined, as the group numbers are shifted within the combined pattern.
+     */
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+    private final RoutingRules source;
+
+    private final Map<String, List<IndexedRule>> rulesByGroupRepository;
+
+    private final ConcurrentMap<String, MemberRoutingRules> memberRoutingRules = new ConcurrentHashMap<>();
+
+    CompiledRoutingRules(RoutingRules source)
+    {
+        this.source = source;
+
+        Map<String, List<IndexedRule>> rulesByGroupRepositoryLocal = new HashMap<>();
+        if (source != null)
+        {
+            for (RoutingRule rule : source.getRules())
+            {
+                rulesByGroupRepositoryLocal.computeIfAbsent(toKey(rule), k -> new ArrayList<>())
+                                           .add(new IndexedRule(rule));
+            }
+        }
+        this.rulesByGroupRepository = rulesByGroupRepositoryLocal;
+    }
+
+    RoutingRules getSource()
+    {
+        return source;
+    }
+
+    MemberRoutingRules getMemberRoutingRules(Repository groupRepository,
+                                             Repository subRepository)
+    {
+        String groupStorageId = normalize(groupRepository.getStorage().getId());
+        String groupRepositoryId = normalize(groupRepository.getId());
+        String subStorageId = normalize(subRepository.getStorage().getId());
+        String subRepositoryId = normalize(subRepository.getId());
+
+        return memberRoutingRules.computeIfAbsent(groupStorageId + ":" + groupRepositoryId + ">" + subStorageId + ":" + subRepositoryId,
+                                                  k -> compile(groupStorageId, groupRepositoryId, subStorageId,
+                                                               subRepositoryId));
+    }
+
+    private MemberRoutingRules compile(String groupStorageId,
+                                       String groupRepositoryId,
+                                       String subStorageId,
+                                       String subRepositoryId)
+    {
+        List<RoutingRule> denied = new ArrayList<>();
+        List<RoutingRule> accepted = new ArrayList<>();
+        for (String groupKey : candidateKeys(groupStorageId, groupRepositoryId))
+        {
+            for (IndexedRule indexedRule : rulesByGroupRepository.getOrDefault(groupKey, Collections.emptyList()))
+            {
+                if (!indexedRule.appliesTo(subStorageId, subRepositoryId))
+                {
+                    continue;
+                }
+
+                if (indexedRule.rule.isDeny())
+                {
+                    denied.add(indexedRule.rule);
+                }
+                else if (indexedRule.rule.isAccept())
+                {
+                    accepted.add(indexedRule.rule);
+                }
+            }
+        }
+
+        return new MemberRoutingRules(RulesMatcher.of(denied), RulesMatcher.of(accepted));
+    }
+
+    private static Set<String> candidateKeys(String storageId,
+                                             String repositoryId)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(storageId + ":" + repositoryId);
+        result.add(storageId + ":" + WILDCARD);
+        result.add(WILDCARD + ":" + repositoryId);
+        result.add(WILDCARD + ":" + WILDCARD);
+
+        return result;
+    }
+
+    private static String toKey(RepositoryIdentifiable identifiable)
+    {
+        String storageId = normalize(identifiable.getStorageId());
+        String repositoryId = normalize(identifiable.getRepositoryId());
+
+        return storageId + ":" + repositoryId;
+    }
+
+    private static String normalize(String value)
+    {
+        return StringUtils.trimToEmpty(value).toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexedRule
+    {
+
+        private final RoutingRule rule;
+
+        /**
+         * Empty means that the rule is applied to **all** the repositories in the group.
+         */
+        private final Set<String> repositoryKeys;
+
+        private IndexedRule(RoutingRule rule)
+        {
+            this.rule = rule;
+            this.repositoryKeys = rule.getRepositories()
+                                      .stream()
+                                      .map(CompiledRoutingRules::toKey)
+                                      .collect(Collectors.toSet());
+        }
+
+        private boolean appliesTo(String storageId,
+                                  String repositoryId)
+        {
+            if (repositoryKeys.isEmpty())
+            {
+                return true;
+            }
+
+            for (String candidateKey : candidateKeys(storageId, repositoryId))
+            {
+                if (repositoryKeys.contains(candidateKey))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+    static class MemberRoutingRules
+    {
+
+        private final RulesMatcher denied;
+
+        private final RulesMatcher accepted;
+
+        private MemberRoutingRules(RulesMatcher denied,
+                                   RulesMatcher accepted)
+        {
+            this.denied = denied;
+            this.accepted = accepted;
+        }
+
+        boolean hasDenyRules()
+        {
+            return !denied.isEmpty();
+        }
+
+        boolean isDenied(String artifactPath)
+        {
+            return denied.matches(artifactPath) && !accepted.matches(artifactPath);
+        }
+
+    }
+
+    private static class RulesMatcher
+    {
+
+        private static final RulesMatcher EMPTY = new RulesMatcher(Collections.emptyList());
+
+        private final List<Pattern> patterns;
+
+        private RulesMatcher(List<Pattern> patterns)
+        {
+            this.patterns = patterns;
+        }
+
+        private static RulesMatcher of(List<RoutingRule> rules)
+        {
+            if (rules.isEmpty())
+            {
+                return EMPTY;
+            }
+
+            Set<String> distinctPatterns = rules.stream()
+                                                .map(RoutingRule::getPattern)
+                                                .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (distinctPatterns.size() > 1 && distinctPatterns.stream().noneMatch(p -> BACK_REFERENCE.matcher(p).find()))
+            {
+                String combinedPattern = distinctPatterns.stream()
+                                                         .map(p -> "(?:" + p + ")")
+                                                         .collect(Collectors.joining("|"));
+                try
+                {
+                    return new RulesMatcher(Collections.singletonList(Pattern.compile(combinedPattern)));
+                }
+                catch (PatternSyntaxException e)
+                {
+                    // Some patterns can't be combined (e.g. with comments), so they will be matched one by one.
+                }
+            }
+
+            return new RulesMatcher(rules.stream()
+                                         .map(RoutingRule::getRegex)
+                                         .distinct()
+                                         .collect(Collectors.toList()));
+        }
+
+        private boolean isEmpty()
+        {
+            return patterns.isEmpty();
+        }
+
+        private boolean matches(String artifactPath)
+        {
+            for (Pattern pattern : patterns)
+            {
+                if (pattern.matcher(artifactPath).matches())
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the checksum values of stored artifacts in memory, so that they don't need to be read from the checksum files
+ * on every download.
+ * <p>
+ * Entries are keyed by the artifact path and hold the checksum values by digest algorithm. The cache is bounded by
+ * the approximate amount of memory the entries take, and the entries are invalidated by the storage on every write
+ * or delete of the artifact or its checksum files (see {@link #invalidate(RepositoryPath)}). Entries also expire
+ * after the configured time, this way the files changed outside of this instance (e.g. by other cluster nodes on a
+ * shared storage) will be picked up eventually.
+ *
+ * @see ChecksumCacheManager
+ */
+@Component
+public class ChecksumValueCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumValueCache.class);
+
+    /**
+     * Approximate number of bytes which the entry and map overhead takes, in addition to the key and values.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    @Value("${strongbox.checksum.valueCache.maxSizeBytes:16777216}")
+    private long maxSizeBytes;
+
+    @Value("${strongbox.checksum.valueCache.expireAfterWriteSeconds:3600}")
+    private long expireAfterWriteSeconds;
+
+    private Cache<String, Map<String, String>> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = CacheBuilder.newBuilder()
+                            .maximumWeight(maxSizeBytes)
+                            .weigher(ChecksumValueCache::weigh)
+                            .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                            .build();
+
+        logger.info("Checksum values cache will keep up to [{}] bytes for [{}] seconds.",
+                    maxSizeBytes, expireAfterWriteSeconds);
+    }
+
+    /**
+     * Returns the checksum values of the artifact, by digest algorithm, loading them with the given loader if they
+     * were not cached yet.
+     */
+    public Map<String, String> get(RepositoryPath artifactPath,
+                                   ChecksumValueLoader loader)
+            throws IOException
+    {
+        try
+        {
+            return cache.get(getKey(artifactPath), () -> Collections.unmodifiableMap(new HashMap<>(loader.load())));
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public void put(RepositoryPath artifactPath,
+                    Map<String, String> checksums)
+            throws IOException
+    {
+        cache.put(getKey(artifactPath), Collections.unmodifiableMap(new HashMap<>(checksums)));
+    }
+
+    /**
+     * Invalidates the cached values of the given file, which can be either an artifact or one of its checksum files.
+     */
+    public void invalidate(RepositoryPath path)
+            throws IOException
+    {
+        String key = getKey(path);
+
+        cache.invalidate(key);
+
+        // The path can be a checksum file, so the artifact path is the one without the checksum extension.
+        int extensionIndex = key.lastIndexOf('.');
+        if (extensionIndex > key.lastIndexOf('/') && extensionIndex > key.lastIndexOf(':'))
+        {
+            cache.invalidate(key.substring(0, extensionIndex));
+        }
+    }
+
+    /**
+     * Invalidates the cached values of all the artifacts within the given directory.
+     */
+    public void invalidateDirectory(RepositoryPath path)
+            throws IOException
+    {
+        String key = getKey(path);
+        String prefix = key.endsWith(":") ? key : key + "/";
+
+        cache.asMap().keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    public long size()
+    {
+        return cache.size();
+    }
+
+    private String getKey(RepositoryPath path)
+            throws IOException
+    {
+        Repository repository = path.getRepository();
+
+        return String.format("%s:%s:%s",
+                             repository.getStorage().getId(),
+                             repository.getId(),
+                             RepositoryFiles.relativizePath(path));
+    }
+
+    private static int weigh(String key,
+                             Map<String, String> checksums)
+    {
+        int result = ENTRY_OVERHEAD + key.length() * 2;
+        for (Map.Entry<String, String> entry : checksums.entrySet())
+        {
+            result += ENTRY_OVERHEAD + (entry.getKey().length() + entry.getValue().length()) * 2;
+        }
+
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface ChecksumValueLoader
+    {
+
+        Map<String, String> load()
+                throws IOException;
+
+    }
+
+}
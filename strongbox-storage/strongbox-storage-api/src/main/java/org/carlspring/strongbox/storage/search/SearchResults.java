@@ -3,6 +3,7 @@ package org.carlspring.strongbox.storage.search;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
@@ -16,6 +17,12 @@ public class SearchResults
     @JsonProperty("artifact")
     private Set<SearchResult> results = new LinkedHashSet<>();
 
+    /**
+     * The continuation token of the next keyset page, if there may be one.
+     */
+    @JsonProperty("cursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String cursor;
 
     public SearchResults()
     {
@@ -31,6 +38,16 @@ public class SearchResults
         this.results = results;
     }
 
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public void setCursor(String cursor)
+    {
+        this.cursor = cursor;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,203 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArtifactDownloadStatisticsWriterTest
+{
+
+    private static final String STORAGE = "storage0";
+
+    private static final String REPOSITORY = "releases";
+
+    private static final String BROKEN_PATH = "broken/1.0/broken-1.0.jar";
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ArtifactDownloadStatisticsWriter artifactDownloadStatisticsWriter;
+
+    /**
+     * The committed download counts of the artifact entries.
+     */
+    private final Map<String, Integer> downloadCounts = new HashMap<>();
+
+    private final Map<String, Integer> transactionDownloadCounts = new HashMap<>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        ReflectionTestUtils.setField(artifactDownloadStatisticsWriter, "flushIntervalMillis", 3600000L);
+        ReflectionTestUtils.setField(artifactDownloadStatisticsWriter, "batchSize", 2);
+        ReflectionTestUtils.setField(artifactDownloadStatisticsWriter, "maxAttempts", 3);
+        ReflectionTestUtils.setField(artifactDownloadStatisticsWriter, "maxPending", 10);
+
+        // Every read gets a fresh record, as it would after the rollback of a failed transaction.
+        when(artifactEntryService.findOneArtifact(eq(STORAGE), eq(REPOSITORY), anyString())).thenAnswer(i -> {
+            ArtifactEntry artifactEntry = new ArtifactEntry();
+            artifactEntry.setStorageId(STORAGE);
+            artifactEntry.setRepositoryId(REPOSITORY);
+            artifactEntry.setArtifactPath(i.getArgument(2));
+            artifactEntry.setDownloadCount(downloadCounts.getOrDefault(i.<String>getArgument(2), 0));
+
+            return artifactEntry;
+        });
+        when(artifactEntryService.save(any(ArtifactEntry.class))).thenAnswer(i -> {
+            ArtifactEntry artifactEntry = i.getArgument(0);
+            if (BROKEN_PATH.equals(artifactEntry.getArtifactPath()))
+            {
+                throw new IllegalStateException(BROKEN_PATH);
+            }
+            transactionDownloadCounts.put(artifactEntry.getArtifactPath(), artifactEntry.getDownloadCount());
+
+            return artifactEntry;
+        });
+
+        when(transactionManager.getTransaction(any())).thenReturn(Mockito.mock(TransactionStatus.class));
+        doAnswer(i -> {
+            downloadCounts.putAll(transactionDownloadCounts);
+            transactionDownloadCounts.clear();
+
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(i -> {
+            transactionDownloadCounts.clear();
+
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        artifactDownloadStatisticsWriter.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws InterruptedException
+    {
+        artifactDownloadStatisticsWriter.destroy();
+    }
+
+    @Test
+    public void testDownloadsAreSummedPerArtifact()
+    {
+        recordDownloads("a/1.0/a-1.0.jar", 3);
+        recordDownloads("b/1.0/b-1.0.jar", 1);
+
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isEqualTo(2);
+
+        artifactDownloadStatisticsWriter.flush();
+
+        // Every artifact is saved once, with all its downloads.
+        verify(artifactEntryService, times(2)).save(any(ArtifactEntry.class));
+        assertThat(downloadCounts).containsEntry("a/1.0/a-1.0.jar", 3)
+                                  .containsEntry("b/1.0/b-1.0.jar", 1);
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void testStatisticsAreWrittenInBatches()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            recordDownloads(String.format("c/%d/c-%d.jar", i, i), 1);
+        }
+
+        artifactDownloadStatisticsWriter.flush();
+
+        verify(transactionManager, times(3)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        assertThat(downloadCounts).hasSize(5);
+    }
+
+    @Test
+    public void testDestroyFlushesPendingStatistics()
+        throws InterruptedException
+    {
+        recordDownloads("d/1.0/d-1.0.jar", 2);
+
+        artifactDownloadStatisticsWriter.destroy();
+
+        assertThat(downloadCounts).containsEntry("d/1.0/d-1.0.jar", 2);
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void testFailingEntryDoesNotBlockTheRest()
+    {
+        recordDownloads(BROKEN_PATH, 1);
+        recordDownloads("e/1.0/e-1.0.jar", 1);
+
+        artifactDownloadStatisticsWriter.flush();
+
+        // The batch failed, then every entry was written on its own and only the broken one failed again.
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+        assertThat(downloadCounts).containsOnlyKeys("e/1.0/e-1.0.jar")
+                                  .containsEntry("e/1.0/e-1.0.jar", 1);
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isEqualTo(1);
+
+        // The broken entry is retried with the next flushes, and dropped once it has failed three times.
+        artifactDownloadStatisticsWriter.flush();
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isEqualTo(1);
+
+        artifactDownloadStatisticsWriter.flush();
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isZero();
+    }
+
+    @Test
+    public void testPendingStatisticsAreBounded()
+    {
+        for (int i = 0; i < 15; i++)
+        {
+            recordDownloads(String.format("f/%d/f-%d.jar", i, i), 1);
+        }
+
+        // The downloads of the artifacts which are waiting already are still counted.
+        recordDownloads("f/0/f-0.jar", 1);
+
+        assertThat(artifactDownloadStatisticsWriter.getPendingCount()).isEqualTo(10);
+
+        artifactDownloadStatisticsWriter.flush();
+
+        assertThat(downloadCounts).hasSize(10)
+                                  .containsEntry("f/0/f-0.jar", 2);
+    }
+
+    private void recordDownloads(String path,
+                                 int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            artifactDownloadStatisticsWriter.recordDownload(STORAGE, REPOSITORY, path);
+        }
+    }
+
+}
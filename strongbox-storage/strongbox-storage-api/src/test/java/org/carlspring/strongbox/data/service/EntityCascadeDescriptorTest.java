@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.data.service;
+
+import org.carlspring.strongbox.data.service.EntityCascadeDescriptor.CascadeField;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactGroupEntry;
+import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EntityCascadeDescriptorTest
+{
+
+    @Test
+    public void testOnlySaveCascadedFieldsAreDescribed()
+    {
+        // The `lastVersionEntries` are only detached and refreshed together with the group.
+        assertThat(EntityCascadeDescriptor.of(ArtifactGroupEntry.class).getFields())
+                .extracting(CascadeField::getName)
+                .containsExactly("artifactEntries");
+
+        // The tags have no cascade at all.
+        assertThat(EntityCascadeDescriptor.of(ArtifactEntry.class).getFields())
+                .extracting(CascadeField::getName)
+                .containsExactly("artifactCoordinates");
+
+        assertThat(EntityCascadeDescriptor.of(ArtifactTagEntry.class).getFields()).isEmpty();
+    }
+
+    @Test
+    public void testInheritedFieldsAreDescribed()
+    {
+        assertThat(EntityCascadeDescriptor.of(RepositoryArtifactIdGroupEntry.class).getFields())
+                .extracting(CascadeField::getName)
+                .containsExactly("artifactEntries");
+    }
+
+    @Test
+    public void testDescriptorIsComputedOncePerClass()
+    {
+        assertThat(EntityCascadeDescriptor.of(ArtifactGroupEntry.class)).isSameAs(EntityCascadeDescriptor.of(ArtifactGroupEntry.class));
+    }
+
+    @Test
+    public void testFieldsAreReadAndWritten()
+    {
+        ArtifactGroupEntry artifactGroupEntry = new ArtifactGroupEntry("group");
+        CascadeField field = EntityCascadeDescriptor.of(ArtifactGroupEntry.class).getFields().get(0);
+
+        assertThat(field.isCollection()).isTrue();
+        assertThat(field.get(artifactGroupEntry)).isSameAs(artifactGroupEntry.getArtifactEntries());
+
+        HashSet<ArtifactEntry> artifactEntries = new HashSet<>();
+        field.set(artifactGroupEntry, artifactEntries);
+
+        assertThat(artifactGroupEntry.getArtifactEntries()).isSameAs(artifactEntries);
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.carlspring.strongbox.data.service;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.services.ArtifactTagService;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks when {@link CommonCrudService} remembers the record ids it found by `uuid`, and when it forgets them.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public class EntityIdentityMapTest
+{
+
+    @Inject
+    private ArtifactTagService artifactTagService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private CommonCrudService<ArtifactTagEntry> artifactTagCrudService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private String uuid;
+
+    private String objectId;
+
+    @BeforeEach
+    public void setUp()
+    {
+        artifactTagCrudService = AopTestUtils.getUltimateTargetObject(artifactTagService);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        uuid = UUID.randomUUID().toString();
+
+        ArtifactTagEntry artifactTagEntry = createArtifactTagEntry(uuid);
+        artifactTagEntry.setName("eimt-" + uuid);
+        artifactTagService.save(artifactTagEntry);
+
+        objectId = transactionTemplate.execute(status -> {
+            ArtifactTagEntry result = createArtifactTagEntry(uuid);
+            artifactTagCrudService.identifyEntity(result);
+
+            return result.getObjectId();
+        });
+        assertThat(objectId).isNotNull();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        transactionTemplate.execute(status -> {
+            artifactTagService.findOne(objectId).ifPresent(artifactTagService::delete);
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testSecondLookupInTransactionSkipsTheQuery()
+    {
+        transactionTemplate.execute(status -> {
+            ArtifactTagEntry first = createArtifactTagEntry(uuid);
+
+            assertThat(artifactTagCrudService.identifyEntity(first)).isTrue();
+            assertThat(first.getObjectId()).isEqualTo(objectId);
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isEqualTo(objectId);
+
+            // There is no such record, so the entity can only be identified without querying the database.
+            String unknownUuid = UUID.randomUUID().toString();
+            EntityIdentityMap.put(ArtifactTagEntry.class, unknownUuid, objectId);
+
+            ArtifactTagEntry second = createArtifactTagEntry(unknownUuid);
+
+            assertThat(artifactTagCrudService.identifyEntity(second)).isTrue();
+            assertThat(second.getObjectId()).isEqualTo(objectId);
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testIdentitiesAreForgottenWithTheTransaction()
+    {
+        transactionTemplate.execute(status -> artifactTagCrudService.identifyEntity(createArtifactTagEntry(uuid)));
+
+        transactionTemplate.execute(status -> {
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testNothingIsRememberedOutsideOfTransaction()
+    {
+        EntityIdentityMap.put(ArtifactTagEntry.class, uuid, objectId);
+
+        assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+    }
+
+    @Test
+    public void testTemporaryRecordIdsAreNotRemembered()
+    {
+        transactionTemplate.execute(status -> {
+            String uuid = UUID.randomUUID().toString();
+            EntityIdentityMap.put(ArtifactTagEntry.class, uuid, "#-1:-2");
+
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testDeleteEntityForgetsIdentity()
+    {
+        transactionTemplate.execute(status -> {
+            rememberIdentity();
+
+            artifactTagService.delete(artifactTagService.findOne(objectId).get());
+
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testDeleteEntityListForgetsIdentities()
+    {
+        transactionTemplate.execute(status -> {
+            rememberIdentity();
+
+            artifactTagService.delete(Collections.singletonList(createArtifactTagEntry(uuid)));
+
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+
+            return null;
+        });
+    }
+
+    @Test
+    public void testDeleteByIdForgetsIdentities()
+    {
+        transactionTemplate.execute(status -> {
+            rememberIdentity();
+
+            artifactTagService.delete(objectId);
+
+            assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNull();
+
+            return null;
+        });
+    }
+
+    private void rememberIdentity()
+    {
+        assertThat(artifactTagCrudService.identifyEntity(createArtifactTagEntry(uuid))).isTrue();
+        assertThat(EntityIdentityMap.get(ArtifactTagEntry.class, uuid)).isNotNull();
+    }
+
+    private ArtifactTagEntry createArtifactTagEntry(String uuid)
+    {
+        ArtifactTagEntry result = new ArtifactTagEntry();
+        result.setUuid(uuid);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache.RepositoryFileAttributesLoader;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.RawRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public class RepositoryFileAttributesCacheTest
+{
+
+    private static final String REPOSITORY_RELEASES_1 = "rfac-releases-1";
+
+    private static final String REPOSITORY_RELEASES_2 = "rfac-releases-2";
+
+    private static final String REPOSITORY_RELEASES_3 = "rfac-releases-3";
+
+    private static final RepositoryFileAttributeType[] ARTIFACT = { RepositoryFileAttributeType.ARTIFACT };
+
+    private static final RepositoryFileAttributeType[] COORDINATES = { RepositoryFileAttributeType.COORDINATES };
+
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ConfigurationManagementService configurationManagementService;
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testAttributesAreCached(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                        Repository repository)
+            throws IOException
+    {
+        RepositoryPath path = repositoryPathResolver.resolve(repository, "a/1.0/a-1.0.jar");
+        CountingLoader loader = new CountingLoader();
+
+        assertThat(repositoryFileAttributesCache.get(path, ARTIFACT, loader))
+                .containsEntry(RepositoryFileAttributeType.ARTIFACT, Boolean.TRUE);
+        assertThat(repositoryFileAttributesCache.get(path, ARTIFACT, loader))
+                .containsEntry(RepositoryFileAttributeType.ARTIFACT, Boolean.TRUE);
+        assertThat(loader.count.get()).isEqualTo(1);
+
+        repositoryFileAttributesCache.invalidate(path);
+
+        repositoryFileAttributesCache.get(path, ARTIFACT, loader);
+        assertThat(loader.count.get()).isEqualTo(2);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testCoordinatesAreNotShared(@RawRepository(repositoryId = REPOSITORY_RELEASES_2)
+                                            Repository repository)
+            throws IOException
+    {
+        RepositoryPath path = repositoryPathResolver.resolve(repository, "a/1.0/a-1.0.jar");
+        CountingLoader loader = new CountingLoader();
+
+        Object coordinates1 = repositoryFileAttributesCache.get(path, COORDINATES, loader)
+                                                           .get(RepositoryFileAttributeType.COORDINATES);
+        Object coordinates2 = repositoryFileAttributesCache.get(path, COORDINATES, loader)
+                                                           .get(RepositoryFileAttributeType.COORDINATES);
+
+        assertThat(coordinates1).isEqualTo(coordinates2).isNotSameAs(coordinates2);
+        assertThat(loader.count.get()).isEqualTo(2);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConfigurationChangeInvalidatesAttributes(@RawRepository(repositoryId = REPOSITORY_RELEASES_3)
+                                                             Repository repository)
+            throws IOException
+    {
+        RepositoryPath path = repositoryPathResolver.resolve(repository, "a/1.0/a-1.0.jar");
+        CountingLoader loader = new CountingLoader();
+
+        repositoryFileAttributesCache.get(path, ARTIFACT, loader);
+        assertThat(loader.count.get()).isEqualTo(1);
+
+        configurationManagementService.putInService(repository.getStorage().getId(), repository.getId());
+
+        repositoryFileAttributesCache.get(path, ARTIFACT, loader);
+        assertThat(loader.count.get()).isEqualTo(2);
+    }
+
+    private static class CountingLoader
+            implements RepositoryFileAttributesLoader
+    {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Map<RepositoryFileAttributeType, Object> load(RepositoryPath path,
+                                                             RepositoryFileAttributeType... attributeTypes)
+        {
+            count.incrementAndGet();
+
+            Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+            for (RepositoryFileAttributeType attributeType : attributeTypes)
+            {
+                switch (attributeType)
+                {
+                    case ARTIFACT:
+                        result.put(attributeType, Boolean.TRUE);
+                        break;
+                    case COORDINATES:
+                        result.put(attributeType, new RawArtifactCoordinates("a/1.0/a-1.0.jar"));
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            return result;
+        }
+
+    }
+
+}
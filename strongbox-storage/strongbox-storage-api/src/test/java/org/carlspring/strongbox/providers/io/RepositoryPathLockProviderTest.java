@@ -0,0 +1,141 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepositoryPathLockProviderTest
+{
+
+    private static final String LOCK_NAME = "org.carlspring:locked-artifact";
+
+    @Test
+    public void testLocalLockIsSharedByName()
+        throws Exception
+    {
+        RepositoryPathLockProvider lockProvider = new LocalRepositoryPathLockProvider();
+
+        Lock writeLock = lockProvider.getLock(LOCK_NAME).writeLock();
+        writeLock.lock();
+        try
+        {
+            assertThat(tryLockInOtherThread(lockProvider.getLock(LOCK_NAME).readLock())).isFalse();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+
+        assertThat(tryLockInOtherThread(lockProvider.getLock(LOCK_NAME).readLock())).isTrue();
+    }
+
+    @Test
+    public void testLocalLocksOfDistinctNamesNeverBlockEachOther()
+        throws Exception
+    {
+        RepositoryPathLockProvider lockProvider = new LocalRepositoryPathLockProvider();
+
+        // Enough names that some of them would share a stripe of a striped lock.
+        List<Lock> writeLocks = IntStream.range(0, 1000)
+                                         .mapToObj(i -> lockProvider.getLock(LOCK_NAME + ":" + i).writeLock())
+                                         .collect(Collectors.toList());
+        writeLocks.forEach(Lock::lock);
+        try
+        {
+            // Like a helper thread which takes the artifact entry lock while its caller holds the path locks.
+            boolean locked = CompletableFuture.supplyAsync(() -> IntStream.range(0, 1000).allMatch(i -> {
+                Lock lock = lockProvider.getLock(LOCK_NAME + ":" + i + "?ArtifactEntry").writeLock();
+                if (!lock.tryLock())
+                {
+                    return false;
+                }
+                lock.unlock();
+
+                return true;
+            })).get(5, TimeUnit.SECONDS);
+
+            assertThat(locked).isTrue();
+        }
+        finally
+        {
+            writeLocks.forEach(Lock::unlock);
+        }
+    }
+
+    @Test
+    public void testLocalLockIsKeptWhileHeld()
+        throws Exception
+    {
+        RepositoryPathLockProvider lockProvider = new LocalRepositoryPathLockProvider();
+
+        Lock writeLock = lockProvider.getLock(LOCK_NAME).writeLock();
+        writeLock.lock();
+        try
+        {
+            // Only the write lock is referenced, the lock of the name must not be replaced with a new one.
+            System.gc();
+
+            assertThat(tryLockInOtherThread(lockProvider.getLock(LOCK_NAME).readLock())).isFalse();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    public void testLocalReadDistributedWriteLock()
+        throws Exception
+    {
+        RepositoryPathLockProvider distributedLockProvider = new LocalRepositoryPathLockProvider();
+        RepositoryPathLockProvider lockProvider = new LocalReadDistributedWriteRepositoryPathLockProvider(new LocalRepositoryPathLockProvider(),
+                                                                                                           distributedLockProvider);
+
+        ReadWriteLock lock = lockProvider.getLock(LOCK_NAME);
+
+        lock.writeLock().lock();
+        try
+        {
+            assertThat(tryLockInOtherThread(lockProvider.getLock(LOCK_NAME).readLock())).isFalse();
+            assertThat(tryLockInOtherThread(distributedLockProvider.getLock(LOCK_NAME).writeLock())).isFalse();
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+
+        lock.readLock().lock();
+        try
+        {
+            // Reads are not coordinated within the cluster.
+            assertThat(tryLockInOtherThread(distributedLockProvider.getLock(LOCK_NAME).writeLock())).isTrue();
+            assertThat(tryLockInOtherThread(lockProvider.getLock(LOCK_NAME).writeLock())).isFalse();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean tryLockInOtherThread(Lock lock)
+        throws Exception
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean locked = lock.tryLock();
+            if (locked)
+            {
+                lock.unlock();
+            }
+
+            return locked;
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+}
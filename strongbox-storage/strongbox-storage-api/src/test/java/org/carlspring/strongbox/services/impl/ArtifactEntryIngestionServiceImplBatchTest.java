@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryIngestionService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.RawRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batches are small, so that the entries are ingested in several batches, and the test has its own context, as it
+ * counts the transactions of the service.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+@TestPropertySource(properties = "strongbox.artifact.ingestion.batchSize=10")
+public class ArtifactEntryIngestionServiceImplBatchTest
+{
+
+    private static final String REPOSITORY_RELEASES = "aeisibt-releases";
+
+    @Inject
+    private ArtifactEntryIngestionService artifactEntryIngestionService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testBatchIsStoredInOneTransaction(@RawRepository(repositoryId = REPOSITORY_RELEASES)
+                                                  Repository repository)
+    {
+        Object target = AopTestUtils.getUltimateTargetObject(artifactEntryIngestionService);
+        CommitCountingTransactionManager countingTransactionManager = new CommitCountingTransactionManager(transactionManager);
+
+        ReflectionTestUtils.setField(target, "transactionManager", countingTransactionManager);
+        try
+        {
+            // Every raw artifact is a group of its own.
+            ArtifactEntryIngestionResult result = artifactEntryIngestionService.ingest(repository,
+                                                                                       IntStream.range(0, 25)
+                                                                                                .mapToObj(i -> createArtifactEntry(repository, "c/" + i + "/c.jar")));
+
+            assertThat(result.getStoredCount()).isEqualTo(25);
+            assertThat(result.getFailures()).isEmpty();
+            assertThat(countingTransactionManager.commits.get()).isEqualTo(3);
+        }
+        finally
+        {
+            ReflectionTestUtils.setField(target, "transactionManager", transactionManager);
+        }
+
+        assertThat(artifactEntryService.artifactExists(repository.getStorage().getId(),
+                                                       repository.getId(),
+                                                       "c/24/c.jar")).isTrue();
+    }
+
+    private ArtifactEntry createArtifactEntry(Repository repository,
+                                              String path)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(repository.getStorage().getId());
+        artifactEntry.setRepositoryId(repository.getId());
+        artifactEntry.setArtifactCoordinates(new RawArtifactCoordinates(path));
+
+        return artifactEntry;
+    }
+
+    private static class CommitCountingTransactionManager
+            implements PlatformTransactionManager
+    {
+
+        private final PlatformTransactionManager delegate;
+
+        private final AtomicInteger commits = new AtomicInteger();
+
+        private CommitCountingTransactionManager(PlatformTransactionManager delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition)
+        {
+            return delegate.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status)
+        {
+            commits.incrementAndGet();
+            delegate.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status)
+        {
+            delegate.rollback(status);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryIngestionService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.RawRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public class ArtifactEntryIngestionServiceImplTest
+{
+
+    private static final String REPOSITORY_RELEASES_1 = "aeisi-releases-1";
+
+    private static final String REPOSITORY_RELEASES_2 = "aeisi-releases-2";
+
+    @Inject
+    private ArtifactEntryIngestionService artifactEntryIngestionService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testIngest(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                           Repository repository)
+    {
+        ArtifactEntry withoutCoordinates = new ArtifactEntry();
+        withoutCoordinates.setStorageId(repository.getStorage().getId());
+        withoutCoordinates.setRepositoryId(repository.getId());
+
+        ArtifactEntryIngestionResult result = artifactEntryIngestionService.ingest(repository,
+                                                                                   Stream.of(createArtifactEntry(repository, "a/1.0/a-1.0.jar"),
+                                                                                             createArtifactEntry(repository, "a/1.1/a-1.1.jar"),
+                                                                                             createArtifactEntry(repository, "a/1.0/a-1.0.jar"),
+                                                                                             withoutCoordinates));
+
+        assertThat(result.getStoredCount()).isEqualTo(2);
+        assertThat(result.getSkippedCount()).isEqualTo(1);
+        assertThat(result.getFailures()).hasSize(1);
+
+        assertThat(artifactEntryService.artifactExists(repository.getStorage().getId(),
+                                                       repository.getId(),
+                                                       "a/1.1/a-1.1.jar")).isTrue();
+
+        // The entries which were stored already are skipped.
+        result = artifactEntryIngestionService.ingest(repository,
+                                                      Stream.of(createArtifactEntry(repository, "a/1.0/a-1.0.jar"),
+                                                                createArtifactEntry(repository, "a/1.2/a-1.2.jar")));
+
+        assertThat(result.getStoredCount()).isEqualTo(1);
+        assertThat(result.getSkippedCount()).isEqualTo(1);
+        assertThat(result.getFailures()).isEmpty();
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConcurrentIngest(@RawRepository(repositoryId = REPOSITORY_RELEASES_2)
+                                     Repository repository)
+            throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try
+        {
+            // The two runs overlap and read the entries in the opposite orders.
+            Future<ArtifactEntryIngestionResult> result1 = executorService.submit(
+                    () -> artifactEntryIngestionService.ingest(repository,
+                                                               IntStream.range(0, 300)
+                                                                        .mapToObj(i -> createArtifactEntry(repository, "b/" + i + "/b.jar"))));
+            Future<ArtifactEntryIngestionResult> result2 = executorService.submit(
+                    () -> artifactEntryIngestionService.ingest(repository,
+                                                               IntStream.range(0, 300)
+                                                                        .map(i -> 399 - i)
+                                                                        .mapToObj(i -> createArtifactEntry(repository, "b/" + i + "/b.jar"))));
+
+            ArtifactEntryIngestionResult r1 = result1.get(60, TimeUnit.SECONDS);
+            ArtifactEntryIngestionResult r2 = result2.get(60, TimeUnit.SECONDS);
+
+            assertThat(r1.getFailures()).isEmpty();
+            assertThat(r2.getFailures()).isEmpty();
+            assertThat(r1.getStoredCount() + r2.getStoredCount()).isEqualTo(400);
+            assertThat(r1.getSkippedCount() + r2.getSkippedCount()).isEqualTo(200);
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    private ArtifactEntry createArtifactEntry(Repository repository,
+                                              String path)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(repository.getStorage().getId());
+        artifactEntry.setRepositoryId(repository.getId());
+        artifactEntry.setArtifactCoordinates(new RawArtifactCoordinates(path));
+
+        return artifactEntry;
+    }
+
+}
@@ -12,13 +12,16 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import javax.inject.Inject;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.DateUtils;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +33,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.util.AopTestUtils;
 import org.springframework.util.CollectionUtils;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
@@ -364,6 +368,45 @@ public class ArtifactEntryServiceTest
         assertThat(c).isEqualTo(Long.valueOf(1));
     }
 
+    /**
+     * Make sure that the pages of a search are returned by the same query text, with the page passed as parameters.
+     */
+    @Test
+    public void searchByPagesShouldReuseQuery(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        RawArtifactCoordinates coordinates = new RawArtifactCoordinates(groupId);
+
+        List<ArtifactEntry> page1 = artifactEntryService.findArtifactList(STORAGE_ID, REPOSITORY_ID,
+                                                                          coordinates.getCoordinates(),
+                                                                          Collections.emptySet(), 0, 2, null, false);
+        List<ArtifactEntry> page2 = artifactEntryService.findArtifactList(STORAGE_ID, REPOSITORY_ID,
+                                                                          coordinates.getCoordinates(),
+                                                                          Collections.emptySet(), 2, 2, null, false);
+
+        assertThat(page1).hasSize(2);
+        assertThat(page2).hasSize(1);
+        assertThat(page1.stream().map(ArtifactEntry::getUuid)).doesNotContain(page2.get(0).getUuid());
+
+        ArtifactEntryServiceImpl artifactEntryServiceImpl = AopTestUtils.getUltimateTargetObject(artifactEntryService);
+        List<Pair<String, String>> storageRepositoryPairList = artifactEntryServiceImpl.toList(STORAGE_ID,
+                                                                                               REPOSITORY_ID);
+        Set<String> parameterNameSet = coordinates.getCoordinates().keySet();
+
+        String query1 = artifactEntryServiceImpl.getCoordinatesQuery("*", storageRepositoryPairList, parameterNameSet,
+                                                                     Collections.emptySet(), 0, 2, "uuid", false);
+        String query2 = artifactEntryServiceImpl.getCoordinatesQuery("*", storageRepositoryPairList, parameterNameSet,
+                                                                     Collections.emptySet(), 2, 2, "uuid", false);
+        String query3 = artifactEntryServiceImpl.getCoordinatesQuery("*", storageRepositoryPairList, parameterNameSet,
+                                                                     Collections.emptySet(), 4, 2, "uuid", false);
+
+        assertThat(query2).contains("SKIP :skip LIMIT :limit");
+        assertThat(query3).isSameAs(query2);
+        // Only whether there is a page to skip changes the query text.
+        assertThat(query1).doesNotContain("SKIP").contains("LIMIT :limit");
+    }
+
     @Test
     public void saveEntityCreationDateShouldBeGeneratedAutomaticallyAndRemainUnchanged(TestInfo testInfo)
     {
@@ -201,6 +201,32 @@ public class ConfigurationManagementServiceImplTest
                 .isEmpty();
     }
 
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testGroupMemberRemovalIsVisibleInConfiguration(@RawRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                               Repository releases1,
+                                                               @Group(repositories = REPOSITORY_RELEASES_1)
+                                                               @RawRepository(repositoryId = REPOSITORY_GROUP_1)
+                                                               Repository releasesGroup1) throws IOException
+    {
+        final String storageId = releases1.getStorage().getId();
+        final String releases1Id = releases1.getId();
+        final String releasesGroup1Id = releasesGroup1.getId();
+
+        assertThat(configurationManagementService.getConfiguration()
+                                                 .getRepository(storageId, releasesGroup1Id)
+                                                 .getGroupRepositories())
+                .contains(releases1Id);
+
+        configurationManagementService.removeRepositoryFromAssociatedGroups(storageId, releases1Id);
+
+        // The removal reads the configuration itself, which must not leave the old configuration cached.
+        assertThat(configurationManagementService.getConfiguration()
+                                                 .getRepository(storageId, releasesGroup1Id)
+                                                 .getGroupRepositories())
+                .doesNotContain(releases1Id);
+    }
+
     @ExtendWith(RepositoryManagementTestExecutionListener.class)
     @Test
     public void testSetProxyRepositoryMaxConnections(@RawRepository(repositoryId = REPOSITORY_RELEASES_2)
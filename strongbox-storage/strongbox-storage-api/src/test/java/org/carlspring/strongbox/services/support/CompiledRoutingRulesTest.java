@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.StorageDto;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompiledRoutingRulesTest
+{
+
+    private final Repository group = repository("storage0", "group-releases");
+
+    private final Repository releases = repository("storage0", "releases");
+
+    private final Repository snapshots = repository("storage0", "snapshots");
+
+    @Test
+    public void testDenyRuleForAllMembers()
+    {
+        CompiledRoutingRules compiledRoutingRules = compile(rule("storage0", "group-releases",
+                                                                 Collections.emptyList(),
+                                                                 ".*(com|org)/carlspring.*",
+                                                                 RoutingRuleTypeEnum.DENY));
+
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/carlspring/foo/1.0/foo-1.0.jar")).isTrue();
+        assertThat(isDenied(compiledRoutingRules, group, snapshots, "com/carlspring/foo/1.0/foo-1.0.jar")).isTrue();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/apache/foo/1.0/foo-1.0.jar")).isFalse();
+        assertThat(isDenied(compiledRoutingRules, repository("storage0", "other-group"), releases,
+                            "org/carlspring/foo/1.0/foo-1.0.jar")).isFalse();
+    }
+
+    @Test
+    public void testWildcardsAndMemberRepositories()
+    {
+        CompiledRoutingRules compiledRoutingRules = compile(rule(" STORAGE0 ", "",
+                                                                 Collections.singletonList(new MutableRoutingRuleRepository("",
+                                                                                                                            "snapshots")),
+                                                                 ".*snapshot.*",
+                                                                 RoutingRuleTypeEnum.DENY),
+                                                            rule("", "",
+                                                                 Collections.emptyList(),
+                                                                 ".*foo.*",
+                                                                 RoutingRuleTypeEnum.DENY));
+
+        assertThat(isDenied(compiledRoutingRules, group, snapshots, "org/carlspring/snapshot/1.0/a.jar")).isTrue();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/carlspring/snapshot/1.0/a.jar")).isFalse();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/carlspring/foo/1.0/a.jar")).isTrue();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/carlspring/bar/1.0/a.jar")).isFalse();
+    }
+
+    @Test
+    public void testAcceptRuleOverridesDenyRule()
+    {
+        CompiledRoutingRules compiledRoutingRules = compile(rule("storage0", "group-releases",
+                                                                 Collections.emptyList(),
+                                                                 ".*",
+                                                                 RoutingRuleTypeEnum.DENY),
+                                                            rule("storage0", "group-releases",
+                                                                 Collections.singletonList(new MutableRoutingRuleRepository("storage0",
+                                                                                                                            "releases")),
+                                                                 ".*(accepted|approved).*",
+                                                                 RoutingRuleTypeEnum.ACCEPT),
+                                                            rule("storage0", "group-releases",
+                                                                 Collections.singletonList(new MutableRoutingRuleRepository("storage0",
+                                                                                                                            "releases")),
+                                                                 ".*(trusted)/\\1.*",
+                                                                 RoutingRuleTypeEnum.ACCEPT));
+
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/accepted/1.0/a.jar")).isFalse();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/approved/1.0/a.jar")).isFalse();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/trusted/trusted/a.jar")).isFalse();
+        assertThat(isDenied(compiledRoutingRules, group, releases, "org/trusted/other/a.jar")).isTrue();
+        assertThat(isDenied(compiledRoutingRules, group, snapshots, "org/accepted/1.0/a.jar")).isTrue();
+    }
+
+    @Test
+    public void testNoRules()
+    {
+        CompiledRoutingRules compiledRoutingRules = new CompiledRoutingRules(null);
+
+        assertThat(compiledRoutingRules.getMemberRoutingRules(group, releases).hasDenyRules()).isFalse();
+    }
+
+    private boolean isDenied(CompiledRoutingRules compiledRoutingRules,
+                             Repository groupRepository,
+                             Repository subRepository,
+                             String artifactPath)
+    {
+        return compiledRoutingRules.getMemberRoutingRules(groupRepository, subRepository).isDenied(artifactPath);
+    }
+
+    private CompiledRoutingRules compile(MutableRoutingRule... rules)
+    {
+        MutableRoutingRules routingRules = new MutableRoutingRules();
+        routingRules.setRules(Arrays.asList(rules));
+
+        return new CompiledRoutingRules(new RoutingRules(routingRules));
+    }
+
+    private MutableRoutingRule rule(String groupStorageId,
+                                    String groupRepositoryId,
+                                    List<MutableRoutingRuleRepository> repositories,
+                                    String pattern,
+                                    RoutingRuleTypeEnum type)
+    {
+        return MutableRoutingRule.create(groupStorageId, groupRepositoryId, repositories, pattern, type);
+    }
+
+    private static Repository repository(String storageId,
+                                         String repositoryId)
+    {
+        StorageDto storage = new StorageDto();
+        storage.setId(storageId);
+
+        RepositoryDto repository = new RepositoryDto();
+        repository.setStorage(storage);
+        repository.setId(repositoryId);
+
+        return new RepositoryData(repository);
+    }
+
+}
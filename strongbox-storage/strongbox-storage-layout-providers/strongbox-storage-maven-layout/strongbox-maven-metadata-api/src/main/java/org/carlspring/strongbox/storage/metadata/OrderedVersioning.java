@@ -0,0 +1,220 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.storage.metadata.maven.comparators.SnapshotVersionComparator;
+import org.carlspring.strongbox.storage.metadata.maven.comparators.VersionComparator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+
+/**
+ * Maintains the `versions` and `snapshotVersions` of a {@link Versioning} in the order in which they are written to
+ * the `maven-metadata.xml`, so that single versions can be added with a binary search and whole lists can be merged
+ * with a single pass, instead of appending and re-sorting the lists for every deployed artifact.
+ *
+ * @see org.carlspring.strongbox.storage.metadata.maven.comparators.VersionComparator
+ * @see org.carlspring.strongbox.storage.metadata.maven.comparators.SnapshotVersionComparator
+ */
+public class OrderedVersioning
+{
+
+    private static final Comparator<String> VERSION_COMPARATOR = new VersionComparator();
+
+    private static final Comparator<SnapshotVersion> SNAPSHOT_VERSION_COMPARATOR = new SnapshotVersionComparator();
+
+
+    private OrderedVersioning()
+    {
+    }
+
+    /**
+     * Inserts the version at its position in the (already ordered) versions.
+     *
+     * @return {@code false} if the version already exists
+     */
+    public static boolean addVersion(Versioning versioning,
+                                     String version)
+    {
+        List<String> versions = versioning.getVersions();
+        if (versions.contains(version))
+        {
+            return false;
+        }
+
+        int position = Collections.binarySearch(versions, version, VERSION_COMPARATOR);
+        versions.add(position < 0 ? -position - 1 : position + 1, version);
+
+        return true;
+    }
+
+    /**
+     * Merges the versions into the versions of the versioning, keeping them ordered and unique. This is a single
+     * pass over both of the lists, if they are already ordered.
+     */
+    public static void mergeVersions(Versioning versioning,
+                                     List<String> mergeVersions)
+    {
+        if (mergeVersions == null)
+        {
+            mergeVersions = Collections.emptyList();
+        }
+
+        List<String> versions = versioning.getVersions();
+        if (versions.isEmpty() && isOrdered(mergeVersions, VERSION_COMPARATOR))
+        {
+            versions.addAll(mergeVersions);
+
+            return;
+        }
+
+        versioning.setVersions(merge(versions, mergeVersions, VERSION_COMPARATOR));
+    }
+
+    /**
+     * Inserts the snapshot version at its position in the (already ordered) snapshot versions, replacing the entry
+     * of the same version, classifier and extension if there is one.
+     */
+    public static void putSnapshotVersion(Versioning versioning,
+                                          SnapshotVersion snapshotVersion)
+    {
+        List<SnapshotVersion> snapshotVersions = versioning.getSnapshotVersions();
+        snapshotVersions.removeIf(sv -> isSameFile(sv, snapshotVersion));
+
+        int position = Collections.binarySearch(snapshotVersions, snapshotVersion, SNAPSHOT_VERSION_COMPARATOR);
+        if (position < 0)
+        {
+            position = -position - 1;
+        }
+        else
+        {
+            // Keep the entries of the same version in the order they were added.
+            while (position < snapshotVersions.size() &&
+                   SNAPSHOT_VERSION_COMPARATOR.compare(snapshotVersions.get(position), snapshotVersion) == 0)
+            {
+                position++;
+            }
+        }
+
+        snapshotVersions.add(position, snapshotVersion);
+    }
+
+    /**
+     * Makes sure that the snapshot versions are ordered, which is a no-op (and a single pass) if they already are.
+     */
+    public static void orderSnapshotVersions(Versioning versioning)
+    {
+        List<SnapshotVersion> snapshotVersions = versioning.getSnapshotVersions();
+        if (!isOrdered(snapshotVersions, SNAPSHOT_VERSION_COMPARATOR))
+        {
+            snapshotVersions.sort(SNAPSHOT_VERSION_COMPARATOR);
+        }
+    }
+
+    /**
+     * Sets the `latest` to the greatest version and the `release` to the greatest non-snapshot version.
+     */
+    public static void setLatestAndRelease(Versioning versioning)
+    {
+        List<String> versions = versioning.getVersions();
+        if (versions.isEmpty())
+        {
+            return;
+        }
+
+        versioning.setLatest(versions.get(versions.size() - 1));
+        for (int i = versions.size() - 1; i >= 0; i--)
+        {
+            if (!ArtifactUtils.isSnapshot(versions.get(i)))
+            {
+                versioning.setRelease(versions.get(i));
+                break;
+            }
+        }
+    }
+
+    private static <T> List<T> merge(List<T> list1,
+                                     List<T> list2,
+                                     Comparator<T> comparator)
+    {
+        List<T> ordered1 = ordered(list1, comparator);
+        List<T> ordered2 = ordered(list2, comparator);
+
+        List<T> result = new ArrayList<>(ordered1.size() + ordered2.size());
+        int i = 0;
+        int j = 0;
+        while (i < ordered1.size() || j < ordered2.size())
+        {
+            T next;
+            if (j == ordered2.size())
+            {
+                next = ordered1.get(i++);
+            }
+            else if (i == ordered1.size())
+            {
+                next = ordered2.get(j++);
+            }
+            else
+            {
+                int c = comparator.compare(ordered1.get(i), ordered2.get(j));
+                next = c <= 0 ? ordered1.get(i++) : ordered2.get(j++);
+            }
+
+            // Equal versions end up next to each other, unless different strings compare as equal (`1.0` and `1`),
+            // which are kept, as they are in the sorted lists.
+            if (result.isEmpty() || !Objects.equals(result.get(result.size() - 1), next))
+            {
+                result.add(next);
+            }
+        }
+
+        return result;
+    }
+
+    private static <T> List<T> ordered(List<T> list,
+                                       Comparator<T> comparator)
+    {
+        if (isOrdered(list, comparator))
+        {
+            return list;
+        }
+
+        List<T> result = new ArrayList<>(list);
+        result.sort(comparator);
+
+        return result;
+    }
+
+    private static <T> boolean isOrdered(List<T> list,
+                                         Comparator<T> comparator)
+    {
+        for (int i = 1; i < list.size(); i++)
+        {
+            if (comparator.compare(list.get(i - 1), list.get(i)) > 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isSameFile(SnapshotVersion sv1,
+                                      SnapshotVersion sv2)
+    {
+        return Objects.equals(sv1.getVersion(), sv2.getVersion()) &&
+               Objects.equals(emptyToNull(sv1.getClassifier()), emptyToNull(sv2.getClassifier())) &&
+               Objects.equals(sv1.getExtension(), sv2.getExtension());
+    }
+
+    private static String emptyToNull(String value)
+    {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedVersioningTest
+{
+
+    @Test
+    public void testAddVersion()
+    {
+        Versioning versioning = new Versioning();
+        versioning.setVersions(new ArrayList<>(Arrays.asList("1.0", "1.2", "1.10")));
+
+        assertThat(OrderedVersioning.addVersion(versioning, "1.9")).isTrue();
+        assertThat(OrderedVersioning.addVersion(versioning, "2.0-SNAPSHOT")).isTrue();
+        assertThat(OrderedVersioning.addVersion(versioning, "0.9")).isTrue();
+        assertThat(OrderedVersioning.addVersion(versioning, "1.2")).isFalse();
+
+        assertThat(versioning.getVersions()).containsExactly("0.9", "1.0", "1.2", "1.9", "1.10", "2.0-SNAPSHOT");
+
+        OrderedVersioning.setLatestAndRelease(versioning);
+
+        assertThat(versioning.getLatest()).isEqualTo("2.0-SNAPSHOT");
+        assertThat(versioning.getRelease()).isEqualTo("1.10");
+    }
+
+    @Test
+    public void testMergeVersions()
+    {
+        Versioning versioning = new Versioning();
+        versioning.addVersion("1.0");
+        versioning.addVersion("1.2");
+        versioning.addVersion("1.10");
+
+        OrderedVersioning.mergeVersions(versioning, Arrays.asList("1.1", "1.2", "1.11"));
+
+        assertThat(versioning.getVersions()).containsExactly("1.0", "1.1", "1.2", "1.10", "1.11");
+
+        // Lists which are not ordered yet are ordered by the merge.
+        OrderedVersioning.mergeVersions(versioning, Arrays.asList("2.0", "0.1"));
+
+        assertThat(versioning.getVersions()).containsExactly("0.1", "1.0", "1.1", "1.2", "1.10", "1.11", "2.0");
+    }
+
+    @Test
+    public void testPutSnapshotVersion()
+    {
+        Versioning versioning = new Versioning();
+
+        OrderedVersioning.putSnapshotVersion(versioning, snapshotVersion("1.0-20200101.100000-2", null, "jar"));
+        OrderedVersioning.putSnapshotVersion(versioning, snapshotVersion("1.0-20200101.090000-1", null, "jar"));
+        OrderedVersioning.putSnapshotVersion(versioning, snapshotVersion("1.0-20200101.100000-2", null, "pom"));
+        OrderedVersioning.putSnapshotVersion(versioning, snapshotVersion("1.0-20200101.100000-2", "sources", "jar"));
+        // The same file again replaces its entry.
+        OrderedVersioning.putSnapshotVersion(versioning, snapshotVersion("1.0-20200101.100000-2", null, "jar"));
+
+        assertThat(versioning.getSnapshotVersions()).extracting(sv -> sv.getVersion() + ":" + sv.getClassifier() +
+                                                                      ":" + sv.getExtension())
+                                                    .containsExactly("1.0-20200101.090000-1::jar",
+                                                                     "1.0-20200101.100000-2::pom",
+                                                                     "1.0-20200101.100000-2:sources:jar",
+                                                                     "1.0-20200101.100000-2::jar");
+    }
+
+    private SnapshotVersion snapshotVersion(String version,
+                                            String classifier,
+                                            String extension)
+    {
+        return MetadataHelper.createSnapshotVersion("org.carlspring", "foo", version, classifier, extension);
+    }
+
+}
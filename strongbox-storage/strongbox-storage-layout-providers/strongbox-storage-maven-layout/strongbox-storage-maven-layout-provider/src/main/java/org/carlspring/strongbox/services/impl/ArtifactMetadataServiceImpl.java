@@ -16,6 +16,7 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MetadataType;
+import org.carlspring.strongbox.storage.metadata.OrderedVersioning;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
@@ -164,14 +165,10 @@ public class ArtifactMetadataServiceImpl
     public void addVersion(Metadata metadata,
                            String version)
     {
-        if (!metadata.getVersioning().getVersions().contains(version))
+        if (OrderedVersioning.addVersion(metadata.getVersioning(), version))
         {
-            metadata.getVersioning().getVersions().add(version);
-
-            // Update the latest field
-            MetadataHelper.setLatest(metadata, version);
-            // Update the release field
-            MetadataHelper.setRelease(metadata, version);
+            // Update the latest and release fields
+            OrderedVersioning.setLatestAndRelease(metadata.getVersioning());
             // Update the lastUpdated field
             MetadataHelper.setLastUpdated(metadata.getVersioning());
         }
@@ -203,10 +200,9 @@ public class ArtifactMetadataServiceImpl
         String artifactGroupId = artifactGroup.getValue0();
         String artifactId = artifactGroup.getValue1();
 
-        Metadata snapshotMetadata = mavenMetadataManager.generateSnapshotVersioningMetadata(artifactGroupId, artifactId,
-                                                                                            artifactBasePath,
-                                                                                            snapshot,
-                                                                                            false);
+        Metadata snapshotMetadata = mavenMetadataManager.readSnapshotVersioningMetadata(artifactGroupId, artifactId,
+                                                                                        artifactBasePath,
+                                                                                        snapshot);
 
         addTimestampedSnapshotVersion(snapshotMetadata, version, classifier, extension);
 
@@ -222,15 +218,13 @@ public class ArtifactMetadataServiceImpl
                                               String classifier,
                                               String extension)
     {
-        List<SnapshotVersion> snapshotVersions = metadata.getVersioning().getSnapshotVersions();
-
         SnapshotVersion snapshotVersion = MetadataHelper.createSnapshotVersion(metadata.getGroupId(),
                                                                                metadata.getArtifactId(),
                                                                                version,
                                                                                classifier,
                                                                                extension);
 
-        snapshotVersions.add(snapshotVersion);
+        OrderedVersioning.putSnapshotVersion(metadata.getVersioning(), snapshotVersion);
 
         // Set the snapshot mapping fields (timestamp + buildNumber)
         MetadataHelper.setupSnapshotVersioning(metadata.getVersioning());
@@ -300,10 +294,9 @@ public class ArtifactMetadataServiceImpl
         String artifactGroupId = artifactGroup.getValue0();
         String artifactId = artifactGroup.getValue1();
 
-        Metadata snapshotMetadata = mavenMetadataManager.generateSnapshotVersioningMetadata(artifactGroupId, artifactId,
-                                                                                            artifactBasePath,
-                                                                                            snapshot,
-                                                                                            false);
+        Metadata snapshotMetadata = mavenMetadataManager.readSnapshotVersioningMetadata(artifactGroupId, artifactId,
+                                                                                        artifactBasePath,
+                                                                                        snapshot);
 
         List<SnapshotVersion> snapshotVersions = snapshotMetadata.getVersioning().getSnapshotVersions();
         for (Iterator<SnapshotVersion> iterator = snapshotVersions.iterator(); iterator.hasNext(); )
@@ -27,6 +27,17 @@ public abstract class AbstractRepositoryIndexCreator
     @Override
     public RepositoryPath apply(Repository repository)
             throws IOException
+    {
+        return apply(repository, this::onIndexingContextCreated);
+    }
+
+    /**
+     * Runs the given operation on the indexing context of the repository, while holding the lock of the index
+     * directory.
+     */
+    protected RepositoryPath apply(Repository repository,
+                                   IndexingContextOperation operation)
+            throws IOException
     {
         final RepositoryPath repositoryIndexDirectoryPath = getRepositoryIndexDirectoryPathResolver().resolve(
                 repository);
@@ -39,7 +50,7 @@ public abstract class AbstractRepositoryIndexCreator
                 try (final RepositoryCloseableIndexingContext indexingContext = getRepositoryIndexingContextFactory().create(
                         repository))
                 {
-                    onIndexingContextCreated(repositoryIndexDirectoryPath, indexingContext);
+                    operation.apply(repositoryIndexDirectoryPath, indexingContext);
                 }
                 finally
                 {
@@ -68,4 +79,14 @@ public abstract class AbstractRepositoryIndexCreator
     protected abstract RepositoryIndexingContextFactory getRepositoryIndexingContextFactory();
 
     protected abstract RepositoryIndexDirectoryPathResolver getRepositoryIndexDirectoryPathResolver();
+
+    @FunctionalInterface
+    protected interface IndexingContextOperation
+    {
+
+        void apply(RepositoryPath repositoryIndexDirectoryPath,
+                   RepositoryCloseableIndexingContext indexingContext)
+                throws IOException;
+
+    }
 }
@@ -27,6 +27,18 @@ public class IndexPacker
     public static RepositoryPath pack(final RepositoryPath indexPath,
                                       final IndexingContext context)
             throws IOException
+    {
+        return pack(indexPath, context, IndexPackingRequest.MAX_CHUNKS);
+    }
+
+    /**
+     * Packs the index and keeps up to the given number of the incremental chunks, the clients which are further
+     * behind download the whole index.
+     */
+    public static RepositoryPath pack(final RepositoryPath indexPath,
+                                      final IndexingContext context,
+                                      final int maxIndexChunks)
+            throws IOException
     {
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
         try
@@ -36,6 +48,7 @@ public class IndexPacker
                                                                         indexSearcher.getIndexReader(),
                                                                         indexPath.toFile());
             request.setUseTargetProperties(true);
+            request.setMaxIndexChunks(maxIndexChunks);
             IndexPacker.INSTANCE.packIndex(request);
 
             logger.info("Index for {} was packed successfully.", indexPath);
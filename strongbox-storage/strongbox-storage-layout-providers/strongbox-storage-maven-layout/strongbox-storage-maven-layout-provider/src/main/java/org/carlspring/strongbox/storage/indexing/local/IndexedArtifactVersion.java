@@ -0,0 +1,102 @@
+package org.carlspring.strongbox.storage.indexing.local;
+
+import java.util.Objects;
+
+import org.apache.maven.index.ArtifactInfo;
+
+/**
+ * Identifies the artifacts which have to be re-indexed after a change: all the artifacts of the given version, or
+ * all the versions of the artifact if the version is {@code null}.
+ *
+ * @see RepositoryHostedIndexCreator#update(org.carlspring.strongbox.storage.repository.Repository, java.util.Collection)
+ */
+public class IndexedArtifactVersion
+{
+
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String version;
+
+    public IndexedArtifactVersion(String groupId,
+                                  String artifactId,
+                                  String version)
+    {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+
+    public String getGroupId()
+    {
+        return groupId;
+    }
+
+    public String getArtifactId()
+    {
+        return artifactId;
+    }
+
+    public String getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return the `groupId:artifactId` of the artifact group
+     */
+    public String getArtifactGroupId()
+    {
+        return String.format("%s:%s", groupId, artifactId);
+    }
+
+    /**
+     * @return the prefix of the {@link ArtifactInfo#UINFO} of the index documents of these artifacts
+     */
+    public String getUinfoPrefix()
+    {
+        StringBuilder result = new StringBuilder().append(groupId)
+                                                  .append(ArtifactInfo.FS)
+                                                  .append(artifactId)
+                                                  .append(ArtifactInfo.FS);
+        if (version != null)
+        {
+            result.append(version).append(ArtifactInfo.FS);
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+
+        IndexedArtifactVersion that = (IndexedArtifactVersion) o;
+
+        return Objects.equals(groupId, that.groupId) &&
+               Objects.equals(artifactId, that.artifactId) &&
+               Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(groupId, artifactId, version);
+    }
+
+    @Override
+    public String toString()
+    {
+        return version != null ? getArtifactGroupId() + ":" + version : getArtifactGroupId();
+    }
+
+}
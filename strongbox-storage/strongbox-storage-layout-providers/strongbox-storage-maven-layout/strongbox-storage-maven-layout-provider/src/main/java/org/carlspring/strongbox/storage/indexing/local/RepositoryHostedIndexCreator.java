@@ -17,11 +17,27 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
 import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexUtils;
 import org.springframework.stereotype.Component;
 
 /**
+ * Creates the index of a hosted repository from its {@link RepositoryArtifactIdGroupEntry}s.
+ * <p>
+ * {@link #apply(Repository)} rebuilds and packs the whole index, while {@link #update(Repository, Collection)} only
+ * re-indexes the changed artifacts and {@link #pack(Repository, int)} packs them as an incremental chunk.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -53,6 +69,132 @@ public class RepositoryHostedIndexCreator
         IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
     }
 
+    /**
+     * Re-indexes the given artifacts of the repository (the ones which were removed are deleted from the index). The
+     * packed index is not changed, see {@link #pack(Repository, int)}.
+     */
+    public RepositoryPath update(final Repository repository,
+                                 final Collection<IndexedArtifactVersion> artifactVersions)
+            throws IOException
+    {
+        return apply(repository,
+                     (repositoryIndexDirectoryPath, indexingContext) -> updateIndexingContext(indexingContext,
+                                                                                              artifactVersions));
+    }
+
+    /**
+     * Packs the index of the repository, the changes since the previous pack become a new incremental chunk.
+     */
+    public RepositoryPath pack(final Repository repository,
+                               final int maxIndexChunks)
+            throws IOException
+    {
+        return apply(repository,
+                     (repositoryIndexDirectoryPath, indexingContext) -> IndexPacker.pack(repositoryIndexDirectoryPath,
+                                                                                         indexingContext,
+                                                                                         maxIndexChunks));
+    }
+
+    private void updateIndexingContext(final RepositoryCloseableIndexingContext indexingContext,
+                                       final Collection<IndexedArtifactVersion> artifactVersions)
+            throws IOException
+    {
+        final Repository repository = indexingContext.getRepositoryRaw();
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        final Map<String, List<IndexedArtifactVersion>> artifactVersionsByGroup = artifactVersions.stream()
+                                                                                                  .collect(Collectors.groupingBy(IndexedArtifactVersion::getArtifactGroupId));
+
+        final List<ArtifactContext> artifactContexts = new ArrayList<>();
+        final Map<String, ArtifactInfo> indexedArtifacts = new HashMap<>();
+        for (final Map.Entry<String, List<IndexedArtifactVersion>> artifactGroup : artifactVersionsByGroup.entrySet())
+        {
+            final Set<String> versions = artifactGroup.getValue()
+                                                      .stream()
+                                                      .map(IndexedArtifactVersion::getVersion)
+                                                      .collect(Collectors.toSet());
+            final Predicate<String> versionFilter = versions.contains(null) ? v -> true : versions::contains;
+
+            final RepositoryArtifactIdGroupEntry repositoryArtifactIdGroupEntry = repositoryArtifactIdGroupService.findOne(
+                    storageId,
+                    repositoryId,
+                    artifactGroup.getKey());
+            if (repositoryArtifactIdGroupEntry != null)
+            {
+                artifactContexts.addAll(createArtifactContexts(Collections.singletonList(repositoryArtifactIdGroupEntry),
+                                                               versionFilter));
+            }
+
+            for (final IndexedArtifactVersion artifactVersion : artifactGroup.getValue())
+            {
+                indexedArtifacts.putAll(findIndexedArtifacts(indexingContext, artifactVersion.getUinfoPrefix()));
+            }
+        }
+
+        final Set<String> artifactUinfos = artifactContexts.stream()
+                                                           .map(ac -> ac.getArtifactInfo().getUinfo())
+                                                           .collect(Collectors.toSet());
+
+        // The removed artifacts are deleted with a `DELETED` marker, so that they are removed by the incremental updates too.
+        final List<ArtifactContext> removedArtifactContexts = new ArrayList<>();
+        for (final Map.Entry<String, ArtifactInfo> indexedArtifact : indexedArtifacts.entrySet())
+        {
+            if (!artifactUinfos.contains(indexedArtifact.getKey()))
+            {
+                removedArtifactContexts.add(new ArtifactContext(null, null, null, indexedArtifact.getValue(), null));
+            }
+        }
+        Indexer.INSTANCE.deleteArtifactsFromIndex(removedArtifactContexts, indexingContext);
+
+        // The remaining artifacts are just replaced.
+        final IndexWriter indexWriter = indexingContext.getIndexWriter();
+        for (final String artifactUinfo : artifactUinfos)
+        {
+            if (indexedArtifacts.containsKey(artifactUinfo))
+            {
+                indexWriter.deleteDocuments(new Term(ArtifactInfo.UINFO, artifactUinfo));
+            }
+        }
+        Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
+
+        indexingContext.updateTimestamp(true);
+        indexingContext.commit();
+
+        logger.debug("Updated index of [{}:{}] with [{}] artifacts and [{}] removals for {}.",
+                     storageId, repositoryId, artifactContexts.size(), removedArtifactContexts.size(),
+                     artifactVersions);
+    }
+
+    private Map<String, ArtifactInfo> findIndexedArtifacts(final RepositoryCloseableIndexingContext indexingContext,
+                                                           final String uinfoPrefix)
+            throws IOException
+    {
+        final Map<String, ArtifactInfo> result = new HashMap<>();
+        final IndexSearcher indexSearcher = indexingContext.acquireIndexSearcher();
+        try
+        {
+            final int maxDocs = Math.max(1, indexSearcher.getIndexReader().maxDoc());
+            final TopDocs topDocs = indexSearcher.search(new PrefixQuery(new Term(ArtifactInfo.UINFO, uinfoPrefix)),
+                                                         maxDocs);
+            for (final ScoreDoc scoreDoc : topDocs.scoreDocs)
+            {
+                final Document document = indexSearcher.doc(scoreDoc.doc);
+                final ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(document, indexingContext);
+                if (artifactInfo != null)
+                {
+                    result.put(artifactInfo.getUinfo(), artifactInfo);
+                }
+            }
+        }
+        finally
+        {
+            indexingContext.releaseIndexSearcher(indexSearcher);
+        }
+
+        return result;
+    }
+
     @Override
     protected RepositoryIndexingContextFactory getRepositoryIndexingContextFactory()
     {
@@ -91,12 +233,14 @@ public class RepositoryHostedIndexCreator
                     repositoryId,
                     pagingCriteria);
 
-            final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries);
+            final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries,
+                                                                                 v -> true);
             Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
         }
     }
 
-    private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries)
+    private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries,
+                                                         final Predicate<String> versionFilter)
     {
         final List<ArtifactContext> artifactContexts = new ArrayList<>();
         for (final RepositoryArtifactIdGroupEntry repositoryArtifactIdGroupEntry : repositoryArtifactIdGroupEntries)
@@ -105,6 +249,11 @@ public class RepositoryHostedIndexCreator
                     repositoryArtifactIdGroupEntry);
             for (final Map.Entry<String, List<ArtifactEntry>> sameVersionArtifactEntries : groupedByVersion.entrySet())
             {
+                if (!versionFilter.test(sameVersionArtifactEntries.getKey()))
+                {
+                    continue;
+                }
+
                 for (final ArtifactEntry artifactEntry : sameVersionArtifactEntries.getValue())
                 {
                     if (!isIndexable(artifactEntry))
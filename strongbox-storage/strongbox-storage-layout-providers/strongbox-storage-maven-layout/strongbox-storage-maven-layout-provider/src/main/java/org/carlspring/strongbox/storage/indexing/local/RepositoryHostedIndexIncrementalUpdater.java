@@ -0,0 +1,431 @@
+package org.carlspring.strongbox.storage.indexing.local;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.repository.MavenRepositoryFeatures;
+import org.carlspring.strongbox.storage.indexing.IndexLockedException;
+import org.carlspring.strongbox.storage.indexing.IndexPacker;
+import org.carlspring.strongbox.storage.indexing.IndexTypeEnum;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexDirectoryPathResolver;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexDirectoryPathResolver.RepositoryIndexDirectoryPathResolverQualifier;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.index.artifact.Gav;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Keeps the packed indexes of the hosted Maven repositories up to date with the stored and deleted artifacts.
+ * <p>
+ * The changed artifact versions are collected per repository and re-indexed with
+ * {@link RepositoryHostedIndexCreator#update(Repository, java.util.Collection)} every
+ * {@code flushIntervalMillis}. The packed index is updated much less often, at most once per
+ * {@code packIntervalMillis} for each repository, so that the changes are published as a few incremental chunks
+ * rather than a chunk per flush, and only the last {@code maxChunks} chunks are kept. Repositories which don't have
+ * a packed index yet are skipped, as their index has to be built with the full rebuild first. The full rebuild also
+ * remains the way to repair an index which missed some of the changes.
+ */
+@Component
+public class RepositoryHostedIndexIncrementalUpdater
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryHostedIndexIncrementalUpdater.class);
+
+    @Inject
+    private RepositoryHostedIndexCreator repositoryHostedIndexCreator;
+
+    @Inject
+    @RepositoryIndexDirectoryPathResolverQualifier(IndexTypeEnum.LOCAL)
+    private RepositoryIndexDirectoryPathResolver indexDirectoryPathResolver;
+
+    @Inject
+    private MavenRepositoryFeatures mavenRepositoryFeatures;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.maven.index.incremental.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.maven.index.incremental.flushIntervalMillis:2000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.maven.index.incremental.packIntervalMillis:600000}")
+    private long packIntervalMillis;
+
+    @Value("${strongbox.maven.index.incremental.maxChunks:144}")
+    private int maxChunks;
+
+    private final ConcurrentMap<RepositoryKey, Set<IndexedArtifactVersion>> pendingArtifactVersions = new ConcurrentHashMap<>();
+
+    /**
+     * The repositories with the changes which were indexed, but not packed yet.
+     */
+    private final Set<RepositoryKey> unpackedRepositories = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<RepositoryKey, Long> lastPackTimes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!enabled)
+        {
+            logger.info("Incremental updates of hosted Maven repository indexes are disabled.");
+
+            return;
+        }
+
+        Assert.isTrue(flushIntervalMillis > 0,
+                      "flushIntervalMillis cannot be negative or zero but was " + flushIntervalMillis);
+        Assert.isTrue(packIntervalMillis >= 0, "packIntervalMillis cannot be negative but was " + packIntervalMillis);
+        Assert.isTrue(maxChunks > 0, "maxChunks cannot be negative or zero but was " + maxChunks);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, RepositoryHostedIndexIncrementalUpdater.class.getSimpleName());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+
+        logger.info("Hosted Maven repository indexes will be updated every [{}] ms and packed every [{}] ms.",
+                    flushIntervalMillis, packIntervalMillis);
+    }
+
+    @Override
+    public void destroy()
+            throws InterruptedException
+    {
+        if (executor == null)
+        {
+            return;
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        flush(true);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+            throws IOException
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        final boolean stored = event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+                               event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType();
+        final boolean deleted = event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType();
+        if (!stored && !deleted)
+        {
+            return;
+        }
+
+        final RepositoryPath repositoryPath = event.getPath();
+        final Repository repository = repositoryPath.getRepository();
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()) ||
+            !repository.isHostedRepository() ||
+            !mavenRepositoryFeatures.isIndexingEnabled(repository))
+        {
+            return;
+        }
+
+        final String path = RepositoryFiles.relativizePath(repositoryPath);
+        if (StringUtils.isBlank(path) || path.startsWith(".") || path.contains("/."))
+        {
+            // The index itself and the other service directories are not a part of the index.
+            return;
+        }
+
+        final List<IndexedArtifactVersion> artifactVersions = getIndexedArtifactVersions(path, deleted);
+        if (artifactVersions.isEmpty())
+        {
+            return;
+        }
+
+        pendingArtifactVersions.computeIfAbsent(new RepositoryKey(repository.getStorage().getId(), repository.getId()),
+                                                k -> ConcurrentHashMap.newKeySet())
+                               .addAll(artifactVersions);
+    }
+
+    public int getPendingCount()
+    {
+        return pendingArtifactVersions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public int getUnpackedCount()
+    {
+        return unpackedRepositories.size();
+    }
+
+    public void flush()
+    {
+        flush(false);
+    }
+
+    /**
+     * Updates the indexes with all the changes collected so far and packs the ones which weren't packed for the
+     * {@code packIntervalMillis} (or all of them, if requested). Changes of the indexes which are currently locked
+     * are kept and retried with the next flush.
+     */
+    public synchronized void flush(final boolean packAll)
+    {
+        updateIndexes();
+        packIndexes(packAll);
+    }
+
+    private void updateIndexes()
+    {
+        for (final RepositoryKey repositoryKey : new ArrayList<>(pendingArtifactVersions.keySet()))
+        {
+            final Set<IndexedArtifactVersion> artifactVersions = pendingArtifactVersions.remove(repositoryKey);
+            if (artifactVersions == null || artifactVersions.isEmpty())
+            {
+                continue;
+            }
+
+            final Repository repository = configurationManager.getRepository(repositoryKey.storageId,
+                                                                             repositoryKey.repositoryId);
+            if (repository == null || !mavenRepositoryFeatures.isIndexingEnabled(repository))
+            {
+                continue;
+            }
+
+            try
+            {
+                if (update(repository, artifactVersions))
+                {
+                    unpackedRepositories.add(repositoryKey);
+                }
+            }
+            catch (IndexLockedException e)
+            {
+                logger.debug("Index of [{}] is locked, will retry with the next flush.", repositoryKey);
+
+                pendingArtifactVersions.computeIfAbsent(repositoryKey, k -> ConcurrentHashMap.newKeySet())
+                                       .addAll(artifactVersions);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to update index of [{}] with [{}], the index needs to be rebuilt.",
+                             repositoryKey, artifactVersions, e);
+            }
+        }
+    }
+
+    private void packIndexes(final boolean packAll)
+    {
+        final long now = System.currentTimeMillis();
+        for (final RepositoryKey repositoryKey : new ArrayList<>(unpackedRepositories))
+        {
+            if (!packAll && now - lastPackTimes.getOrDefault(repositoryKey, 0L) < packIntervalMillis)
+            {
+                continue;
+            }
+
+            final Repository repository = configurationManager.getRepository(repositoryKey.storageId,
+                                                                             repositoryKey.repositoryId);
+            if (repository == null || !mavenRepositoryFeatures.isIndexingEnabled(repository))
+            {
+                unpackedRepositories.remove(repositoryKey);
+                continue;
+            }
+
+            try
+            {
+                repositoryHostedIndexCreator.pack(repository, maxChunks);
+
+                unpackedRepositories.remove(repositoryKey);
+                lastPackTimes.put(repositoryKey, now);
+            }
+            catch (IndexLockedException e)
+            {
+                logger.debug("Index of [{}] is locked, will pack it with the next flush.", repositoryKey);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to pack index of [{}], the index needs to be rebuilt.", repositoryKey, e);
+
+                unpackedRepositories.remove(repositoryKey);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the repository has no packed index yet and the changes were skipped
+     */
+    private boolean update(final Repository repository,
+                           final Set<IndexedArtifactVersion> artifactVersions)
+            throws IOException
+    {
+        final RepositoryPath repositoryIndexDirectoryPath = indexDirectoryPathResolver.resolve(repository);
+        if (!IndexPacker.packageExists(repositoryIndexDirectoryPath))
+        {
+            logger.debug("Index of [{}:{}] was not built yet, skip [{}] changes.",
+                         repository.getStorage().getId(), repository.getId(), artifactVersions.size());
+
+            return false;
+        }
+
+        new TransactionTemplate(transactionManager).execute(t -> {
+            try
+            {
+                return repositoryHostedIndexCreator.update(repository, artifactVersions);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return true;
+    }
+
+    private void flushSafely()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to update hosted Maven repository indexes.", e);
+        }
+    }
+
+    /**
+     * Returns the artifact versions which have to be re-indexed after the path was changed. A deleted directory can
+     * be either an artifact directory or a version directory, so both of them are re-indexed.
+     */
+    static List<IndexedArtifactVersion> getIndexedArtifactVersions(final String path,
+                                                                   final boolean deleted)
+    {
+        final String fileName = StringUtils.substringAfterLast("/" + path, "/");
+        if (MetadataHelper.MAVEN_METADATA_XML.equals(fileName) ||
+            fileName.startsWith(MetadataHelper.MAVEN_METADATA_XML + ".") ||
+            fileName.endsWith(".properties"))
+        {
+            return Collections.emptyList();
+        }
+
+        final Gav gav = MavenArtifactUtils.convertPathToGav(path);
+        if (gav != null)
+        {
+            if (gav.isHash() || gav.isSignature())
+            {
+                return Collections.emptyList();
+            }
+
+            return Collections.singletonList(new IndexedArtifactVersion(gav.getGroupId(),
+                                                                        gav.getArtifactId(),
+                                                                        gav.getVersion()));
+        }
+
+        if (!deleted)
+        {
+            return Collections.emptyList();
+        }
+
+        final String[] parts = StringUtils.split(path, "/");
+        final List<IndexedArtifactVersion> result = new ArrayList<>(2);
+        if (parts.length >= 2)
+        {
+            result.add(new IndexedArtifactVersion(StringUtils.join(parts, ".", 0, parts.length - 1),
+                                                  parts[parts.length - 1],
+                                                  null));
+        }
+        if (parts.length >= 3)
+        {
+            result.add(new IndexedArtifactVersion(StringUtils.join(parts, ".", 0, parts.length - 2),
+                                                  parts[parts.length - 2],
+                                                  parts[parts.length - 1]));
+        }
+
+        return result;
+    }
+
+    private static class RepositoryKey
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private RepositoryKey(String storageId,
+                              String repositoryId)
+        {
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof RepositoryKey))
+            {
+                return false;
+            }
+
+            RepositoryKey that = (RepositoryKey) o;
+
+            return Objects.equals(storageId, that.storageId) && Objects.equals(repositoryId, that.repositoryId);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(storageId, repositoryId);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s:%s", storageId, repositoryId);
+        }
+
+    }
+
+}
@@ -8,8 +8,6 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
-import org.carlspring.strongbox.storage.metadata.maven.comparators.SnapshotVersionComparator;
-import org.carlspring.strongbox.storage.metadata.maven.comparators.VersionComparator;
 import org.carlspring.strongbox.storage.metadata.maven.versions.MetadataVersion;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
@@ -21,6 +19,7 @@ import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
@@ -307,6 +306,38 @@ public class MavenMetadataManager
         return snapshotMetadata;
     }
 
+    /**
+     * Returns the metadata of the snapshot version, as it is stored in the version directory. The metadata is
+     * generated by walking the version directory only if it was not stored yet, so that the metadata can be updated
+     * with the single timestamped version which was added or removed.
+     */
+    public Metadata readSnapshotVersioningMetadata(String groupId,
+                                                   String artifactId,
+                                                   RepositoryPath artifactBasePath,
+                                                   String version)
+            throws IOException
+    {
+        RepositoryPath snapshotBasePath = artifactBasePath.resolve(version);
+        Path metadataPath = MetadataHelper.getSnapshotMetadataPath(artifactBasePath, version);
+        if (Files.exists(metadataPath))
+        {
+            try
+            {
+                Metadata metadata = readMetadata(snapshotBasePath);
+                if (metadata.getVersioning() != null)
+                {
+                    return metadata;
+                }
+            }
+            catch (XmlPullParserException e)
+            {
+                logger.warn("Unable to read the metadata of {}, it will be regenerated.", snapshotBasePath, e);
+            }
+        }
+
+        return generateSnapshotVersioningMetadata(groupId, artifactId, snapshotBasePath, version, false);
+    }
+
     public void mergeAndStore(final RepositoryPath metadataBasePath,
                               final Metadata mergeMetadata) throws IOException
     {
@@ -384,16 +415,32 @@ public class MavenMetadataManager
     {
         doInLock(metadataBasePath, path ->
         {
-            metadata.merge(mergeMetadata);
+            // The versions are merged separately with a single pass over both of the ordered lists, as
+            // Metadata.merge() looks up every merged version in the whole list and appends it to the end.
+            Versioning mergeVersioning = mergeMetadata.getVersioning();
+            List<String> mergeVersions = mergeVersioning != null ? mergeVersioning.getVersions() : null;
+            if (mergeVersioning != null)
+            {
+                mergeVersioning.setVersions(new ArrayList<>());
+            }
 
-            Versioning versioning = metadata.getVersioning();
-            if (versioning.getVersions() != null)
+            try
             {
-                versioning.getVersions().sort(new VersionComparator());
+                metadata.merge(mergeMetadata);
             }
-            if (versioning.getSnapshotVersions() != null)
+            finally
+            {
+                if (mergeVersioning != null)
+                {
+                    mergeVersioning.setVersions(mergeVersions);
+                }
+            }
+
+            Versioning versioning = metadata.getVersioning();
+            if (versioning != null)
             {
-                versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+                OrderedVersioning.mergeVersions(versioning, mergeVersions);
+                OrderedVersioning.orderSnapshotVersions(versioning);
             }
 
             try
@@ -0,0 +1,226 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderCronTasksTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.proxied.LocalStorageProxyRepositoryExpiredArtifactsCleaner;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang.time.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+/**
+ * The cleanup covers every proxy repository whose remote is alive, so only the remotes of this test are reported as
+ * alive (the test has its own context because of the chunk size) and the tests run one at a time. The chunks are
+ * smaller than the number of artifacts, so that the eviction continues over several chunks.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderCronTasksTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+@TestPropertySource(properties = "strongbox.proxy.expiredArtifactsCleanup.batchSize=2")
+@Execution(SAME_THREAD)
+public class LocalStorageProxyRepositoryExpiredArtifactsCleanerTestIT
+{
+
+    private static final String REPOSITORY_PROXY_1 = "lspreact-proxy-1";
+
+    private static final String REPOSITORY_PROXY_2 = "lspreact-proxy-2";
+
+    private static final String REMOTE_URL_1 = "https://lspreact-1.maven.example.org/maven2/";
+
+    private static final String REMOTE_URL_2 = "https://lspreact-2.maven.example.org/maven2/";
+
+    private static final List<String> REMOTE_URLS = Arrays.asList(REMOTE_URL_1, REMOTE_URL_2);
+
+    private static final int ARTIFACT_SIZE = 100;
+
+    @Inject
+    private LocalStorageProxyRepositoryExpiredArtifactsCleaner localStorageProxyRepositoryExpiredArtifactsCleaner;
+
+    @Inject
+    @Named("mockedRemoteRepositoryAlivenessCacheManager")
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @BeforeEach
+    public void init()
+    {
+        Mockito.when(remoteRepositoryAlivenessCacheManager.isAlive(ArgumentMatchers.any(RemoteRepository.class)))
+               .thenAnswer(i -> REMOTE_URLS.contains(i.<RemoteRepository>getArgument(0).getUrl()));
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testLeastRecentlyUsedAreEvictedUnderQuota(@Remote(url = REMOTE_URL_1)
+                                                          @MavenRepository(repositoryId = REPOSITORY_PROXY_1)
+                                                          Repository proxyRepository)
+            throws Exception
+    {
+        // The versions are used in the reverse order, 1.5 is the least recently used.
+        List<RepositoryPath> paths = storeArtifacts(proxyRepository, "1.1", "1.2", "1.3", "1.4", "1.5");
+        List<RepositoryPath> leastRecentlyUsedPaths = new ArrayList<>(paths);
+        Collections.reverse(leastRecentlyUsedPaths);
+
+        String storageId = proxyRepository.getStorage().getId();
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(storageId)
+                                                                                   .withRepositoryId(proxyRepository.getId())
+                                                                                   .build();
+
+        assertThat(artifactEntryService.sumSizeInBytes(storageId, proxyRepository.getId()))
+                .isEqualTo(5L * ARTIFACT_SIZE);
+
+        List<ArtifactEntry> chunk1 = artifactEntryService.findLeastRecentlyUsed(searchCriteria, null, null, 3);
+        assertThat(getArtifactPaths(chunk1)).containsExactlyElementsOf(relativize(leastRecentlyUsedPaths.subList(0, 3)));
+
+        // The next chunk starts after the last entry of the previous one.
+        ArtifactEntry last = chunk1.get(chunk1.size() - 1);
+        List<ArtifactEntry> chunk2 = artifactEntryService.findLeastRecentlyUsed(searchCriteria, last.getLastUsed(),
+                                                                                last.getUuid(), 3);
+        assertThat(getArtifactPaths(chunk2)).containsExactlyElementsOf(relativize(leastRecentlyUsedPaths.subList(3, 5)));
+
+        // 250 bytes over the quota, so the three least recently used artifacts have to go.
+        localStorageProxyRepositoryExpiredArtifactsCleaner.cleanup(null, null, 2L * ARTIFACT_SIZE + 50, null);
+
+        assertThat(artifactEntryService.sumSizeInBytes(storageId, proxyRepository.getId()))
+                .isEqualTo(2L * ARTIFACT_SIZE);
+        for (int i = 0; i < leastRecentlyUsedPaths.size(); i++)
+        {
+            RepositoryPath path = leastRecentlyUsedPaths.get(i);
+            assertThat(RepositoryFiles.artifactExists(path)).as(path.toString()).isEqualTo(i >= 3);
+        }
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testRunStopsAtMaxArtifacts(@Remote(url = REMOTE_URL_2)
+                                           @MavenRepository(repositoryId = REPOSITORY_PROXY_2)
+                                           Repository proxyRepository)
+            throws Exception
+    {
+        List<RepositoryPath> paths = storeArtifacts(proxyRepository, "2.1", "2.2", "2.3", "2.4", "2.5");
+
+        // Everything is expired, but only three artifacts are removed by a run.
+        localStorageProxyRepositoryExpiredArtifactsCleaner.cleanup(5, 0L, null, 3);
+
+        String storageId = proxyRepository.getStorage().getId();
+        assertThat(artifactEntryService.sumSizeInBytes(storageId, proxyRepository.getId()))
+                .isEqualTo(2L * ARTIFACT_SIZE);
+        assertThat(paths.stream().filter(this::artifactExists).count()).isEqualTo(2);
+
+        localStorageProxyRepositoryExpiredArtifactsCleaner.cleanup(5, 0L, null, 3);
+
+        assertThat(artifactEntryService.sumSizeInBytes(storageId, proxyRepository.getId())).isZero();
+        assertThat(paths.stream().filter(this::artifactExists).count()).isZero();
+    }
+
+    /**
+     * Stores the artifacts, the first one is the most recently used one and all of them were last used more than a
+     * week ago.
+     */
+    private List<RepositoryPath> storeArtifacts(Repository repository,
+                                                String... versions)
+            throws IOException
+    {
+        List<RepositoryPath> result = new ArrayList<>();
+        Date lastUsed = DateUtils.addDays(new Date(), -10);
+        for (String version : versions)
+        {
+            String path = String.format("org/carlspring/strongbox/lspreact/lspreact-artifact/%s/lspreact-artifact-%s.jar",
+                                        version, version);
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+            try (InputStream is = new ByteArrayInputStream(new byte[ARTIFACT_SIZE]))
+            {
+                artifactManagementService.store(repositoryPath, is);
+            }
+
+            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                               repository.getId(),
+                                                                               path);
+            artifactEntry.setLastUsed(lastUsed);
+            artifactEntry.setSizeInBytes((long) ARTIFACT_SIZE);
+            artifactEntryService.save(artifactEntry);
+
+            lastUsed = DateUtils.addHours(lastUsed, -1);
+            result.add(repositoryPath);
+        }
+
+        return result;
+    }
+
+    private boolean artifactExists(RepositoryPath repositoryPath)
+    {
+        try
+        {
+            return RepositoryFiles.artifactExists(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> getArtifactPaths(List<ArtifactEntry> artifactEntries)
+    {
+        return artifactEntries.stream().map(ArtifactEntry::getArtifactPath).collect(Collectors.toList());
+    }
+
+    private List<String> relativize(List<RepositoryPath> repositoryPaths)
+            throws IOException
+    {
+        List<String> result = new ArrayList<>();
+        for (RepositoryPath repositoryPath : repositoryPaths)
+        {
+            result.add(RepositoryFiles.relativizePath(repositoryPath));
+        }
+
+        return result;
+    }
+
+}
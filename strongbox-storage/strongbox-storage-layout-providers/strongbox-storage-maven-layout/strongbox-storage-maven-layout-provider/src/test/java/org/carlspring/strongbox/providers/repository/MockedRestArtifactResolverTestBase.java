@@ -19,7 +19,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,6 +59,12 @@ public abstract class MockedRestArtifactResolverTestBase
 
     private static ThreadLocal<ArtifactResolverContext> contextHolder = new ThreadLocal<>();
 
+    /**
+     * Contexts of the paths which are requested outside of the test threads, as the concurrent group member checks
+     * are.
+     */
+    private static Map<String, ArtifactResolverContext> pathContexts = new ConcurrentHashMap<>();
+
     @Inject
     protected RepositoryPathResolver repositoryPathResolver;
 
@@ -93,6 +102,24 @@ public abstract class MockedRestArtifactResolverTestBase
     {
         contextHolder.remove();
     }
+
+    protected static void initContext(String path,
+                                      ArtifactResolverContext context)
+    {
+        pathContexts.put(path, context);
+    }
+
+    protected static void cleanContext(String path)
+    {
+        pathContexts.remove(path);
+    }
+
+    private static boolean isRemoteResourceAvailable(String path)
+    {
+        ArtifactResolverContext context = Optional.ofNullable(contextHolder.get()).orElse(pathContexts.get(path));
+
+        return context == null || context.isRemoteResourceAvailable(path);
+    }
     
     private static RemoteRepositoryRetryArtifactDownloadConfiguration createRemoteRepositoryConfiguration()
     {
@@ -163,7 +190,14 @@ public abstract class MockedRestArtifactResolverTestBase
             Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
             Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class), ArgumentMatchers.any(Long.class)))
                    .thenReturn(restResponse);
-            Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
+            Response notFoundResponse = Mockito.mock(Response.class);
+            Mockito.when(notFoundResponse.getStatus()).thenReturn(404);
+
+            CloseableRestResponse notFoundRestResponse = Mockito.mock(CloseableRestResponse.class);
+            Mockito.when(notFoundRestResponse.getResponse()).thenReturn(notFoundResponse);
+
+            Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class)))
+                   .then((i) -> isRemoteResourceAvailable(i.getArgument(0)) ? restResponse : notFoundRestResponse);
             Mockito.when(artifactResolver.getConfiguration())
                    .then((a) -> createRemoteRepositoryConfiguration());
             Mockito.when(artifactResolver.isAlive()).thenReturn(true);
@@ -205,5 +239,13 @@ interface ArtifactResolverContext
     {
         return true;
     }
+
+    /**
+     * Answers the HEAD requests for the path.
+     */
+    default boolean isRemoteResourceAvailable(String path)
+    {
+        return true;
+    }
     
 }
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.providers.repository;
 
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsWriter;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -52,6 +53,9 @@ public class ParallelDownloadRemoteArtifactTest
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private ArtifactDownloadStatisticsWriter artifactDownloadStatisticsWriter;
+
     @Override
     public InputStream getInputStream()
     {
@@ -126,7 +130,9 @@ public class ParallelDownloadRemoteArtifactTest
         assertThat(result).hasSize(concurrency);
 
         assertThat(actual).isEqualTo(expected);
-        
+
+        artifactDownloadStatisticsWriter.flush();
+
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId,
                                                                        repositoryId,
                                                                        path);
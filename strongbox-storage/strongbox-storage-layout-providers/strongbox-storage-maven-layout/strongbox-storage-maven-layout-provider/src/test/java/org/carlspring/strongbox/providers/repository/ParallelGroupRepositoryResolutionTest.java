@@ -0,0 +1,292 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.context.TestPropertySource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+/**
+ * Checks that the parallel group resolution only contacts the remote repositories of the proxy members when no member
+ * has the path locally, that the remote repositories are asked for a miss concurrently, and that an unavailable remote
+ * repository is not remembered as a miss. The tests run one at a time, as they stub the shared remote repository
+ * aliveness.
+ */
+@TestPropertySource(properties = { "strongbox.storage.groupRepository.parallelResolution.enabled=true",
+                                   "strongbox.storage.groupRepository.negativeLookupCache.expireAfterWriteSeconds=60" })
+@Execution(SAME_THREAD)
+public class ParallelGroupRepositoryResolutionTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY_PROXY_1 = "pgrrt-proxy-1";
+
+    private static final String REPOSITORY_RELEASES_1 = "pgrrt-releases-1";
+
+    private static final String REPOSITORY_GROUP_1 = "pgrrt-group-1";
+
+    private static final String REPOSITORY_PROXY_2 = "pgrrt-proxy-2";
+
+    private static final String REPOSITORY_RELEASES_2 = "pgrrt-releases-2";
+
+    private static final String REPOSITORY_GROUP_2 = "pgrrt-group-2";
+
+    private static final String REPOSITORY_PROXY_3 = "pgrrt-proxy-3";
+
+    private static final String REPOSITORY_GROUP_3 = "pgrrt-group-3";
+
+    private static final String REPOSITORY_PROXY_4 = "pgrrt-proxy-4";
+
+    private static final String REPOSITORY_PROXY_5 = "pgrrt-proxy-5";
+
+    private static final String REPOSITORY_PROXY_6 = "pgrrt-proxy-6";
+
+    private static final String REPOSITORY_PROXY_7 = "pgrrt-proxy-7";
+
+    private static final String REPOSITORY_GROUP_4 = "pgrrt-group-4";
+
+    private static final long REMOTE_LATENCY_MILLIS = 1000;
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private static final String UNAVAILABLE_PROXY_REPOSITORY_URL = "https://pgrrt.maven.example.org/maven2/";
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    private final AtomicInteger remoteRequestCount = new AtomicInteger();
+
+    private final Set<String> slowMissingPaths = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public InputStream getInputStream()
+    {
+        remoteRequestCount.incrementAndGet();
+        try
+        {
+            return jarArtifact.getInputStream();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isRemoteResourceAvailable(String path)
+    {
+        if (!slowMissingPaths.contains(path))
+        {
+            return true;
+        }
+
+        try
+        {
+            Thread.sleep(REMOTE_LATENCY_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return false;
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testHostedMemberHitDoesNotContactProxy(@MavenRepository(repositoryId = REPOSITORY_PROXY_1)
+                                                       @Remote(url = PROXY_REPOSITORY_URL)
+                                                       Repository proxyRepository,
+                                                       @MavenRepository(repositoryId = REPOSITORY_RELEASES_1)
+                                                       Repository releasesRepository,
+                                                       @Group({ REPOSITORY_PROXY_1,
+                                                                REPOSITORY_RELEASES_1 })
+                                                       @MavenRepository(repositoryId = REPOSITORY_GROUP_1)
+                                                       Repository groupRepository,
+                                                       @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_1,
+                                                                          id = "org.carlspring.strongbox.pgrrt:hosted",
+                                                                          versions = "1.0")
+                                                       Path artifactPath)
+            throws IOException
+    {
+        String path = RepositoryFiles.relativizePath((RepositoryPath) artifactPath.normalize());
+
+        RepositoryPath result = fetchPath(groupRepository, path);
+
+        // The proxy comes first in the group, but the hosted member has the path, so the remote is never contacted.
+        assertThat(result).isNotNull();
+        assertThat(result.getRepository().getId()).isEqualTo(REPOSITORY_RELEASES_1);
+        assertThat(remoteRequestCount.get()).isZero();
+        assertThat(Files.exists(repositoryPathResolver.resolve(proxyRepository, path))).isFalse();
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testProxyMemberIsContactedOnMiss(@MavenRepository(repositoryId = REPOSITORY_RELEASES_2)
+                                                 Repository releasesRepository,
+                                                 @MavenRepository(repositoryId = REPOSITORY_PROXY_2)
+                                                 @Remote(url = PROXY_REPOSITORY_URL)
+                                                 Repository proxyRepository,
+                                                 @Group({ REPOSITORY_RELEASES_2,
+                                                          REPOSITORY_PROXY_2 })
+                                                 @MavenRepository(repositoryId = REPOSITORY_GROUP_2)
+                                                 Repository groupRepository)
+            throws IOException
+    {
+        String path = getArtifactPath("org.apache.commons:commons-lang3:3.4");
+
+        RepositoryPath result = fetchPath(groupRepository, path);
+
+        assertThat(result).isNotNull();
+        assertThat(result.getRepository().getId()).isEqualTo(REPOSITORY_PROXY_2);
+        assertThat(remoteRequestCount.get()).isPositive();
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testUnavailableRemoteIsNotRememberedAsMiss(@MavenRepository(repositoryId = REPOSITORY_PROXY_3)
+                                                           @Remote(url = UNAVAILABLE_PROXY_REPOSITORY_URL)
+                                                           Repository proxyRepository,
+                                                           @Group({ REPOSITORY_PROXY_3 })
+                                                           @MavenRepository(repositoryId = REPOSITORY_GROUP_3)
+                                                           Repository groupRepository)
+            throws IOException
+    {
+        String path = getArtifactPath("org.apache.commons:commons-lang3:3.5");
+
+        setAlive(false);
+        try
+        {
+            assertThat(fetchPath(groupRepository, path)).isNull();
+        }
+        finally
+        {
+            setAlive(true);
+        }
+
+        // Once the remote is back, the path is fetched instead of being skipped as a recent miss.
+        RepositoryPath result = fetchPath(groupRepository, path);
+
+        assertThat(result).isNotNull();
+        assertThat(result.getRepository().getId()).isEqualTo(REPOSITORY_PROXY_3);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testProxyMembersAreCheckedConcurrentlyOnMiss(@MavenRepository(repositoryId = REPOSITORY_PROXY_4)
+                                                             @Remote(url = PROXY_REPOSITORY_URL)
+                                                             Repository proxyRepository4,
+                                                             @MavenRepository(repositoryId = REPOSITORY_PROXY_5)
+                                                             @Remote(url = PROXY_REPOSITORY_URL)
+                                                             Repository proxyRepository5,
+                                                             @MavenRepository(repositoryId = REPOSITORY_PROXY_6)
+                                                             @Remote(url = PROXY_REPOSITORY_URL)
+                                                             Repository proxyRepository6,
+                                                             @MavenRepository(repositoryId = REPOSITORY_PROXY_7)
+                                                             @Remote(url = PROXY_REPOSITORY_URL)
+                                                             Repository proxyRepository7,
+                                                             @Group({ REPOSITORY_PROXY_4,
+                                                                      REPOSITORY_PROXY_5,
+                                                                      REPOSITORY_PROXY_6,
+                                                                      REPOSITORY_PROXY_7 })
+                                                             @MavenRepository(repositoryId = REPOSITORY_GROUP_4)
+                                                             Repository groupRepository)
+            throws IOException
+    {
+        String missingPath = getArtifactPath("org.apache.commons:commons-lang3:3.6");
+
+        // Every remote takes a while to answer that it doesn't have the path.
+        slowMissingPaths.add(missingPath);
+        initContext(missingPath, this);
+        try
+        {
+            long start = System.nanoTime();
+
+            assertThat(fetchPath(groupRepository, missingPath)).isNull();
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Checking the remotes one after another would take at least four times the latency.
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(REMOTE_LATENCY_MILLIS)
+                                     .isLessThan(REMOTE_LATENCY_MILLIS * 5 / 2);
+        }
+        finally
+        {
+            cleanContext(missingPath);
+        }
+
+        // Nothing was downloaded for the miss.
+        assertThat(remoteRequestCount.get()).isZero();
+
+        String path = getArtifactPath("org.apache.commons:commons-lang3:3.7");
+
+        RepositoryPath result = fetchPath(groupRepository, path);
+
+        // All the remotes have the path, but it's only downloaded from the first member.
+        assertThat(result).isNotNull();
+        assertThat(result.getRepository().getId()).isEqualTo(REPOSITORY_PROXY_4);
+        assertThat(Files.exists(repositoryPathResolver.resolve(proxyRepository5, path))).isFalse();
+        assertThat(Files.exists(repositoryPathResolver.resolve(proxyRepository6, path))).isFalse();
+        assertThat(Files.exists(repositoryPathResolver.resolve(proxyRepository7, path))).isFalse();
+    }
+
+    private RepositoryPath fetchPath(Repository groupRepository,
+                                     String path)
+            throws IOException
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(groupRepository.getType());
+
+        return (RepositoryPath) repositoryProvider.fetchPath(repositoryPathResolver.resolve(groupRepository, path));
+    }
+
+    private void setAlive(boolean alive)
+    {
+        Mockito.when(remoteRepositoryAlivenessCacheManager.isAlive(
+                ArgumentMatchers.argThat(r -> r != null && UNAVAILABLE_PROXY_REPOSITORY_URL.equals(r.getUrl()))))
+               .thenReturn(alive);
+    }
+
+    private static String getArtifactPath(String gavtc)
+    {
+        return MavenArtifactUtils.convertArtifactToPath(MavenArtifactTestUtils.getArtifactFromGAVTC(gavtc));
+    }
+
+}
@@ -0,0 +1,219 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.RetryDownloadArtifactWithPermanentFailureStartingAtSomePointTest.PermanentBrokenArtifactInputStream;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that concurrent requests for the same uncached path of a proxy repository share a single remote fetch. The
+ * first remote request is held back, so that the other requests arrive while the fetch is still in flight.
+ */
+public class SingleFlightRemoteFetchTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY_PROXY_1 = "sfrft-proxy-1";
+
+    private static final String REPOSITORY_PROXY_2 = "sfrft-proxy-2";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private final int concurrency = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final Set<Thread> remoteRequestThreads = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean firstRemoteRequest = new AtomicBoolean(true);
+
+    private volatile boolean brokenRemote;
+
+    private volatile InputStream brokenArtifactInputStream;
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Override
+    public InputStream getInputStream()
+    {
+        remoteRequestThreads.add(Thread.currentThread());
+        if (firstRemoteRequest.compareAndSet(true, false))
+        {
+            try
+            {
+                Thread.sleep(1000);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (brokenRemote)
+        {
+            return brokenArtifactInputStream;
+        }
+
+        try
+        {
+            return jarArtifact.getInputStream();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConcurrentRequestsShareRemoteFetch(@MavenRepository(repositoryId = REPOSITORY_PROXY_1)
+                                                       @Remote(url = PROXY_REPOSITORY_URL)
+                                                       Repository proxyRepository)
+            throws Exception
+    {
+        String path = getArtifactPath("org.apache.commons:commons-lang3:3.2");
+
+        List<Future<RepositoryPath>> results = fetchPathConcurrently(proxyRepository, path);
+
+        for (Future<RepositoryPath> result : results)
+        {
+            RepositoryPath repositoryPath = result.get();
+
+            assertThat(repositoryPath).isNotNull();
+            assertThat(Files.size(repositoryPath)).isEqualTo(Files.size(jarArtifact.getFile().toPath()));
+        }
+
+        // Only the request which started the fetch contacted the remote repository.
+        assertThat(remoteRequestThreads).hasSize(1);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testConcurrentRequestsShareFailedRemoteFetch(@MavenRepository(repositoryId = REPOSITORY_PROXY_2)
+                                                             @Remote(url = PROXY_REPOSITORY_URL)
+                                                             Repository proxyRepository)
+            throws Exception
+    {
+        String path = getArtifactPath("org.apache.commons:commons-lang3:3.3");
+
+        brokenArtifactInputStream = new PermanentBrokenArtifactInputStream(jarArtifact);
+        brokenRemote = true;
+
+        List<Future<RepositoryPath>> results = fetchPathConcurrently(proxyRepository, path);
+
+        // The requests which joined the fetch fail with the error of the request which made it, instead of retrying
+        // the remote repository one after another.
+        Set<Throwable> errors = new HashSet<>();
+        for (Future<RepositoryPath> result : results)
+        {
+            try
+            {
+                result.get();
+            }
+            catch (ExecutionException e)
+            {
+                errors.add(e.getCause());
+            }
+        }
+
+        assertThat(errors).hasSize(1);
+        assertThat(errors.iterator().next()).isInstanceOf(IOException.class)
+                                            .hasMessageMatching("Connection lost.");
+        assertThat(remoteRequestThreads).hasSize(1);
+        assertThat(Files.exists(repositoryPathResolver.resolve(proxyRepository, path))).isFalse();
+
+        // The failed fetch is not remembered, the next request goes for the remote repository again.
+        brokenRemote = false;
+
+        RepositoryPath repositoryPath = fetchPath(proxyRepository, path);
+
+        assertThat(repositoryPath).isNotNull();
+        assertThat(Files.size(repositoryPath)).isEqualTo(Files.size(jarArtifact.getFile().toPath()));
+    }
+
+    private List<Future<RepositoryPath>> fetchPathConcurrently(Repository repository,
+                                                               String path)
+            throws InterruptedException
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
+        try
+        {
+            CountDownLatch startLatch = new CountDownLatch(1);
+
+            List<Future<RepositoryPath>> result = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++)
+            {
+                Callable<RepositoryPath> task = () -> {
+                    initContext(this);
+                    try
+                    {
+                        startLatch.await();
+
+                        return fetchPath(repository, path);
+                    }
+                    finally
+                    {
+                        cleanContext();
+                    }
+                };
+                result.add(executorService.submit(task));
+            }
+            startLatch.countDown();
+
+            return result;
+        }
+        finally
+        {
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private RepositoryPath fetchPath(Repository repository,
+                                     String path)
+            throws IOException
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        return (RepositoryPath) repositoryProvider.fetchPath(repositoryPathResolver.resolve(repository, path));
+    }
+
+    private static String getArtifactPath(String gavtc)
+    {
+        return MavenArtifactUtils.convertArtifactToPath(MavenArtifactTestUtils.getArtifactFromGAVTC(gavtc));
+    }
+
+}
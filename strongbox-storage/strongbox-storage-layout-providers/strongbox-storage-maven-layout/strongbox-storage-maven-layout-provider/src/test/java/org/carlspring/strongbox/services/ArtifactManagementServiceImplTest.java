@@ -2,11 +2,13 @@ package org.carlspring.strongbox.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsWriter;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -91,6 +93,16 @@ public class ArtifactManagementServiceImplTest
 
     private static final String LAST_VERSION_RELEASES = "last-version-releases";
 
+    private static final String LAST_VERSION_ARTIFACT_ID = "org.carlspring.strongbox:strongbox-lv-group-artifact";
+
+    private static final String LAST_VERSION_RELEASES_DELETE = "last-version-releases-delete";
+
+    private static final String LAST_VERSION_RELEASES_DELETE_OLDER = "last-version-releases-delete-older";
+
+    private static final String LAST_VERSION_RELEASES_LEGACY = "last-version-releases-legacy";
+
+    private static final String LAST_VERSION_RELEASES_REDEPLOY = "last-version-releases-redeploy";
+
     @Inject
     private ArtifactManagementService mavenArtifactManagementService;
 
@@ -109,6 +121,12 @@ public class ArtifactManagementServiceImplTest
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private ArtifactDownloadStatisticsWriter artifactDownloadStatisticsWriter;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -522,6 +540,8 @@ public class ArtifactManagementServiceImplTest
             assertThat(Long.valueOf(CONTENT_SIZE)).as(message).isEqualTo(resultList.get(i));
         }
 
+        artifactDownloadStatisticsWriter.flush();
+
         RepositoryPath repositoryPathResult = repositoryPathResolver.resolve(repository, path);
         ArtifactEntry artifactEntry = repositoryPathResult.getArtifactEntry();
 
@@ -638,6 +658,114 @@ public class ArtifactManagementServiceImplTest
         assertThat(artifactEntryWithClassifier.getTagSet()).isEmpty();
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class })
+    @Test
+    public void testLastVersionMovesOnDelete(@MavenRepository(repositoryId = LAST_VERSION_RELEASES_DELETE)
+                                             Repository repository)
+            throws Exception
+    {
+        RepositoryPath v1 = storeLastVersionArtifact(repository, "1.0");
+        RepositoryPath v2 = storeLastVersionArtifact(repository, "2.0");
+        RepositoryPath v2Sources = storeLastVersionArtifact(repository, "2.0:jar:sources");
+        RepositoryPath v3 = storeLastVersionArtifact(repository, "3.0");
+
+        assertLastVersion(v3, true);
+        assertLastVersion(v2, false);
+
+        mavenArtifactManagementService.delete(v3, false);
+
+        // The tag moves to all the artifacts of the next highest version.
+        assertLastVersion(v2, true);
+        assertLastVersion(v2Sources, true);
+        assertLastVersion(v1, false);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class })
+    @Test
+    public void testLastVersionKeptOnDeleteOfOlderVersion(@MavenRepository(repositoryId = LAST_VERSION_RELEASES_DELETE_OLDER)
+                                                          Repository repository)
+            throws Exception
+    {
+        RepositoryPath v1 = storeLastVersionArtifact(repository, "1.0");
+        RepositoryPath v2 = storeLastVersionArtifact(repository, "2.0");
+        RepositoryPath v3 = storeLastVersionArtifact(repository, "3.0");
+
+        mavenArtifactManagementService.delete(v2, false);
+
+        assertLastVersion(v3, true);
+        assertLastVersion(v1, false);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class })
+    @Test
+    public void testLastVersionOfLegacyGroup(@MavenRepository(repositoryId = LAST_VERSION_RELEASES_LEGACY)
+                                             Repository repository)
+            throws Exception
+    {
+        RepositoryPath v1 = storeLastVersionArtifact(repository, "1.0");
+        RepositoryPath v2 = storeLastVersionArtifact(repository, "2.0");
+
+        // The groups stored before the last version entries were kept with them only have the tagged entries.
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(repository.getStorage().getId(),
+                                                                                                repository.getId(),
+                                                                                                LAST_VERSION_ARTIFACT_ID);
+        assertThat(artifactGroup.getLastVersionEntries()).isNotEmpty();
+        artifactGroup.setLastVersionEntries(null);
+        repositoryArtifactIdGroupService.save(artifactGroup);
+
+        RepositoryPath v3 = storeLastVersionArtifact(repository, "3.0");
+
+        assertLastVersion(v3, true);
+        assertLastVersion(v2, false);
+        assertLastVersion(v1, false);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class })
+    @Test
+    public void testLastVersionKeptOnRedeploy(@MavenRepository(repositoryId = LAST_VERSION_RELEASES_REDEPLOY)
+                                              Repository repository)
+            throws Exception
+    {
+        RepositoryPath v1 = storeLastVersionArtifact(repository, "1.0");
+        RepositoryPath v2 = storeLastVersionArtifact(repository, "2.0");
+
+        storeLastVersionArtifact(repository, "2.0");
+
+        assertLastVersion(v2, true);
+        assertLastVersion(v1, false);
+    }
+
+    private RepositoryPath storeLastVersionArtifact(Repository repository,
+                                                    String version)
+            throws IOException
+    {
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC(LAST_VERSION_ARTIFACT_ID + ":" + version);
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository,
+                                                                       MavenArtifactUtils.convertArtifactToPath(artifact));
+
+        try (InputStream is = new ByteArrayInputStream("strongbox-lv-artifact-content".getBytes(StandardCharsets.UTF_8)))
+        {
+            mavenArtifactManagementService.validateAndStore(repositoryPath, is);
+        }
+
+        return repositoryPath;
+    }
+
+    private void assertLastVersion(RepositoryPath repositoryPath,
+                                   boolean lastVersion)
+            throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                           repository.getId(),
+                                                                           RepositoryFiles.relativizePath(repositoryPath));
+
+        assertThat(artifactEntry.getTagSet().stream().map(ArtifactTag::getName))
+                .as(repositoryPath.toString())
+                .containsExactlyElementsOf(lastVersion ? Collections.singletonList(ArtifactTag.LAST_VERSION)
+                                                       : Collections.emptyList());
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ChecksumRegenerationCheckpointEntry;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
@@ -13,6 +14,7 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.codec.digest.MessageDigestAlgorithms;
@@ -57,6 +59,9 @@ public class MavenChecksumServiceTest
     @Inject
     private ChecksumService checksumService;
 
+    @Inject
+    private ChecksumRegenerationCheckpointService checksumRegenerationCheckpointService;
+
     @Test
     @ExtendWith({RepositoryManagementTestExecutionListener.class, 
                  ArtifactManagementTestExecutionListener.class})
@@ -403,4 +408,54 @@ public class MavenChecksumServiceTest
                 .isTrue();
     }
 
+    @Test
+    @ExtendWith({RepositoryManagementTestExecutionListener.class,
+                 ArtifactManagementTestExecutionListener.class})
+    public void testResumeMavenChecksumRegeneration(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                    Repository repository,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                       id = "org.carlspring.strongbox.checksum.resume:resume-a",
+                                                                       versions = "1.0")
+                                                    Path artifact1,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                       id = "org.carlspring.strongbox.checksum.resume:resume-b",
+                                                                       versions = "1.0")
+                                                    Path artifact2)
+            throws IOException,
+                   XmlPullParserException,
+                   NoSuchAlgorithmException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String basePath = "org/carlspring/strongbox/checksum/resume";
+
+        artifactMetadataService.rebuildMetadata(storageId, repositoryId, basePath);
+
+        Path artifact1Sha1 = artifact1.resolveSibling(artifact1.getFileName() + ".sha1");
+        deleteIfExists(artifact1Sha1);
+        Path artifact2Sha1 = artifact2.resolveSibling(artifact2.getFileName() + ".sha1");
+        deleteIfExists(artifact2Sha1);
+
+        // The interrupted regeneration has completed the first artifact directory.
+        ChecksumRegenerationCheckpointEntry checkpoint = new ChecksumRegenerationCheckpointEntry(storageId,
+                                                                                                 repositoryId,
+                                                                                                 basePath);
+        checkpoint.setForceRegeneration(false);
+        checkpoint.setStartedAt(new Date());
+        checkpoint.setLastPath(basePath + "/resume-a");
+        checksumRegenerationCheckpointService.saveCheckpoint(checkpoint);
+
+        checksumService.regenerateChecksum(storageId, repositoryId, basePath, false);
+
+        assertThat(Files.exists(artifact1Sha1))
+                .as("The checksum file of the completed directory was written again!")
+                .isFalse();
+        assertThat(Files.exists(artifact2Sha1))
+                .as("The checksum file for artifact doesn't exist!")
+                .isTrue();
+        assertThat(checksumRegenerationCheckpointService.findCheckpoint(storageId, repositoryId, basePath))
+                .as("The checkpoint of the completed regeneration was not removed!")
+                .isEmpty();
+    }
+
 }
@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.storage.indexing.local;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator.RepositoryIndexCreatorQualifier;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.testing.MavenIndexedRepositorySetup;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The scheduled flushes are pushed out of the way, so that the test controls when the index is updated and packed.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@TestPropertySource(properties = { "strongbox.maven.index.incremental.flushIntervalMillis=3600000",
+                                   "strongbox.maven.index.incremental.packIntervalMillis=3600000" })
+public class RepositoryHostedIndexIncrementalUpdaterFlushTest
+{
+
+    private static final String REPOSITORY_RELEASES = "rhiiuft-releases";
+
+    private static final String GROUP_ID = "org.carlspring.strongbox.rhiiuft";
+
+    private static final String ARTIFACT_ID = "rhiiuft-artifact";
+
+    @Inject
+    @RepositoryIndexCreatorQualifier(RepositoryTypeEnum.HOSTED)
+    private RepositoryIndexCreator repositoryIndexCreator;
+
+    @Inject
+    private RepositoryHostedIndexIncrementalUpdater repositoryHostedIndexIncrementalUpdater;
+
+    @Inject
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testChangesArePackedAtPackInterval(@MavenRepository(repositoryId = REPOSITORY_RELEASES,
+                                                                    setup = MavenIndexedRepositorySetup.class)
+                                                   Repository repository,
+                                                   @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                      id = GROUP_ID + ":" + ARTIFACT_ID,
+                                                                      versions = { "1.0",
+                                                                                   "1.1" })
+                                                   List<Path> artifactPaths)
+            throws Exception
+    {
+        final RepositoryPath indexDirectoryPath = repositoryIndexCreator.apply(repository);
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index.gz")).matches(Files::exists);
+
+        // The changes collected while the artifacts were deployed are indexed and the first pack is not delayed.
+        repositoryHostedIndexIncrementalUpdater.flush();
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index.1.gz")).matches(Files::exists);
+
+        artifactEventListenerRegistry.dispatchArtifactStoredEvent(artifactPaths.get(1));
+
+        // The change is indexed, but is not packed until the pack interval elapses.
+        repositoryHostedIndexIncrementalUpdater.flush();
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index.2.gz")).matches(p -> !Files.exists(p));
+
+        repositoryHostedIndexIncrementalUpdater.flush(true);
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index.2.gz")).matches(Files::exists);
+        assertThat(indexDirectoryPath.resolve("nexus-maven-repository-index.3.gz")).matches(p -> !Files.exists(p));
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.carlspring.strongbox.storage.indexing.local;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepositoryHostedIndexIncrementalUpdaterTest
+{
+
+    @Test
+    public void testStoredArtifactVersions()
+    {
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/1.0/foo-1.0.jar", false))
+                .containsOnly(new IndexedArtifactVersion("org.carlspring", "foo", "1.0"));
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/1.0/foo-1.0-sources.jar", false))
+                .containsOnly(new IndexedArtifactVersion("org.carlspring", "foo", "1.0"));
+
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/1.0/foo-1.0.jar.sha1", false)).isEmpty();
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/maven-metadata.xml", false)).isEmpty();
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/maven-metadata.xml.md5", false)).isEmpty();
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/1.0", false)).isEmpty();
+    }
+
+    @Test
+    public void testDeletedDirectoryArtifactVersions()
+    {
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/carlspring/foo/1.0", true))
+                .containsOnly(new IndexedArtifactVersion("org.carlspring.foo", "1.0", null),
+                              new IndexedArtifactVersion("org.carlspring", "foo", "1.0"));
+        assertThat(RepositoryHostedIndexIncrementalUpdater.getIndexedArtifactVersions(
+                "org/foo", true))
+                .containsOnly(new IndexedArtifactVersion("org", "foo", null));
+    }
+
+    @Test
+    public void testUinfoPrefix()
+    {
+        assertThat(new IndexedArtifactVersion("org.carlspring", "foo", "1.0").getUinfoPrefix())
+                .isEqualTo("org.carlspring|foo|1.0|");
+        assertThat(new IndexedArtifactVersion("org.carlspring", "foo", null).getUinfoPrefix())
+                .isEqualTo("org.carlspring|foo|");
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+
+/**
+ * The sequence of the last npm change which was replicated into a remote repository. This is kept apart from the
+ * repository configuration, as it changes with every replicated batch of the changes feed.
+ */
+@Entity
+public class NpmChangesFeedCheckpointEntry
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private Long lastChangeId;
+
+    public NpmChangesFeedCheckpointEntry()
+    {
+    }
+
+    public NpmChangesFeedCheckpointEntry(String storageId,
+                                         String repositoryId)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.uuid = calculateUuid(storageId, repositoryId);
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public Long getLastChangeId()
+    {
+        return lastChangeId;
+    }
+
+    public void setLastChangeId(Long lastChangeId)
+    {
+        this.lastChangeId = lastChangeId;
+    }
+
+    public static String calculateUuid(String storageId,
+                                       String repositoryId)
+    {
+        return String.format("npm-changes-feed:%s:%s", storageId, repositoryId);
+    }
+
+}
@@ -0,0 +1,242 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the serialized npm package documents ("packuments"), so that `npm install` doesn't rebuild the whole
+ * document of a package from the database and the checksum files for every request.
+ * <p>
+ * The documents are grouped by package id, and all the documents of a package (in every repository, as the document
+ * of a group repository depends on its members) are invalidated when a package file is stored or deleted, or when
+ * the package is refreshed from a remote registry. The documents of proxy repositories also expire after the
+ * configured time, as a cached document doesn't trigger the remote refresh. The invalidations of a transaction are
+ * applied once it commits.
+ */
+@Component
+public class NpmPackageFeedCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmPackageFeedCache.class);
+
+    private static final Set<ArtifactEventTypeEnum> INVALIDATE_EVENT_TYPES = EnumSet.of(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+                                                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+                                                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE,
+                                                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED,
+                                                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED,
+                                                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED);
+
+    @Value("${strongbox.npm.packageFeedCache.maxSize:10000}")
+    private long maxSize;
+
+    @Value("${strongbox.npm.packageFeedCache.expireAfterWriteSeconds:300}")
+    private long expireAfterWriteSeconds;
+
+    private Cache<String, ConcurrentMap<String, CachedPackageFeed>> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                            .build();
+
+        logger.info("npm package feed cache will keep up to [{}] packages for [{}] seconds.",
+                    maxSize, expireAfterWriteSeconds);
+    }
+
+    /**
+     * Returns the cached document of the package, the document is created with the given loader if it was not
+     * cached yet.
+     *
+     * @param abbreviated whether this is the abbreviated ("corgi") document which is requested by `npm install`
+     */
+    public CachedPackageFeed get(Repository repository,
+                                 String packageId,
+                                 boolean abbreviated,
+                                 PackageFeedLoader loader)
+            throws IOException
+    {
+        ConcurrentMap<String, CachedPackageFeed> packageFeeds;
+        try
+        {
+            packageFeeds = cache.get(packageId, ConcurrentHashMap::new);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IOException(e.getCause());
+        }
+
+        String key = String.format("%s:%s:%s",
+                                   repository.getStorage().getId(),
+                                   repository.getId(),
+                                   abbreviated ? "abbreviated" : "full");
+
+        CachedPackageFeed result = packageFeeds.get(key);
+        if (result != null)
+        {
+            return result;
+        }
+
+        // The document is loaded outside of the map lock, a concurrent invalidation just drops the whole map.
+        result = new CachedPackageFeed(loader.load());
+        CachedPackageFeed existing = packageFeeds.putIfAbsent(key, result);
+
+        return existing != null ? existing : result;
+    }
+
+    /**
+     * Invalidates the documents of the package. Within a transaction this happens after the commit, otherwise a
+     * request between the invalidation and the commit would cache the document without the change again.
+     */
+    public void invalidate(String packageId)
+    {
+        afterCommit(() -> cache.invalidate(packageId));
+    }
+
+    public void invalidateAll()
+    {
+        afterCommit(cache::invalidateAll);
+    }
+
+    private static void afterCommit(Runnable action)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            action.run();
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+        {
+            @Override
+            public void afterCommit()
+            {
+                action.run();
+            }
+        });
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+            throws IOException
+    {
+        if (INVALIDATE_EVENT_TYPES.stream().noneMatch(t -> t.getType() == event.getType()))
+        {
+            return;
+        }
+
+        invalidateIfNpmPath(event.getPath());
+        invalidateIfNpmPath(event.getTargetPath());
+    }
+
+    private void invalidateIfNpmPath(Path path)
+            throws IOException
+    {
+        if (!(path instanceof RepositoryPath))
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) path;
+        if (!NpmLayoutProvider.ALIAS.equals(repositoryPath.getRepository().getLayout()))
+        {
+            return;
+        }
+
+        String packageId = getPackageId(RepositoryFiles.relativizePath(repositoryPath));
+        if (packageId == null)
+        {
+            // The whole repository (or scope) was changed.
+            invalidateAll();
+
+            return;
+        }
+
+        invalidate(packageId);
+    }
+
+    /**
+     * Returns the package id of the path within an npm repository (`{scope}/{name}/{version}/{file}` or
+     * `{name}/{version}/{file}`), or {@code null} if the path is a scope directory or the repository root.
+     */
+    static String getPackageId(String path)
+    {
+        String[] elements = path.split("/");
+        if (elements.length == 0 || elements[0].isEmpty())
+        {
+            return null;
+        }
+        if (!elements[0].startsWith("@"))
+        {
+            return elements[0];
+        }
+
+        return elements.length > 1 ? elements[0] + "/" + elements[1] : null;
+    }
+
+    @FunctionalInterface
+    public interface PackageFeedLoader
+    {
+
+        byte[] load()
+                throws IOException;
+
+    }
+
+    /**
+     * Serialized package document with its strong entity tag.
+     */
+    public static class CachedPackageFeed
+    {
+
+        private final byte[] content;
+
+        private final String eTag;
+
+        public CachedPackageFeed(byte[] content)
+        {
+            this.content = content;
+            this.eTag = "\"" + DigestUtils.sha1Hex(content) + "\"";
+        }
+
+        public byte[] getContent()
+        {
+            return content;
+        }
+
+        public String getETag()
+        {
+            return eTag;
+        }
+
+    }
+
+}
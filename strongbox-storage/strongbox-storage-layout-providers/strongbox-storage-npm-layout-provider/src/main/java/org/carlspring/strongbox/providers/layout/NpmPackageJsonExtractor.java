@@ -0,0 +1,418 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.springframework.util.Assert;
+
+/**
+ * Extracts the `package.json` from an npm package tarball (`.tgz`) while the tarball is written into it, so that the
+ * tarball can be stored and inspected within a single pass.
+ * <p>
+ * Only the first `package.json` entry of the tarball is kept in memory, the rest of the tarball is decompressed only
+ * up to this entry and then ignored.
+ */
+public class NpmPackageJsonExtractor
+        extends OutputStream
+{
+
+    private static final String PACKAGE_JSON = "package.json";
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private static final int GZIP_FEXTRA = 4;
+
+    private static final int GZIP_FNAME = 8;
+
+    private static final int GZIP_FCOMMENT = 16;
+
+    private static final int GZIP_FHCRC = 2;
+
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    private static final int MAX_EXTENDED_HEADER_SIZE = 64 * 1024;
+
+    /**
+     * The `package.json` size is read from the untrusted tar header, so it's limited before its buffer is allocated.
+     */
+    public static final int MAX_PACKAGE_JSON_SIZE = 8 * 1024 * 1024;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] inflaterBuffer = new byte[8192];
+
+    private ByteArrayOutputStream gzipHeader = new ByteArrayOutputStream();
+
+    private final byte[] tarHeader = new byte[TAR_BLOCK_SIZE];
+
+    private int tarHeaderLength;
+
+    private long entryRemaining;
+
+    private long entryPadding;
+
+    private ByteArrayOutputStream entryContent;
+
+    private EntryType entryType;
+
+    private String nextEntryName;
+
+    private byte[] packageJson;
+
+    private boolean done;
+
+    @Override
+    public void write(int b)
+            throws IOException
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+            throws IOException
+    {
+        if (done || len == 0)
+        {
+            return;
+        }
+
+        if (gzipHeader != null)
+        {
+            gzipHeader.write(b, off, len);
+
+            byte[] header = gzipHeader.toByteArray();
+            int headerLength = getGzipHeaderLength(header);
+            if (headerLength < 0)
+            {
+                return;
+            }
+
+            gzipHeader = null;
+            inflate(header, headerLength, header.length - headerLength);
+
+            return;
+        }
+
+        inflate(b, off, len);
+    }
+
+    @Override
+    public void close()
+    {
+        inflater.end();
+    }
+
+    /**
+     * @return the content of the `package.json`, or {@code null} if the tarball has no `package.json` (or it was
+     *         not written completely yet)
+     */
+    public byte[] getPackageJson()
+    {
+        return packageJson;
+    }
+
+    private void inflate(byte[] b,
+                         int off,
+                         int len)
+            throws IOException
+    {
+        inflater.setInput(b, off, len);
+        try
+        {
+            int n;
+            while (!done && (n = inflater.inflate(inflaterBuffer)) > 0)
+            {
+                readTar(inflaterBuffer, 0, n);
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Invalid npm package tarball.", e);
+        }
+
+        if (inflater.finished())
+        {
+            done = true;
+        }
+    }
+
+    private void readTar(byte[] b,
+                         int off,
+                         int len)
+            throws IOException
+    {
+        while (len > 0 && !done)
+        {
+            int n;
+            if (entryRemaining > 0)
+            {
+                n = (int) Math.min(len, entryRemaining);
+                if (entryContent != null)
+                {
+                    entryContent.write(b, off, n);
+                }
+
+                entryRemaining -= n;
+                if (entryRemaining == 0)
+                {
+                    finishEntry();
+                }
+            }
+            else if (entryPadding > 0)
+            {
+                n = (int) Math.min(len, entryPadding);
+                entryPadding -= n;
+            }
+            else
+            {
+                n = Math.min(len, TAR_BLOCK_SIZE - tarHeaderLength);
+                System.arraycopy(b, off, tarHeader, tarHeaderLength, n);
+
+                tarHeaderLength += n;
+                if (tarHeaderLength == TAR_BLOCK_SIZE)
+                {
+                    tarHeaderLength = 0;
+                    readTarHeader();
+                }
+            }
+
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void readTarHeader()
+            throws IOException
+    {
+        if (isZeroBlock(tarHeader))
+        {
+            // End of the archive.
+            done = true;
+
+            return;
+        }
+
+        String name = nextEntryName != null ? nextEntryName : readTarEntryName();
+        nextEntryName = null;
+
+        long size = readTarEntrySize();
+        entryRemaining = size;
+        entryPadding = (TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+
+        byte typeFlag = tarHeader[156];
+        if (typeFlag == 'L' || typeFlag == 'x')
+        {
+            entryType = typeFlag == 'L' ? EntryType.LONG_NAME : EntryType.PAX_HEADER;
+            entryContent = size <= MAX_EXTENDED_HEADER_SIZE ? new ByteArrayOutputStream((int) size) : null;
+        }
+        else if ((typeFlag == '0' || typeFlag == 0) && name.endsWith(PACKAGE_JSON))
+        {
+            // An invalid package rather than a storage failure, like the package which doesn't match its checksums.
+            Assert.isTrue(size <= MAX_PACKAGE_JSON_SIZE,
+                          String.format("The [%s] of the npm package tarball exceeds [%s] bytes.",
+                                        name, MAX_PACKAGE_JSON_SIZE));
+
+            entryType = EntryType.PACKAGE_JSON;
+            entryContent = new ByteArrayOutputStream((int) size);
+        }
+        else
+        {
+            entryType = EntryType.OTHER;
+            entryContent = null;
+        }
+
+        if (size == 0)
+        {
+            finishEntry();
+        }
+    }
+
+    private void finishEntry()
+    {
+        if (entryContent == null)
+        {
+            return;
+        }
+
+        byte[] content = entryContent.toByteArray();
+        entryContent = null;
+
+        switch (entryType)
+        {
+            case PACKAGE_JSON:
+                packageJson = content;
+                done = true;
+
+                break;
+            case LONG_NAME:
+                nextEntryName = trimNul(new String(content, StandardCharsets.UTF_8));
+
+                break;
+            case PAX_HEADER:
+                nextEntryName = readPaxPath(content);
+
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String readTarEntryName()
+    {
+        String name = readString(tarHeader, 0, 100);
+        // Only the POSIX (`ustar\0`) header has the name prefix, the GNU (`ustar `) header has other fields there.
+        if (!"ustar".equals(readString(tarHeader, 257, 6)))
+        {
+            return name;
+        }
+
+        String prefix = readString(tarHeader, 345, 155);
+
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private long readTarEntrySize()
+    {
+        if ((tarHeader[124] & 0x80) != 0)
+        {
+            // GNU base-256 encoding of the large sizes.
+            long result = tarHeader[124] & 0x7f;
+            for (int i = 125; i < 136; i++)
+            {
+                result = (result << 8) | (tarHeader[i] & 0xff);
+            }
+
+            return result;
+        }
+
+        String size = readString(tarHeader, 124, 12).trim();
+
+        return size.isEmpty() ? 0 : Long.parseLong(size, 8);
+    }
+
+    /**
+     * The PAX extended header is a list of `{length} {key}={value}\n` records.
+     */
+    private static String readPaxPath(byte[] content)
+    {
+        String records = new String(content, StandardCharsets.UTF_8);
+        for (String record : records.split("\n"))
+        {
+            int keyStart = record.indexOf(' ') + 1;
+            if (record.startsWith("path=", keyStart))
+            {
+                return record.substring(keyStart + "path=".length());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the length of the gzip member header, or {@code -1} if the header is not complete yet
+     */
+    private static int getGzipHeaderLength(byte[] header)
+            throws IOException
+    {
+        if (header.length < 10)
+        {
+            return -1;
+        }
+
+        if (((header[0] & 0xff) | ((header[1] & 0xff) << 8)) != GZIP_MAGIC || header[2] != 8)
+        {
+            throw new IOException("Invalid npm package tarball, gzip header expected.");
+        }
+
+        int flags = header[3] & 0xff;
+        int result = 10;
+        if ((flags & GZIP_FEXTRA) != 0)
+        {
+            if (header.length < result + 2)
+            {
+                return -1;
+            }
+
+            result += 2 + ((header[result] & 0xff) | ((header[result + 1] & 0xff) << 8));
+        }
+        if ((flags & GZIP_FNAME) != 0)
+        {
+            result = skipNulTerminated(header, result);
+        }
+        if ((flags & GZIP_FCOMMENT) != 0)
+        {
+            result = skipNulTerminated(header, result);
+        }
+        if (result >= 0 && (flags & GZIP_FHCRC) != 0)
+        {
+            result += 2;
+        }
+
+        return result <= header.length ? result : -1;
+    }
+
+    private static int skipNulTerminated(byte[] b,
+                                         int off)
+    {
+        if (off < 0)
+        {
+            return off;
+        }
+
+        for (int i = off; i < b.length; i++)
+        {
+            if (b[i] == 0)
+            {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isZeroBlock(byte[] block)
+    {
+        for (byte b : block)
+        {
+            if (b != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String readString(byte[] b,
+                                     int off,
+                                     int len)
+    {
+        int end = off;
+        while (end < off + len && b[end] != 0)
+        {
+            end++;
+        }
+
+        return new String(b, off, end - off, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(String value)
+    {
+        int end = value.indexOf(0);
+
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    private enum EntryType
+    {
+        PACKAGE_JSON, LONG_NAME, PAX_HEADER, OTHER
+    }
+
+}
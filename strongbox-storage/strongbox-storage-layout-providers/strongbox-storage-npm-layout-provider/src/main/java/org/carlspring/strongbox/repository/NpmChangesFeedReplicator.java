@@ -0,0 +1,254 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
+import org.carlspring.strongbox.npm.metadata.Change;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.WebTarget;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Replicates the npm changes feed (`{replicateUrl}/_changes`) of a remote registry into a remote repository.
+ * <p>
+ * Every change is bound straight from the response stream, the package documents are persisted in batches, and the
+ * sequence of the last persisted change is checkpointed with {@link NpmChangesFeedCheckpointService} after each
+ * batch, so that an interrupted replication resumes from the last persisted change. The checkpoint is never moved past
+ * a document which failed to persist. All the requests of a replication share one client of the proxy connection pool.
+ */
+@Component
+public class NpmChangesFeedReplicator
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NpmChangesFeedReplicator.class);
+
+    @Inject
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Inject
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    @Inject
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
+    @Inject
+    @NpmObjectMapper
+    private ObjectMapper npmJacksonMapper;
+
+    @Value("${strongbox.npm.changesFeed.batchSize:500}")
+    private int batchSize;
+
+    @Value("${strongbox.npm.changesFeed.persistBatchSize:50}")
+    private int persistBatchSize;
+
+    /**
+     * Replicates all the changes after the given change.
+     *
+     * @return the sequence of the last replicated change
+     */
+    public long replicate(Repository repository,
+                          String replicateUrl,
+                          long lastChangeId)
+        throws IOException
+    {
+        Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
+        try
+        {
+            long nextChangeId = lastChangeId;
+            do
+            {
+                lastChangeId = nextChangeId;
+                nextChangeId = fetchChanges(repository, restClient, replicateUrl, lastChangeId);
+            } while (nextChangeId > lastChangeId);
+
+            return lastChangeId;
+        }
+        finally
+        {
+            restClient.close();
+        }
+    }
+
+    private long fetchChanges(Repository repository,
+                              Client restClient,
+                              String replicateUrl,
+                              long lastChangeId)
+        throws IOException
+    {
+        long since = lastChangeId + 1;
+        logger.debug("Fetching remote changes for [{}] since [{}].", replicateUrl, since);
+
+        WebTarget service = restClient.target(replicateUrl);
+        service = service.path("_changes");
+        service = service.queryParam("since", since);
+        service = service.queryParam("include_docs", true);
+        service = service.queryParam("limit", batchSize);
+
+        long result = lastChangeId;
+        List<Change> changes = new ArrayList<>(persistBatchSize);
+
+        try (InputStream is = service.request().buildGet().invoke(InputStream.class);
+             JsonParser jp = npmJacksonMapper.getFactory().createParser(is))
+        {
+            Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm changes feed should be JSON object.");
+            Assert.isTrue("results".equals(jp.nextFieldName()), "npm changes feed should contains `results` field.");
+            Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
+
+            while (jp.nextToken() == JsonToken.START_OBJECT)
+            {
+                Change change;
+                try
+                {
+                    change = jp.readValueAs(Change.class);
+                }
+                catch (IOException e)
+                {
+                    logger.error("Failed to parse NPM changes feed [{}] after [{}].",
+                                 replicateUrl,
+                                 changes.isEmpty() ? result : changes.get(changes.size() - 1).getSeq(),
+                                 e);
+
+                    break;
+                }
+
+                changes.add(change);
+                if (changes.size() >= persistBatchSize)
+                {
+                    result = persist(repository, changes);
+                }
+            }
+        }
+        finally
+        {
+            // A failed batch is cleared as well, so it isn't persisted again when the stream is closed.
+            if (!changes.isEmpty())
+            {
+                result = persist(repository, changes);
+            }
+        }
+
+        logger.debug("Fetched remote changes for [{}] since [{}] up to [{}].", replicateUrl, since, result);
+
+        return result;
+    }
+
+    /**
+     * Persists the package documents of the changes and then checkpoints the last change. When the batch can't be
+     * persisted, the documents are retried one by one in the order of the changes. The checkpoint is then moved up to
+     * the change before the first document which still fails, and the replication stops, so that the failed document
+     * is replicated again when the replication resumes.
+     *
+     * @return the sequence of the last change
+     */
+    private long persist(Repository repository,
+                         List<Change> changes)
+        throws IOException
+    {
+        try
+        {
+            long lastChangeId = changes.get(changes.size() - 1).getSeq();
+            parseFeeds(repository, changes, lastChangeId);
+
+            saveLastChangeId(repository, lastChangeId);
+
+            return lastChangeId;
+        }
+        finally
+        {
+            changes.clear();
+        }
+    }
+
+    private void parseFeeds(Repository repository,
+                            List<Change> changes,
+                            long lastChangeId)
+        throws IOException
+    {
+        List<PackageFeed> packageFeeds = changes.stream()
+                                                .map(Change::getDoc)
+                                                .filter(Objects::nonNull)
+                                                .collect(Collectors.toList());
+        if (packageFeeds.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            npmPackageFeedParser.parseFeeds(repository, packageFeeds);
+
+            return;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.warn("Failed to parse [{}] NPM feeds for [{}] up to change [{}], retrying one by one.",
+                        packageFeeds.size(),
+                        getRemoteRepositoryUrl(repository),
+                        lastChangeId,
+                        e);
+        }
+
+        Long persistedChangeId = null;
+        for (Change change : changes)
+        {
+            PackageFeed packageFeed = change.getDoc();
+            if (packageFeed != null)
+            {
+                try
+                {
+                    npmPackageFeedParser.parseFeed(repository, packageFeed);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    if (persistedChangeId != null)
+                    {
+                        saveLastChangeId(repository, persistedChangeId);
+                    }
+
+                    throw new IOException(String.format("Failed to parse NPM feed [%s] of change [%s] for [%s].",
+                                                        packageFeed.getName(),
+                                                        change.getSeq(),
+                                                        getRemoteRepositoryUrl(repository)),
+                                          e);
+                }
+            }
+
+            persistedChangeId = (long) change.getSeq();
+        }
+    }
+
+    private void saveLastChangeId(Repository repository,
+                                  long lastChangeId)
+    {
+        npmChangesFeedCheckpointService.saveLastChangeId(repository.getStorage().getId(),
+                                                         repository.getId(),
+                                                         lastChangeId);
+    }
+
+    private String getRemoteRepositoryUrl(Repository repository)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+
+        return remoteRepository != null ? remoteRepository.getUrl() : null;
+    }
+
+}
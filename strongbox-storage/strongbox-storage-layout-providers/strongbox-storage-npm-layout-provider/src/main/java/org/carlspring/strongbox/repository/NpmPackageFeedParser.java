@@ -1,36 +1,30 @@
 package org.carlspring.strongbox.repository;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
 
 import javax.inject.Inject;
-import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.npm.metadata.PackageEntry;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResult;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.npm.metadata.Versions;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
-import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
-import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache;
+import org.carlspring.strongbox.services.ArtifactEntryIngestionService;
 import org.carlspring.strongbox.services.ArtifactTagService;
-import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
-import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,16 +40,10 @@ public class NpmPackageFeedParser
     private ArtifactTagService artifactTagService;
 
     @Inject
-    private RepositoryPathResolver repositoryPathResolver;
+    private ArtifactEntryIngestionService artifactEntryIngestionService;
 
     @Inject
-    private ArtifactEntryService artifactEntryService;
-    
-    @Inject
-    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
-
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
+    private NpmPackageFeedCache npmPackageFeedCache;
 
     public void parseSearchResult(Repository repository,
                                   SearchResults searchResults)
@@ -89,15 +77,18 @@ public class NpmPackageFeedParser
                                       Set<ArtifactEntry> artifactToSaveSet)
         throws IOException
     {
-        for (ArtifactEntry e : artifactToSaveSet)
-        {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(e);
+        ArtifactEntryIngestionResult result = artifactEntryIngestionService.ingest(repository,
+                                                                                   artifactToSaveSet.stream());
 
-            saveArtifactEntry(repositoryPath);
-        }
+        artifactToSaveSet.stream()
+                         .map(e -> e.getArtifactCoordinates().getId())
+                         .distinct()
+                         .forEach(npmPackageFeedCache::invalidate);
+
+        result.getFailures()
+              .forEach((path, e) -> logger.warn("Failed to save the package [{}] of [{}].", path, repository.getId(), e));
     }
 
-    @Transactional
     public void parseFeed(Repository repository,
                           PackageFeed packageFeed)
         throws IOException
@@ -107,11 +98,42 @@ public class NpmPackageFeedParser
             return;
         }
 
+        parseFeeds(repository, Collections.singletonList(packageFeed));
+    }
+
+    /**
+     * Parses the versions of all the packages and saves the new versions with a single update of the artifact group
+     * for each of the packages (the artifacts are saved in batches, see the {@link ArtifactEntryIngestionService}).
+     */
+    public void parseFeeds(Repository repository,
+                           Collection<PackageFeed> packageFeeds)
+        throws IOException
+    {
         String repositoryId = repository.getId();
         String storageId = repository.getStorage().getId();
 
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
+        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
+        for (PackageFeed packageFeed : packageFeeds)
+        {
+            parseVersions(storageId, repositoryId, packageFeed, lastVersionTag, artifactToSaveSet);
+        }
+
+        saveArtifactEntrySet(repository, artifactToSaveSet);
+    }
+
+    private void parseVersions(String storageId,
+                               String repositoryId,
+                               PackageFeed packageFeed,
+                               ArtifactTag lastVersionTag,
+                               Set<ArtifactEntry> artifactToSaveSet)
+    {
+        if (packageFeed == null)
+        {
+            return;
+        }
+
         Versions versions = packageFeed.getVersions();
         if (versions == null)
         {
@@ -124,7 +146,6 @@ public class NpmPackageFeedParser
             return;
         }
 
-        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
         for (PackageVersion packageVersion : versionMap.values())
         {
             RemoteArtifactEntry remoteArtifactEntry = parseVersion(storageId, repositoryId, packageVersion);
@@ -140,38 +161,6 @@ public class NpmPackageFeedParser
 
             artifactToSaveSet.add(remoteArtifactEntry);
         }
-
-        saveArtifactEntrySet(repository, artifactToSaveSet);
-
-    }
-
-    private void saveArtifactEntry(RepositoryPath repositoryPath)
-        throws IOException
-    {
-        ArtifactEntry e = repositoryPath.getArtifactEntry();
-        
-        Repository repository = repositoryPath.getRepository();
-        Storage storage = repository.getStorage();
-        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
-
-        Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
-        lock.lock();
-
-        try
-        {
-            if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
-                                                    e.getArtifactCoordinates().toPath()))
-            {
-                return;
-            }
-
-            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
-        } 
-        finally
-        {
-            lock.unlock();
-        }
     }
 
     private RemoteArtifactEntry parseVersion(String storageId,
@@ -10,12 +10,12 @@ import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
-import org.carlspring.strongbox.npm.metadata.Change;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.RepositoryData;
@@ -33,7 +33,6 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,10 +42,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,14 +49,11 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.util.Assert;
 
 @Component
 public class NpmRepositoryFeatures implements RepositoryFeatures
 {
 
-    private static final int CHANGES_BATCH_SIZE = 500;
-
     private static final boolean ALLOWS_UNPUBLISH_DEFAULT = true;
 
     private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
@@ -97,6 +89,12 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
     @Inject
     private NpmPackageFeedParser npmPackageFeedParser;
 
+    @Inject
+    private NpmChangesFeedReplicator npmChangesFeedReplicator;
+
+    @Inject
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
     private Set<String> defaultArtifactCoordinateValidators;
 
     @PostConstruct
@@ -184,6 +182,11 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         }
     }
 
+    /**
+     * Replicates the remote changes feed, starting after the last replicated change of the previous replication (or
+     * after the `lastChangeId` of the repository configuration, if it was moved forward). The configuration is
+     * updated only once, when the replication is finished.
+     */
     public void fetchRemoteChangesFeed(String storageId,
                                        String repositoryId)
         throws IOException
@@ -198,137 +201,30 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             return;
         }
 
-        RepositoryDto mutableRepository = configurationManagementService.getMutableConfigurationClone()
-                                                                            .getStorage(storageId)
-                                                                            .getRepository(repositoryId);
-        NpmRemoteRepositoryConfigurationDto mutableConfiguration = (NpmRemoteRepositoryConfigurationDto) mutableRepository.getRemoteRepository()
-                                                                                                                                  .getCustomConfiguration();
-
         NpmRemoteRepositoryConfiguration configuration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
         if (configuration == null)
         {
             logger.warn("Remote npm configuration not found for [{}]/[{}]", storageId, repositoryId);
             return;
         }
-        Long lastCnahgeId = configuration.getLastChangeId();
+        long lastChangeId = Math.max(Optional.ofNullable(configuration.getLastChangeId()).orElse(0L),
+                                     npmChangesFeedCheckpointService.findLastChangeId(storageId, repositoryId)
+                                                                    .orElse(0L));
         String replicateUrl = configuration.getReplicateUrl();
 
-        Long nextChangeId = lastCnahgeId;
-        do
-        {
-            lastCnahgeId = nextChangeId;
-            mutableConfiguration.setLastChangeId(nextChangeId);
-            configurationManagementService.saveRepository(storageId, mutableRepository);
-
-            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1));
-        } while (nextChangeId > lastCnahgeId);
-    }
-
-    private Integer fetchRemoteChangesFeed(Repository repository,
-                                           String replicateUrl,
-                                           Long since)
-        throws IOException
-    {
-        int result = 0;
-        Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
-        try
-        {
-            logger.debug("Fetching remote changes for [{}] since [{}].", replicateUrl, since);
-
-            WebTarget service = restClient.target(replicateUrl);
-            service = service.path("_changes");
-            service = service.queryParam("since", since);
-            service = service.queryParam("include_docs", true);
-            service = service.queryParam("limit", CHANGES_BATCH_SIZE);
-
-            Invocation request = service.request().buildGet();
-
-            result = fetchRemoteChangesFeed(repository, request);
-        }
-        finally
-        {
-            restClient.close();
-        }
-
-        return result;
-    }
-
-    private int fetchRemoteChangesFeed(Repository repository,
-                                       Invocation request)
-        throws IOException
-    {
-        int result = 0;
-
-        RemoteRepository remoteRepository = repository.getRemoteRepository();
-        NpmRemoteRepositoryConfiguration repositoryConfiguration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
-
-        JsonFactory jfactory = new JsonFactory();
-
-        try (InputStream is = request.invoke(InputStream.class))
+        long nextChangeId = npmChangesFeedReplicator.replicate(repository, replicateUrl, lastChangeId);
+        if (Long.valueOf(nextChangeId).equals(configuration.getLastChangeId()))
         {
-
-            JsonParser jp = jfactory.createParser(is);
-            jp.setCodec(npmJacksonMapper);
-
-            Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm changes feed should be JSON object.");
-            Assert.isTrue(jp.nextFieldName().equals("results"), "npm changes feed should contains `results` field.");
-            Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
-
-            StringBuffer sb = new StringBuffer();
-            while (jp.nextToken() != null)
-            {
-                JsonToken nextToken = jp.currentToken();
-                if (nextToken == JsonToken.END_ARRAY)
-                {
-                    break;
-                }
-
-                JsonNode node = jp.readValueAsTree();
-                sb.append(node.toString());
-
-                String changeValue = sb.toString();
-
-                Change change;
-                try
-                {
-                    change = npmJacksonMapper.readValue(changeValue, Change.class);
-                }
-                catch (Exception e)
-                {
-                    logger.error("Failed to parse NPM changes feed [{}] since [{}]: \n {}",
-                                 repositoryConfiguration.getReplicateUrl(),
-                                 repositoryConfiguration.getLastChangeId(),
-                                 changeValue,
-                                 e);
-
-                    return result;
-                }
-
-                PackageFeed packageFeed = change.getDoc();
-                try
-                {
-                    npmPackageFeedParser.parseFeed(repository, packageFeed);
-                }
-                catch (Exception e)
-                {
-                    logger.error("Failed to parse NPM feed [{}/{}]",
-                                 ((RepositoryData)repository).getRemoteRepository().getUrl(),
-                                 packageFeed.getName(),
-                                 e);
-
-                }
-
-                result = change.getSeq();
-                sb = new StringBuffer();
-            }
-
+            return;
         }
 
-        logger.debug("Fetched remote changes for  [{}] since [{}].",
-                     repositoryConfiguration.getReplicateUrl(),
-                     repositoryConfiguration.getLastChangeId());
-
-        return result;
+        RepositoryDto mutableRepository = configurationManagementService.getMutableConfigurationClone()
+                                                                            .getStorage(storageId)
+                                                                            .getRepository(repositoryId);
+        NpmRemoteRepositoryConfigurationDto mutableConfiguration = (NpmRemoteRepositoryConfigurationDto) mutableRepository.getRemoteRepository()
+                                                                                                                                  .getCustomConfiguration();
+        mutableConfiguration.setLastChangeId(nextChangeId);
+        configurationManagementService.saveRepository(storageId, mutableRepository);
     }
 
     private void fetchRemotePackageFeed(String storageId,
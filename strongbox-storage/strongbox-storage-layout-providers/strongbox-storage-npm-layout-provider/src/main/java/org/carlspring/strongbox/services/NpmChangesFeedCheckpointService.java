@@ -0,0 +1,19 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.NpmChangesFeedCheckpointEntry;
+
+import java.util.Optional;
+
+public interface NpmChangesFeedCheckpointService
+        extends CrudService<NpmChangesFeedCheckpointEntry, String>
+{
+
+    Optional<Long> findLastChangeId(String storageId,
+                                    String repositoryId);
+
+    void saveLastChangeId(String storageId,
+                          String repositoryId,
+                          Long lastChangeId);
+
+}
@@ -0,0 +1,64 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.NpmChangesFeedCheckpointEntry;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class NpmChangesFeedCheckpointServiceImpl
+        extends CommonCrudService<NpmChangesFeedCheckpointEntry>
+        implements NpmChangesFeedCheckpointService
+{
+
+    @Override
+    public Optional<Long> findLastChangeId(String storageId,
+                                           String repositoryId)
+    {
+        return findCheckpoint(storageId, repositoryId).map(NpmChangesFeedCheckpointEntry::getLastChangeId);
+    }
+
+    @Override
+    public void saveLastChangeId(String storageId,
+                                 String repositoryId,
+                                 Long lastChangeId)
+    {
+        NpmChangesFeedCheckpointEntry checkpoint = findCheckpoint(storageId, repositoryId).orElseGet(
+                () -> new NpmChangesFeedCheckpointEntry(storageId, repositoryId));
+        checkpoint.setLastChangeId(lastChangeId);
+
+        save(checkpoint);
+    }
+
+    private Optional<NpmChangesFeedCheckpointEntry> findCheckpoint(String storageId,
+                                                                   String repositoryId)
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put("uuid", NpmChangesFeedCheckpointEntry.calculateUuid(storageId, repositoryId));
+
+        String sQuery = buildQuery(params);
+
+        OSQLSynchQuery<NpmChangesFeedCheckpointEntry> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(1);
+
+        List<NpmChangesFeedCheckpointEntry> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream().findFirst();
+    }
+
+    @Override
+    public Class<NpmChangesFeedCheckpointEntry> getEntityClass()
+    {
+        return NpmChangesFeedCheckpointEntry.class;
+    }
+
+}
@@ -15,12 +15,12 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
@@ -127,7 +127,7 @@ public class NpmArtifactGenerator
         crypt.reset();
         crypt.update(Files.readAllBytes(packagePath));
 
-        String shasum = Base64.getEncoder().encodeToString(crypt.digest());
+        String shasum = Hex.encodeHexString(crypt.digest());
         packageJson.getDist().setShasum(shasum);
     }
 
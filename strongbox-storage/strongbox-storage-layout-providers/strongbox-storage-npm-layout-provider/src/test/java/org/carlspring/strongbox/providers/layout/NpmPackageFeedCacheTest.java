@@ -0,0 +1,21 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NpmPackageFeedCacheTest
+{
+
+    @Test
+    public void testGetPackageId()
+    {
+        assertThat(NpmPackageFeedCache.getPackageId("react/16.5.0/react-16.5.0.tgz")).isEqualTo("react");
+        assertThat(NpmPackageFeedCache.getPackageId("react")).isEqualTo("react");
+        assertThat(NpmPackageFeedCache.getPackageId("@types/node/10.0.0/node-10.0.0.tgz")).isEqualTo("@types/node");
+        assertThat(NpmPackageFeedCache.getPackageId("@types/node")).isEqualTo("@types/node");
+
+        assertThat(NpmPackageFeedCache.getPackageId("@types")).isNull();
+        assertThat(NpmPackageFeedCache.getPackageId("")).isNull();
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NpmPackageJsonExtractorTest
+{
+
+    private static final String PACKAGE_JSON = "{\"name\":\"foo\",\"version\":\"1.0.0\"}";
+
+    @Test
+    public void testExtractPackageJson()
+            throws IOException
+    {
+        byte[] packageTgz = createPackageTgz("package/package.json");
+
+        for (int chunkSize : new int[]{ 1, 7, 513, packageTgz.length })
+        {
+            assertThat(extract(packageTgz, chunkSize)).isEqualTo(PACKAGE_JSON);
+        }
+    }
+
+    @Test
+    public void testExtractPackageJsonWithLongName()
+            throws IOException
+    {
+        StringBuilder directory = new StringBuilder("package/");
+        while (directory.length() < 120)
+        {
+            directory.append("nested/");
+        }
+
+        byte[] packageTgz = createPackageTgz(directory + "package.json");
+
+        assertThat(extract(packageTgz, 100)).isEqualTo(PACKAGE_JSON);
+    }
+
+    @Test
+    public void testNoPackageJson()
+            throws IOException
+    {
+        byte[] packageTgz = createPackageTgz(null);
+
+        try (NpmPackageJsonExtractor extractor = new NpmPackageJsonExtractor())
+        {
+            extractor.write(packageTgz);
+
+            assertThat(extractor.getPackageJson()).isNull();
+        }
+    }
+
+    @Test
+    public void testPackageJsonTooLarge()
+            throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new GzipCompressorOutputStream(result)))
+        {
+            writeEntry(tarOut, "package/package.json",
+                       StringUtils.repeat(' ', NpmPackageJsonExtractor.MAX_PACKAGE_JSON_SIZE + 1));
+        }
+        byte[] packageTgz = result.toByteArray();
+
+        try (NpmPackageJsonExtractor extractor = new NpmPackageJsonExtractor())
+        {
+            assertThatThrownBy(() -> extractor.write(packageTgz)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private String extract(byte[] packageTgz,
+                           int chunkSize)
+            throws IOException
+    {
+        try (NpmPackageJsonExtractor extractor = new NpmPackageJsonExtractor())
+        {
+            for (int off = 0; off < packageTgz.length; off += chunkSize)
+            {
+                extractor.write(packageTgz, off, Math.min(chunkSize, packageTgz.length - off));
+            }
+
+            return new String(extractor.getPackageJson(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] createPackageTgz(String packageJsonName)
+            throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new GzipCompressorOutputStream(result)))
+        {
+            tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
+
+            writeEntry(tarOut, "package/index.js", "module.exports = {};");
+            if (packageJsonName != null)
+            {
+                writeEntry(tarOut, packageJsonName, PACKAGE_JSON);
+            }
+        }
+
+        return result.toByteArray();
+    }
+
+    private void writeEntry(TarArchiveOutputStream tarOut,
+                            String name,
+                            String content)
+            throws IOException
+    {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(bytes.length);
+
+        tarOut.putArchiveEntry(entry);
+        tarOut.write(bytes);
+        tarOut.closeArchiveEntry();
+    }
+
+}
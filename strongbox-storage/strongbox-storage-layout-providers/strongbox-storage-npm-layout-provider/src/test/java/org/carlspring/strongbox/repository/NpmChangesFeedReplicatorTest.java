@@ -0,0 +1,182 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.config.NpmLayoutProviderTestConfig;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.NpmRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles(profiles = { "test", "NpmChangesFeedReplicatorTestConfig" })
+@ContextConfiguration(classes = { NpmLayoutProviderTestConfig.class })
+public class NpmChangesFeedReplicatorTest
+{
+
+    private static final String STORAGE = "storage-npm-ncfrt";
+
+    private static final String REPLICATE_URL = "https://replicate.npmjs.com";
+
+    private static final String FEED = "{\"results\": [" +
+                                       "{\"seq\": 1, \"id\": \"a\", \"doc\": {\"name\": \"a\"}}," +
+                                       "{\"seq\": 2, \"id\": \"b\", \"doc\": {\"name\": \"b\"}}," +
+                                       "{\"seq\": 3, \"id\": \"c\", \"doc\": {\"name\": \"c\"}}" +
+                                       "], \"last_seq\": 3}";
+
+    private static final String EMPTY_FEED = "{\"results\": [], \"last_seq\": 3}";
+
+    @Inject
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Inject
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    @Inject
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
+    @Inject
+    private NpmChangesFeedReplicator npmChangesFeedReplicator;
+
+    @BeforeEach
+    public void init()
+    {
+        reset(npmPackageFeedParser);
+        prepareRestClient();
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testReplicate(@NpmRepository(storageId = STORAGE, repositoryId = "ncfrt-releases-1")
+                              Repository repository)
+        throws IOException
+    {
+        assertThat(npmChangesFeedReplicator.replicate(repository, REPLICATE_URL, 0L)).isEqualTo(3L);
+
+        verify(npmPackageFeedParser).parseFeeds(any(Repository.class), anyCollection());
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repository.getId())).hasValue(3L);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testReplicateStopsAtFailedDocument(@NpmRepository(storageId = STORAGE, repositoryId = "ncfrt-releases-2")
+                                                   Repository repository)
+        throws IOException
+    {
+        doThrow(new IOException("b")).when(npmPackageFeedParser).parseFeeds(any(Repository.class), anyCollection());
+        doThrow(new IOException("b")).when(npmPackageFeedParser).parseFeed(any(Repository.class), argThat(isPackage("b")));
+
+        assertThatThrownBy(() -> npmChangesFeedReplicator.replicate(repository, REPLICATE_URL, 0L))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("change [2]");
+
+        // The batch is retried one document at a time up to the failing document, and the checkpoint stays before it.
+        verify(npmPackageFeedParser, times(2)).parseFeed(any(Repository.class), any(PackageFeed.class));
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repository.getId())).hasValue(1L);
+
+        // The failed document is replicated again when the replication resumes.
+        reset(npmPackageFeedParser);
+        prepareRestClient();
+
+        assertThat(npmChangesFeedReplicator.replicate(repository, REPLICATE_URL, 1L)).isEqualTo(3L);
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repository.getId())).hasValue(3L);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testReplicateKeepsCheckpointOfFailedBatch(@NpmRepository(storageId = STORAGE, repositoryId = "ncfrt-releases-3")
+                                                          Repository repository)
+        throws IOException
+    {
+        npmChangesFeedCheckpointService.saveLastChangeId(STORAGE, repository.getId(), 0L);
+
+        doThrow(new IOException()).when(npmPackageFeedParser).parseFeeds(any(Repository.class), anyCollection());
+        doThrow(new IOException()).when(npmPackageFeedParser).parseFeed(any(Repository.class), any(PackageFeed.class));
+
+        assertThatThrownBy(() -> npmChangesFeedReplicator.replicate(repository, REPLICATE_URL, 0L))
+                .isInstanceOf(IOException.class);
+
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repository.getId())).hasValue(0L);
+    }
+
+    private static ArgumentMatcher<PackageFeed> isPackage(String name)
+    {
+        return packageFeed -> packageFeed != null && name.equals(packageFeed.getName());
+    }
+
+    private void prepareRestClient()
+    {
+        Invocation mockedInvocation = mock(Invocation.class);
+        when(mockedInvocation.invoke(InputStream.class))
+                .thenReturn(new ByteArrayInputStream(FEED.getBytes(StandardCharsets.UTF_8)),
+                            new ByteArrayInputStream(EMPTY_FEED.getBytes(StandardCharsets.UTF_8)));
+
+        Invocation.Builder mockedBuilder = mock(Invocation.Builder.class);
+        when(mockedBuilder.buildGet()).thenReturn(mockedInvocation);
+
+        WebTarget mockedWebTarget = mock(WebTarget.class);
+        when(mockedWebTarget.path(anyString())).thenReturn(mockedWebTarget);
+        when(mockedWebTarget.queryParam(anyString(), any())).thenReturn(mockedWebTarget);
+        when(mockedWebTarget.request()).thenReturn(mockedBuilder);
+
+        Client mockedRestClient = mock(Client.class);
+        when(mockedRestClient.target(anyString())).thenReturn(mockedWebTarget);
+
+        when(proxyRepositoryConnectionPoolConfigurationService.getRestClient()).thenReturn(mockedRestClient);
+    }
+
+    @Profile("NpmChangesFeedReplicatorTestConfig")
+    @Configuration
+    public static class NpmChangesFeedReplicatorTestConfig
+    {
+
+        @Primary
+        @Bean
+        public ProxyRepositoryConnectionPoolConfigurationService mockedProxyRepositoryConnectionPoolConfigurationService()
+        {
+            return mock(ProxyRepositoryConnectionPoolConfigurationService.class);
+        }
+
+        @Primary
+        @Bean
+        public NpmPackageFeedParser mockedNpmPackageFeedParser()
+        {
+            return mock(NpmPackageFeedParser.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.config.NpmLayoutProviderTestConfig;
+import org.carlspring.strongbox.services.NpmChangesFeedCheckpointService;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = NpmLayoutProviderTestConfig.class)
+public class NpmChangesFeedCheckpointServiceImplTest
+{
+
+    private static final String STORAGE = "storage-npm-ncfcsit";
+
+    @Inject
+    private NpmChangesFeedCheckpointService npmChangesFeedCheckpointService;
+
+    @Test
+    public void testSaveLastChangeId()
+    {
+        String repositoryId = "ncfcsit-releases-1";
+
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repositoryId)).isEmpty();
+
+        npmChangesFeedCheckpointService.saveLastChangeId(STORAGE, repositoryId, 10L);
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repositoryId)).hasValue(10L);
+
+        // The checkpoint of the repository is moved.
+        npmChangesFeedCheckpointService.saveLastChangeId(STORAGE, repositoryId, 20L);
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repositoryId)).hasValue(20L);
+    }
+
+    @Test
+    public void testCheckpointsAreKeptPerRepository()
+    {
+        String repositoryId1 = "ncfcsit-releases-2";
+        String repositoryId2 = "ncfcsit-releases-3";
+
+        npmChangesFeedCheckpointService.saveLastChangeId(STORAGE, repositoryId1, 30L);
+        npmChangesFeedCheckpointService.saveLastChangeId(STORAGE, repositoryId2, 40L);
+
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repositoryId1)).hasValue(30L);
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId(STORAGE, repositoryId2)).hasValue(40L);
+        assertThat(npmChangesFeedCheckpointService.findLastChangeId("storage-npm-other", repositoryId1)).isEmpty();
+    }
+
+}
@@ -1,7 +1,6 @@
 package org.carlspring.strongbox.repository;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
 import org.carlspring.strongbox.client.ArtifactTransportException;
 import org.carlspring.strongbox.configuration.Configuration;
@@ -14,17 +13,13 @@ import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
-import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.ArtifactEntryIngestionService;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
-import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.services.support.ArtifactEntryIngestionResult;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
@@ -44,7 +39,6 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,12 +70,6 @@ public class NugetRepositoryFeatures
     @Inject
     private ArtifactTagService artifactTagService;
 
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
-
-    @Inject
-    private RepositoryPathResolver repositoryPathResolver;
-
     @Inject
     private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
 
@@ -98,8 +86,8 @@ public class NugetRepositoryFeatures
     private GenericSnapshotVersionValidator genericSnapshotVersionValidator;
 
     @Inject
-    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
-    
+    private ArtifactEntryIngestionService artifactEntryIngestionService;
+
     private Set<String> defaultMavenArtifactCoordinateValidators;
 
     @PostConstruct
@@ -234,26 +222,10 @@ public class NugetRepositoryFeatures
             artifactToSaveSet.add(remoteArtifactEntry);
         }
 
-        for (ArtifactEntry e : artifactToSaveSet)
-        {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, (NugetArtifactCoordinates) e.getArtifactCoordinates());
-
-            Storage storage = repository.getStorage();
-            ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
-            
-            Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
-            lock.lock();
-            
-            try
-            {
-                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-                repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
-            }
-            finally
-            {
-                lock.unlock();
-            }
-        }
+        ArtifactEntryIngestionResult result = artifactEntryIngestionService.ingest(repository,
+                                                                                   artifactToSaveSet.stream());
+        result.getFailures()
+              .forEach((path, e) -> logger.warn("Failed to save the package [{}] of [{}].", path, repositoryId, e));
     }
 
     protected Configuration getConfiguration()
@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.storage.metadata.nuget;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+/**
+ * Nuget nupkg which is read from a stream in a single pass, unlike the {@link TempNupkgFile}, which copies the whole
+ * package into a temporary file first.
+ * <p>
+ * Only the beginning of the package, up to the end of its specification file (which `nuget pack` writes as one of
+ * the first zip entries), is buffered to read the specification. The buffered beginning and the rest of the stream
+ * are then written with {@link #writeTo(OutputStream)}, which also calculates the package hash. The beginning of the
+ * package is kept in memory up to the given threshold, and in a temporary file above it.
+ */
+public class StreamingNupkg
+        implements AutoCloseable
+{
+
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private final InputStream inputStream;
+
+    private final DeferredFileOutputStream head;
+
+    private final Nuspec nuspec;
+
+    private String hash;
+
+    public StreamingNupkg(InputStream inputStream)
+            throws IOException,
+                   NugetFormatException
+    {
+        this(inputStream, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    public StreamingNupkg(InputStream inputStream,
+                          int memoryThreshold)
+            throws IOException,
+                   NugetFormatException
+    {
+        this.inputStream = inputStream;
+        this.head = new DeferredFileOutputStream(memoryThreshold, "nupkg", "head", null);
+
+        try
+        {
+            this.nuspec = readNuspec(new TeeInputStream(new CloseShieldInputStream(inputStream), head));
+        }
+        finally
+        {
+            head.close();
+        }
+    }
+
+    /**
+     * Reads the zip entries up to the specification file, every byte which is read is copied into the head of the
+     * package.
+     */
+    private static Nuspec readNuspec(InputStream packageStream)
+            throws IOException,
+                   NugetFormatException
+    {
+        try (ZipInputStream zipInputStream = new ZipInputStream(packageStream))
+        {
+            ZipEntry entry;
+            do
+            {
+                entry = zipInputStream.getNextEntry();
+            } while (entry != null && !isNuspecZipEntry(entry));
+
+            if (entry == null)
+            {
+                return null;
+            }
+
+            return Nuspec.parse(new CloseShieldInputStream(zipInputStream));
+        }
+    }
+
+    private static boolean isNuspecZipEntry(ZipEntry entry)
+    {
+        return !entry.isDirectory() && entry.getName().endsWith(Nuspec.DEFAULT_FILE_EXTENSION);
+    }
+
+    /**
+     * @return the specification of the package, or {@code null} if the package has no specification (or it's empty)
+     */
+    public Nuspec getNuspec()
+    {
+        return nuspec;
+    }
+
+    /**
+     * Writes the whole package and calculates its hash, this can be done only once, as the rest of the package is
+     * read from the stream.
+     *
+     * @return the size of the package
+     */
+    public long writeTo(OutputStream outputStream)
+            throws IOException
+    {
+        if (hash != null)
+        {
+            throw new IllegalStateException("The package was written already.");
+        }
+
+        MessageDigest messageDigest = DigestUtils.getSha512Digest();
+        long result;
+        try (OutputStream digestOutputStream = new DigestOutputStream(new CloseShieldOutputStream(outputStream),
+                                                                      messageDigest);
+             InputStream headInputStream = head.isInMemory() ? new ByteArrayInputStream(head.getData()) :
+                                           Files.newInputStream(head.getFile().toPath()))
+        {
+            result = IOUtils.copyLarge(headInputStream, digestOutputStream);
+            result += IOUtils.copyLarge(inputStream, digestOutputStream);
+        }
+
+        hash = Base64.getEncoder().encodeToString(messageDigest.digest());
+
+        return result;
+    }
+
+    /**
+     * @return the Base64 encoded SHA-512 hash of the package, which is available once the package was written
+     */
+    public String getHash()
+    {
+        return hash;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (!head.isInMemory())
+        {
+            Files.deleteIfExists(head.getFile().toPath());
+        }
+    }
+
+}
@@ -3,8 +3,11 @@ package org.carlspring.strongbox.providers.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -12,6 +15,8 @@ import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
@@ -49,6 +54,12 @@ public class NugetGroupRepositoryProviderTest
 
     private static final String REPOSITORY_GROUP_WITH_NESTED_GROUP_2 = "ngrpt-releases-group-with-nested-group-level-2";
 
+    private static final String REPOSITORY_ORDERED_RELEASES_1 = "ngrpt-ordered-releases-1";
+
+    private static final String REPOSITORY_ORDERED_RELEASES_2 = "ngrpt-ordered-releases-2";
+
+    private static final String REPOSITORY_ORDERED_GROUP = "ngrpt-ordered-releases-group";
+
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
@@ -166,4 +177,96 @@ public class NugetGroupRepositoryProviderTest
         assertThat(count).isEqualTo(Long.valueOf(12));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGroupSearchMergesOrderedMemberResults(@NugetRepository(repositoryId = REPOSITORY_ORDERED_RELEASES_1)
+                                                          Repository repository1,
+                                                          @NugetTestArtifact(repositoryId = REPOSITORY_ORDERED_RELEASES_1,
+                                                                             id = "ngrpt.ordered.package",
+                                                                             versions = { "1.0.1",
+                                                                                          "1.0.3",
+                                                                                          "1.0.5" })
+                                                          Path artifactPath1,
+                                                          @NugetRepository(repositoryId = REPOSITORY_ORDERED_RELEASES_2)
+                                                          Repository repository2,
+                                                          @NugetTestArtifact(repositoryId = REPOSITORY_ORDERED_RELEASES_2,
+                                                                             id = "ngrpt.ordered.package",
+                                                                             versions = { "1.0.2",
+                                                                                          "1.0.3",
+                                                                                          "1.0.4",
+                                                                                          "1.0.6" })
+                                                          Path artifactPath2,
+                                                          @Group(repositories = { REPOSITORY_ORDERED_RELEASES_1,
+                                                                                  REPOSITORY_ORDERED_RELEASES_2 })
+                                                          @NugetRepository(repositoryId = REPOSITORY_ORDERED_GROUP)
+                                                          Repository repositoryGroup)
+        throws IOException
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repositoryGroup.getType());
+
+        Predicate predicate = Predicate.empty();
+        predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+
+        Paginator paginator = new Paginator();
+        paginator.setProperty("artifactCoordinates.coordinates.version");
+        paginator.setLimit(10);
+
+        List<Path> result = repositoryProvider.search(repositoryGroup.getStorage().getId(),
+                                                      repositoryGroup.getId(),
+                                                      predicate,
+                                                      paginator);
+
+        // The members are merged in the version order, and the `1.0.3` found in both members is served once, by the
+        // first member.
+        assertThat(getVersions(result)).containsExactly("1.0.1", "1.0.2", "1.0.3", "1.0.4", "1.0.5", "1.0.6");
+        assertThat(getRepositoryIds(result)).containsExactly(REPOSITORY_ORDERED_RELEASES_1,
+                                                             REPOSITORY_ORDERED_RELEASES_2,
+                                                             REPOSITORY_ORDERED_RELEASES_1,
+                                                             REPOSITORY_ORDERED_RELEASES_2,
+                                                             REPOSITORY_ORDERED_RELEASES_1,
+                                                             REPOSITORY_ORDERED_RELEASES_2);
+
+        // The page crosses the member boundaries, and the duplicate is not counted twice by the skip.
+        paginator.setSkip(2);
+        paginator.setLimit(3);
+
+        result = repositoryProvider.search(repositoryGroup.getStorage().getId(),
+                                           repositoryGroup.getId(),
+                                           predicate,
+                                           paginator);
+
+        assertThat(getVersions(result)).containsExactly("1.0.3", "1.0.4", "1.0.5");
+
+        paginator.setSkip(1);
+        paginator.setLimit(2);
+        paginator.setOrder(Paginator.Order.DESC);
+
+        result = repositoryProvider.search(repositoryGroup.getStorage().getId(),
+                                           repositoryGroup.getId(),
+                                           predicate,
+                                           paginator);
+
+        assertThat(getVersions(result)).containsExactly("1.0.5", "1.0.4");
+    }
+
+    private List<String> getVersions(List<Path> paths)
+        throws IOException
+    {
+        List<String> result = new ArrayList<>();
+        for (Path path : paths)
+        {
+            result.add(RepositoryFiles.readCoordinates((RepositoryPath) path).getVersion());
+        }
+
+        return result;
+    }
+
+    private List<String> getRepositoryIds(List<Path> paths)
+    {
+        return paths.stream()
+                    .map(p -> ((RepositoryPath) p).getRepository().getId())
+                    .collect(Collectors.toList());
+    }
+
 }
@@ -0,0 +1,64 @@
+package org.carlspring.strongbox.storage.metadata.nuget;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@ContextConfiguration(classes = { NugetLayoutProviderTestConfig.class })
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@Execution(CONCURRENT)
+public class StreamingNupkgTest
+{
+
+    @ExtendWith(ArtifactManagementTestExecutionListener.class)
+    @Test
+    public void testReadNupkg(@NugetTestArtifact(id = "NUnit",
+                                                 versions = "2.5.9.10348")
+                              Path artifactNupkgPath)
+            throws Exception
+    {
+        Path checksumPath = artifactNupkgPath.resolveSibling(artifactNupkgPath.getFileName() + ".sha512");
+        String expectedHash = MessageDigestUtils.readChecksumFile(checksumPath.toString());
+
+        // Both with the head of the package kept in memory, and with the head spilled into a temporary file.
+        for (int memoryThreshold : new int[]{ StreamingNupkg.DEFAULT_MEMORY_THRESHOLD, 16 })
+        {
+            try (InputStream nupkgInputStream = new BufferedInputStream(Files.newInputStream(artifactNupkgPath));
+                 StreamingNupkg nupkg = new StreamingNupkg(nupkgInputStream, memoryThreshold))
+            {
+                Nuspec nuspec = nupkg.getNuspec();
+
+                assertThat(nuspec).as("Package Specification").isNotNull();
+                assertThat(nuspec.getId()).as("Package ID").isEqualTo("NUnit");
+                assertThat(nuspec.getVersion()).as("Package Version")
+                                               .isEqualTo(SemanticVersion.parse("2.5.9.10348"));
+
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                long size = nupkg.writeTo(content);
+
+                assertThat(size).isEqualTo(Files.size(artifactNupkgPath));
+                assertThat(content.toByteArray()).isEqualTo(Files.readAllBytes(artifactNupkgPath));
+                assertThat(nupkg.getHash()).as("Hash of the written package").isEqualTo(expectedHash);
+            }
+        }
+    }
+
+}
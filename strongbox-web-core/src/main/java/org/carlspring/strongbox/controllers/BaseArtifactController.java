@@ -48,7 +48,7 @@ public abstract class BaseArtifactController
             }
             else
             {
-                copyToResponse(is, response);
+                ArtifactControllerHelper.transferToResponse(is, response);
             }
         }
 
@@ -8,11 +8,12 @@ import org.carlspring.strongbox.services.AqlSearchService;
 import org.carlspring.strongbox.storage.search.SearchResults;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.swagger.annotations.*;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,19 +33,62 @@ public class AqlController extends BaseController
     @Inject
     private AqlSearchService aqlSearchService;
 
+    /**
+     * The results are written to the response one by one, as they are read, the response isn't flushed before the
+     * query was run, so that its errors are still reported with the error response.
+     * <p>
+     * A failure after a part of the results was already sent can't change the status of the response any more. The
+     * open JSON arrays and objects are not closed in that case, so that the client fails to parse the truncated
+     * document instead of taking it for a complete page.
+     */
     @ApiOperation(value = "Used to search for artifacts.", response = SearchResults.class)
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public void search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                       @ApiParam(value = "The cursor of the keyset page, empty for the first page (the pages are ordered by the artifact uuid)")
+                       @RequestParam(name = "cursor", required = false) String cursor,
+                       @ApiParam(value = "Whether the code snippets should be generated for the results")
+                       @RequestParam(name = "snippets", defaultValue = "false") boolean snippets,
+                       HttpServletResponse response)
         throws IOException
     {
         AqlQueryParser parser = new AqlQueryParser(query);
         Selector<ArtifactEntry> selector = parser.parseQuery();
+        selector.getPaginator().setCursor(cursor);
 
-        SearchResults result = aqlSearchService.search(selector);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
 
-        return ResponseEntity.ok(result);
+        try
+        {
+            try (JsonGenerator generator = objectMapper.getFactory()
+                                                       .createGenerator(response.getOutputStream())
+                                                       .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                                       .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT))
+            {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("artifact");
+
+                String nextCursor = aqlSearchService.search(selector, snippets, generator::writeObject);
+
+                generator.writeEndArray();
+                if (nextCursor != null)
+                {
+                    generator.writeStringField("cursor", nextCursor);
+                }
+                generator.writeEndObject();
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // The partial document is dropped if nothing was sent yet, so that the error response replaces it.
+            if (!response.isCommitted())
+            {
+                response.resetBuffer();
+            }
+
+            throw e;
+        }
     }
 
 }
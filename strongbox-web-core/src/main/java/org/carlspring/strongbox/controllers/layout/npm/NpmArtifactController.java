@@ -6,18 +6,18 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.security.NoSuchAlgorithmException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.text.SimpleDateFormat;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -27,11 +27,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.TeeOutputStream;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
@@ -51,6 +51,9 @@ import org.carlspring.strongbox.npm.metadata.Versions;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache;
+import org.carlspring.strongbox.providers.layout.NpmPackageFeedCache.CachedPackageFeed;
+import org.carlspring.strongbox.providers.layout.NpmPackageJsonExtractor;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
 import org.carlspring.strongbox.providers.layout.NpmSearchResultSupplier;
 import org.carlspring.strongbox.providers.layout.NpmUnpublishService;
@@ -58,14 +61,14 @@ import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures.SearchPackagesEventListener;
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures.ViewPackageEventListener;
+import org.carlspring.strongbox.services.ArtifactManagementService.ArtifactWriter;
+import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
 import org.carlspring.strongbox.users.userdetails.SpringSecurityUser;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
-import org.javatuples.Pair;
-
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -103,6 +106,24 @@ public class NpmArtifactController
 
     private static final String FIELD_NAME_VERSION = "versions";
 
+    private static final String INTEGRITY_SHA512_PREFIX = "sha512-";
+
+    private static final String NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE = "application/vnd.npm.install-v1+json";
+
+    private static final String[] ABBREVIATED_VERSION_FIELDS = { "name",
+                                                                 "version",
+                                                                 "dist",
+                                                                 "deprecated",
+                                                                 "dependencies",
+                                                                 "optionalDependencies",
+                                                                 "devDependencies",
+                                                                 "bundleDependencies",
+                                                                 "peerDependencies",
+                                                                 "bin",
+                                                                 "directories",
+                                                                 "engines",
+                                                                 "_hasShrinkwrap" };
+
     @Inject
     @NpmObjectMapper
     private ObjectMapper npmJacksonMapper;
@@ -125,6 +146,9 @@ public class NpmArtifactController
     @Inject
     private NpmUnpublishService npmUnpublishService;
 
+    @Inject
+    private NpmPackageFeedCache npmPackageFeedCache;
+
     @GetMapping(path = { "{storageId}/{repositoryId}/npm" })
     public ResponseEntity<String> greet()
     {
@@ -227,8 +251,38 @@ public class NpmArtifactController
     public void viewPackageFeedWithScope(@RepositoryMapping Repository repository,
                                          @PathVariable(name = "packageScope") String packageScope,
                                          @PathVariable(name = "packageName") String packageName,
+                                         @RequestHeader HttpHeaders httpHeaders,
                                          HttpServletResponse response)
             throws Exception
+    {
+        String packageId = NpmArtifactCoordinates.calculatePackageId(packageScope, packageName);
+        boolean abbreviated = acceptsAbbreviatedPackageFeed(httpHeaders);
+
+        CachedPackageFeed packageFeed = npmPackageFeedCache.get(repository, packageId, abbreviated, () -> {
+            PackageFeed fullPackageFeed = createPackageFeed(repository, packageScope, packageName);
+
+            return abbreviated ? npmJacksonMapper.writeValueAsBytes(createAbbreviatedPackageFeed(fullPackageFeed))
+                               : npmJacksonMapper.writeValueAsBytes(fullPackageFeed);
+        });
+
+        response.setHeader(HttpHeaders.ETAG, packageFeed.getETag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        List<String> ifNoneMatch = httpHeaders.getIfNoneMatch();
+        if (ifNoneMatch.contains(packageFeed.getETag()) || ifNoneMatch.contains("*"))
+        {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+
+            return;
+        }
+
+        response.setContentType(abbreviated ? NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE : MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(packageFeed.getContent());
+    }
+
+    private PackageFeed createPackageFeed(Repository repository,
+                                          String packageScope,
+                                          String packageName)
     {
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
@@ -282,8 +336,51 @@ public class NpmArtifactController
 
         });
         packageFeed.setAdditionalProperty("_rev", generateRevisionHashcode(packageFeed));
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
+
+        return packageFeed;
+    }
+
+    /**
+     * Creates the abbreviated package document, which contains only the fields needed to install the package
+     * (https://github.com/npm/registry/blob/master/docs/responses/package-metadata.md#abbreviated-metadata-format).
+     */
+    private ObjectNode createAbbreviatedPackageFeed(PackageFeed packageFeed)
+    {
+        JsonNode fullPackageFeed = npmJacksonMapper.valueToTree(packageFeed);
+
+        ObjectNode result = npmJacksonMapper.createObjectNode();
+        copyField(fullPackageFeed, result, "name");
+        copyField(fullPackageFeed.path("time"), result, "modified");
+        copyField(fullPackageFeed, result, "dist-tags");
+
+        ObjectNode versions = result.putObject(FIELD_NAME_VERSION);
+        fullPackageFeed.path(FIELD_NAME_VERSION).fields().forEachRemaining(e -> {
+            ObjectNode version = versions.putObject(e.getKey());
+            for (String fieldName : ABBREVIATED_VERSION_FIELDS)
+            {
+                copyField(e.getValue(), version, fieldName);
+            }
+        });
+
+        return result;
+    }
+
+    private void copyField(JsonNode source,
+                           ObjectNode target,
+                           String fieldName)
+    {
+        JsonNode value = source.get(fieldName);
+        if (value != null && !value.isNull())
+        {
+            target.set(fieldName, value);
+        }
+    }
+
+    private boolean acceptsAbbreviatedPackageFeed(HttpHeaders httpHeaders)
+    {
+        return httpHeaders.getOrEmpty(HttpHeaders.ACCEPT)
+                          .stream()
+                          .anyMatch(accept -> accept.contains(NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE));
     }
 
     private String generateRevisionHashcode(PackageFeed packageFeed)
@@ -301,10 +398,11 @@ public class NpmArtifactController
     @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
     public void viewPackageFeed(@RepositoryMapping Repository repository,
                                 @PathVariable(name = "packageName") String packageName,
+                                @RequestHeader HttpHeaders httpHeaders,
                                 HttpServletResponse response)
             throws Exception
     {
-        viewPackageFeedWithScope(repository, null, packageName, response);
+        viewPackageFeedWithScope(repository, null, packageName, httpHeaders, response);
     }
 
     private Predicate createSearchPredicate(String packageScope,
@@ -422,23 +520,25 @@ public class NpmArtifactController
 
 
         logger.info("npm publish request for {}/{}/{}", storageId, repositoryId, name);
-        Pair<PackageVersion, Path> packageEntry;
-        try
+        try (InputStream in = new BufferedInputStream(request.getInputStream()))
         {
-            packageEntry = extractPackage(name, request.getInputStream());
+            publishPackage(repository, name, in);
         }
         catch (IllegalArgumentException e)
         {
             logger.error("Failed to extract npm package data", e);
             return ResponseEntity.badRequest().build();
         }
+        catch (ArtifactStorageException e)
+        {
+            if (!(e.getCause() instanceof IllegalArgumentException))
+            {
+                throw e;
+            }
 
-        PackageVersion packageJson = packageEntry.getValue0();
-        Path packageTgz = packageEntry.getValue1();
-
-        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, packageJson.getVersion());
-
-        storeNpmPackage(repository, coordinates, packageJson, packageTgz);
+            logger.error("Failed to extract npm package data", e);
+            return ResponseEntity.badRequest().build();
+        }
 
         return ResponseEntity.ok("");
     }
@@ -615,58 +715,27 @@ public class NpmArtifactController
         return unpublishVersionWithScopeV5(repository, null, packageName, tarball, rev);
     }
 
-    private void storeNpmPackage(Repository repository,
-                                 NpmArtifactCoordinates coordinates,
-                                 PackageVersion packageDef,
-                                 Path packageTgzTmp)
+    /**
+     * Publishes the package within a single pass over the request: the package tarball is decoded from the
+     * attachment straight into the repository, while its `package.json` is extracted and its checksums are
+     * calculated. The tarball is buffered into a temporary file only if the attachment precedes the package
+     * version, which is needed to resolve the tarball path.
+     */
+    private void publishPackage(Repository repository,
+                                String packageName,
+                                InputStream in)
             throws IOException,
                    ProviderImplementationException,
-                   NoSuchAlgorithmException,
                    ArtifactCoordinatesValidationException
     {
-        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, coordinates);
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
-        {
-            artifactManagementService.validateAndStore(repositoryPath, is);
-        }
-
-        Path packageJsonTmp = extractPackageJson(packageTgzTmp);
-        RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository,
-                                                                        repositoryPath.resolveSibling("package.json"));
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageJsonTmp)))
-        {
-            artifactManagementService.validateAndStore(packageJsonPath, is);
-        }
-
-        String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
-        if (shasum == null)
-        {
-            logger.warn("No checksum provided for package [{}]", packageDef.getName());
-            return;
-        }
-
-        String packageFileName = repositoryPath.getFileName().toString();
-        RepositoryPath checksumPath = repositoryPath.resolveSibling(packageFileName + ".sha1");
-        artifactManagementService.validateAndStore(checksumPath,
-                                                   new ByteArrayInputStream(shasum.getBytes(StandardCharsets.UTF_8)));
-
-        Files.delete(packageTgzTmp);
-        Files.delete(packageJsonTmp);
-    }
-
-    private Pair<PackageVersion, Path> extractPackage(String packageName,
-                                                      ServletInputStream in)
-            throws IOException
-    {
-        Path packageSourceTmp = Files.createTempFile("package", "source");
-        Files.copy(in, packageSourceTmp, StandardCopyOption.REPLACE_EXISTING);
-
         PackageVersion packageVersion = null;
-        Path packageTgzPath = null;
+        String packageIntegrity = null;
+        Path packageTgzTmp = null;
+        byte[] packageJson = null;
+        RepositoryPath packageTgzPath = null;
 
         JsonFactory jfactory = new JsonFactory();
-        try (InputStream tmpIn = new BufferedInputStream(Files.newInputStream(packageSourceTmp));
-             JsonParser jp = jfactory.createParser(tmpIn);)
+        try (JsonParser jp = jfactory.createParser(in))
         {
             jp.setCodec(npmJacksonMapper);
 
@@ -689,6 +758,7 @@ public class NpmArtifactController
 
                         JsonNode packageJsonNode = node.iterator().next();
                         packageVersion = extractPackageVersion(packageName, packageJsonNode.toString());
+                        packageIntegrity = packageJsonNode.path("dist").path("integrity").textValue();
 
                         break;
                     case FIELD_NAME_ATTACHMENTS:
@@ -701,7 +771,24 @@ public class NpmArtifactController
                         logger.info(String.format("Found npm package attachment [%s]", packageAttachmentName));
 
                         moveToAttachment(jp, packageAttachmentName);
-                        packageTgzPath = extractPackage(jp);
+                        if (packageVersion != null)
+                        {
+                            PackageVersion packageDef = packageVersion;
+                            packageTgzPath = repositoryPathResolver.resolve(repository,
+                                                                            NpmArtifactCoordinates.of(packageName,
+                                                                                                      packageDef.getVersion()));
+                            packageJson = storePackageTgz(packageTgzPath, packageDef, packageIntegrity,
+                                                          os -> readPackageTgz(jp, os));
+                        }
+                        else
+                        {
+                            packageTgzTmp = Files.createTempFile("package", "tgz");
+                            try (OutputStream packageTgzOut = new BufferedOutputStream(Files.newOutputStream(packageTgzTmp,
+                                                                                                             StandardOpenOption.TRUNCATE_EXISTING)))
+                            {
+                                readPackageTgz(jp, packageTgzOut);
+                            }
+                        }
 
                         jp.nextToken();
                         jp.nextToken();
@@ -709,53 +796,135 @@ public class NpmArtifactController
                         break;
                 }
             }
+
+            if (packageVersion == null || (packageTgzPath == null && packageTgzTmp == null))
+            {
+                throw new IllegalArgumentException(
+                        String.format("Failed to parse npm package source for [%s], attachment not found",
+                                      packageName));
+            }
+
+            if (packageTgzPath == null)
+            {
+                Path packageTgzSource = packageTgzTmp;
+                packageTgzPath = repositoryPathResolver.resolve(repository,
+                                                                NpmArtifactCoordinates.of(packageName,
+                                                                                          packageVersion.getVersion()));
+                packageJson = storePackageTgz(packageTgzPath, packageVersion, packageIntegrity, os -> {
+                    try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzSource)))
+                    {
+                        return IOUtils.copyLarge(is, os);
+                    }
+                });
+            }
+        }
+        finally
+        {
+            if (packageTgzTmp != null)
+            {
+                Files.deleteIfExists(packageTgzTmp);
+            }
         }
 
-        Files.delete(packageSourceTmp);
+        RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository,
+                                                                        packageTgzPath.resolveSibling("package.json"));
+        artifactManagementService.validateAndStore(packageJsonPath, new ByteArrayInputStream(packageJson));
 
-        if (packageVersion == null || packageTgzPath == null)
+        String shasum = Optional.ofNullable(packageVersion.getDist()).map(p -> p.getShasum()).orElse(null);
+        if (shasum == null)
         {
-            throw new IllegalArgumentException(
-                    String.format("Failed to parse npm package source for [%s], attachment not found", packageName));
+            logger.warn("No checksum provided for package [{}]", packageVersion.getName());
+            return;
         }
 
-        return Pair.with(packageVersion, packageTgzPath);
+        String packageFileName = packageTgzPath.getFileName().toString();
+        RepositoryPath checksumPath = packageTgzPath.resolveSibling(packageFileName + ".sha1");
+        artifactManagementService.validateAndStore(checksumPath,
+                                                   new ByteArrayInputStream(shasum.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private Path extractPackage(JsonParser jp)
-            throws IOException
+    /**
+     * Stores the package tarball and verifies it against the `shasum` and `integrity` of the package version while
+     * it is written. A tarball which doesn't match is discarded before it replaces the stored one, if any.
+     *
+     * @return the content of the `package.json` of the package
+     */
+    private byte[] storePackageTgz(RepositoryPath packageTgzPath,
+                                   PackageVersion packageDef,
+                                   String packageIntegrity,
+                                   ArtifactWriter packageTgzWriter)
+            throws IOException,
+                   ProviderImplementationException,
+                   ArtifactCoordinatesValidationException
     {
-        Path packageTgzTmp = Files.createTempFile("package", "tgz");
-        try (OutputStream packageTgzOut = new BufferedOutputStream(Files.newOutputStream(packageTgzTmp,
-                                                                                         StandardOpenOption.TRUNCATE_EXISTING)))
-        {
-            jp.readBinaryValue(packageTgzOut);
-        }
+        NpmPackageJsonExtractor packageJsonExtractor = new NpmPackageJsonExtractor();
+        storePackageTgz(packageTgzPath, packageDef, packageIntegrity, packageTgzWriter, packageJsonExtractor);
 
-        long packageSize = Files.size(packageTgzTmp);
+        return packageJsonExtractor.getPackageJson();
+    }
 
-        Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
-        jp.nextToken();
+    private void storePackageTgz(RepositoryPath packageTgzPath,
+                                 PackageVersion packageDef,
+                                 String packageIntegrity,
+                                 ArtifactWriter packageTgzWriter,
+                                 NpmPackageJsonExtractor packageJsonExtractor)
+            throws IOException,
+                   ProviderImplementationException,
+                   ArtifactCoordinatesValidationException
+    {
+        artifactManagementService.validateAndStore(packageTgzPath, os -> {
+            MessageDigest sha1 = DigestUtils.getSha1Digest();
+            MessageDigest sha512 = DigestUtils.getSha512Digest();
 
-        Assert.isTrue(packageSize == jp.getLongValue(), "Invalid package content length.");
-        jp.nextToken();
+            long result;
+            try (NpmPackageJsonExtractor extractor = packageJsonExtractor)
+            {
+                result = packageTgzWriter.write(new DigestOutputStream(new DigestOutputStream(new TeeOutputStream(os,
+                                                                                                                  extractor),
+                                                                                              sha1),
+                                                                       sha512));
+            }
 
-        return packageTgzTmp;
+            verifyPackageTgz(packageDef, packageIntegrity, sha1, sha512);
+            Assert.notNull(packageJsonExtractor.getPackageJson(),
+                           String.format("package.json not found in [%s].", packageTgzPath.getFileName()));
+
+            return result;
+        });
     }
 
-    private Path extractPackageJson(Path packageTgzTmp)
-            throws IOException
+    private void verifyPackageTgz(PackageVersion packageDef,
+                                  String integrity,
+                                  MessageDigest sha1,
+                                  MessageDigest sha512)
     {
-        String packageJsonSource;
-        try (InputStream packageTgzIn = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
+        String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
+        Assert.isTrue(shasum == null || shasum.equalsIgnoreCase(Hex.encodeHexString(sha1.digest())),
+                      String.format("Package [%s] doesn't match the shasum [%s].", packageDef.getName(), shasum));
+
+        if (integrity == null || !integrity.startsWith(INTEGRITY_SHA512_PREFIX))
         {
-            packageJsonSource = extrectPackageJson(packageTgzIn);
+            return;
         }
-        Path packageJsonTmp = Files.createTempFile("package", "json");
-        Files.write(packageJsonTmp, packageJsonSource.getBytes(StandardCharsets.UTF_8),
-                    StandardOpenOption.TRUNCATE_EXISTING);
 
-        return packageJsonTmp;
+        String sha512Base64 = Base64.getEncoder().encodeToString(sha512.digest());
+        Assert.isTrue(integrity.substring(INTEGRITY_SHA512_PREFIX.length()).equals(sha512Base64),
+                      String.format("Package [%s] doesn't match the integrity [%s].", packageDef.getName(), integrity));
+    }
+
+    private long readPackageTgz(JsonParser jp,
+                                OutputStream packageTgzOut)
+            throws IOException
+    {
+        long packageSize = jp.readBinaryValue(packageTgzOut);
+
+        Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
+        jp.nextToken();
+
+        Assert.isTrue(packageSize == jp.getLongValue(), "Invalid package content length.");
+        jp.nextToken();
+
+        return packageSize;
     }
 
     private void moveToAttachment(JsonParser jp,
@@ -801,29 +970,6 @@ public class NpmArtifactController
         return packageVersion;
     }
 
-    private String extrectPackageJson(InputStream in)
-            throws IOException
-    {
-        GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(in);
-        try (TarArchiveInputStream tarIn = new TarArchiveInputStream(gzipIn))
-        {
-            TarArchiveEntry entry;
-
-            while ((entry = (TarArchiveEntry) tarIn.getNextEntry()) != null)
-            {
-                if (!entry.getName().endsWith("package.json"))
-                {
-                    continue;
-                }
-                StringWriter writer = new StringWriter();
-                IOUtils.copy(tarIn, writer, StandardCharsets.UTF_8);
-                return writer.toString();
-            }
-
-            return null;
-        }
-    }
-
     private String getPackageVersion(String packageNameWithVersion,
                                      String packageName)
     {
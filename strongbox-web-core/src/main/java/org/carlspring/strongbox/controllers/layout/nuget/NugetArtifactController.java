@@ -10,7 +10,7 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
-import org.carlspring.strongbox.io.ReplacingInputStream;
+import org.carlspring.strongbox.io.MultipartPartInputStream;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -21,7 +21,7 @@ import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
 import org.carlspring.strongbox.storage.metadata.nuget.Nupkg;
 import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
-import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
+import org.carlspring.strongbox.storage.metadata.nuget.StreamingNupkg;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.EntryProperties;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
@@ -30,7 +30,6 @@ import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
@@ -38,9 +37,7 @@ import javax.xml.bind.JAXBException;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -54,7 +51,6 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.fileupload.MultipartStream;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
@@ -422,8 +418,8 @@ public class NugetArtifactController
         URI resourceUri;
         try
         {
-            ServletInputStream is = request.getInputStream();
-            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), is);
+            MultipartPartInputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType),
+                                                                                            request.getInputStream());
 
             if (packagePartInputStream == null)
             {
@@ -530,8 +526,13 @@ public class NugetArtifactController
         return boundaryString;
     }
 
-    private InputStream extractPackageMultipartStream(String boundaryString,
-                                                      ServletInputStream is)
+    /**
+     * Returns the stream of the package part, which is read directly from the request. The missing `CR` of the
+     * closing boundary, which is incorrectly generated by NuGet `push` implementation, is handled by the
+     * {@link MultipartPartInputStream}.
+     */
+    private MultipartPartInputStream extractPackageMultipartStream(String boundaryString,
+                                                                   InputStream is)
             throws IOException
     {
         if (StringUtils.isEmpty(boundaryString))
@@ -539,73 +540,34 @@ public class NugetArtifactController
             return null;
         }
 
-        final Path packagePartFile = Files.createTempFile("nupkg", "part");
-        try (OutputStream packagePartOutputStream = new BufferedOutputStream(Files.newOutputStream(packagePartFile)))
-        {
-
-            writePackagePart(boundaryString, is, packagePartOutputStream);
-        }
-
-        return new BufferedInputStream(Files.newInputStream(packagePartFile));
-    }
+        MultipartPartInputStream result = new MultipartPartInputStream(new BufferedInputStream(is), boundaryString);
+        String header = result.readHeaders();
 
-    private void writePackagePart(String boundaryString,
-                                  InputStream is,
-                                  OutputStream packagePartOutputStream)
-        throws IOException
-    {
-        // According to the specification, the final Boundary of MultipartStream should be prefixed with
-        // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
-        // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
-        // NuGet `push` implementation.
-        byte[] boundary = boundaryString.getBytes();
-        byte[] boundaryPrefixToFix = {0x00, 0x0A, 0x2D, 0x2D};
-        byte[] boundaryPrefixTarget = {0x00, 0x0D, 0x0A, 0x2D, 0x2D};
-
-        byte[] replacementPattern = new byte[boundary.length + 4];
-        byte[] replacementTarget = new byte[boundary.length + 5];
-
-        System.arraycopy(boundaryPrefixToFix, 0, replacementPattern, 0, 4);
-        System.arraycopy(boundaryPrefixTarget, 0, replacementTarget, 0, 5);
-
-        System.arraycopy(boundary, 0, replacementPattern, 4, boundary.length);
-        System.arraycopy(boundary, 0, replacementTarget, 4, boundary.length);
-
-        Path streamContentPath = Files.createTempFile("boundaryString", "nupkg");
-        ReplacingInputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
-        long len = Files.copy(replacingIs, streamContentPath,
-                   StandardCopyOption.REPLACE_EXISTING);
-        System.out.println(len);
-
-        try (InputStream streamContentIs = new BufferedInputStream(Files.newInputStream(streamContentPath)))
+        // Package Multipart Header should be like follows:
+        // Content-Disposition: form-data; name="package";
+        // filename="package"
+        // Content-Type: application/octet-stream
+        if (header == null || !header.contains("package"))
         {
-            MultipartStream multipartStream = new MultipartStream(streamContentIs, boundary, 4096, null);
-            multipartStream.skipPreamble();
-            String header = multipartStream.readHeaders();
-
-            // Package Multipart Header should be like follows:
-            // Content-Disposition: form-data; name="package";
-            // filename="package"
-            // Content-Type: application/octet-stream
-            if (!header.contains("package"))
-            {
-                logger.error("Invalid package multipart format");
-                return;
-            }
-
-            int contentLength = multipartStream.readBodyData(packagePartOutputStream);
-            logger.info("NuGet package content length [{}]", contentLength);
+            logger.error("Invalid package multipart format");
+            return null;
         }
+
+        return result;
     }
 
+    /**
+     * Stores the package while it's read from the request, together with its specification and hash files. Only the
+     * beginning of the package, up to the specification file, is buffered, see {@link StreamingNupkg}.
+     */
     private URI storePackage(String storageId,
                              String repositoryId,
                              InputStream is)
         throws Exception
     {
-        try (TempNupkgFile nupkgFile = new TempNupkgFile(is))
+        try (StreamingNupkg nupkg = new StreamingNupkg(is))
         {
-            Nuspec nuspec = nupkgFile.getNuspec();
+            Nuspec nuspec = nupkg.getNuspec();
             if (nuspec == null)
             {
                 return null;
@@ -621,30 +583,16 @@ public class NugetArtifactController
                                         nuspecVersion);
 
             RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            artifactManagementService.validateAndStore(repositoryPath, nupkgFile.getStream());
+            long contentLength = artifactManagementService.validateAndStore(repositoryPath, nupkg::writeTo);
+            logger.info("NuGet package content length [{}]", contentLength);
+
+            ByteArrayOutputStream nuspecContent = new ByteArrayOutputStream();
+            nuspec.saveTo(nuspecContent);
 
-            Path nuspecFile = Files.createTempFile(nuspec.getId(), "nuspec");
-            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(nuspecFile)))
-            {
-                nuspec.saveTo(outputStream);
-            }
             path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
             repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(nuspecFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
-            }
-
-            Path hashFile = Files.createTempFile(String.format("%s.%s", nuspecId, nuspecVersion),
-                                                "nupkg.sha512");
-
-            try (OutputStream bos = new BufferedOutputStream(Files.newOutputStream(hashFile)))
-            {
-                Writer writer = new OutputStreamWriter(bos);
-                writer.write(nupkgFile.getHash());
-                writer.flush();
-                bos.flush();
-            }
+            artifactManagementService.validateAndStore(repositoryPath,
+                                                       new ByteArrayInputStream(nuspecContent.toByteArray()));
 
             path = String.format("%s/%s/%s.%s.nupkg.sha512",
                                  nuspecId,
@@ -652,10 +600,9 @@ public class NugetArtifactController
                                  nuspecId,
                                  nuspecVersion);
             repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(hashFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
-            }
+            artifactManagementService.validateAndStore(repositoryPath,
+                                                       new ByteArrayInputStream(nupkg.getHash()
+                                                                                     .getBytes(StandardCharsets.UTF_8)));
         }
 
         return new URI("");
@@ -49,6 +49,11 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         private Authentication source;
 
+        /**
+         * The authorities are calculated once per vote, as the expressions can ask for them several times.
+         */
+        private Collection<? extends GrantedAuthority> extendedAuthorities;
+
         public ExtendedAuthorityAuthentication(Authentication target)
         {
             super();
@@ -94,7 +99,7 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
             SpringSecurityUser userDetails = (SpringSecurityUser) authentication.getPrincipal();
             // calculate privileges based on roles access model
-            Collection<Privileges> storageAuthorities = userDetails.getStorageAuthorities(UrlUtils.getRequestUri());
+            Collection<Privileges> storageAuthorities = userDetails.getStorageAuthorities(requestUri);
             if (storageAuthorities.isEmpty())
             {
                 return apiAuthorities;
@@ -114,7 +119,12 @@ public class ExtendedAuthoritiesVoter extends PreInvocationAuthorizationAdviceVo
 
         public Collection<? extends GrantedAuthority> getAuthorities()
         {
-            return calculateExtendedAuthorities(getSourceAuthentication());
+            if (extendedAuthorities == null)
+            {
+                extendedAuthorities = calculateExtendedAuthorities(getSourceAuthentication());
+            }
+
+            return extendedAuthorities;
         }
 
         public Object getCredentials()
@@ -4,17 +4,26 @@ import org.carlspring.commons.http.range.ByteRange;
 import org.carlspring.commons.http.range.ByteRangeHeaderParser;
 import org.carlspring.commons.http.range.validation.ByteRangeValidationException;
 import org.carlspring.strongbox.exception.ExceptionHandlingOutputStream;
+import org.carlspring.strongbox.exception.Http202PropogateException;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.ZoneId;
@@ -22,6 +31,9 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jetty.io.EofException;
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -46,7 +58,14 @@ public class ArtifactControllerHelper
 
     private static final String FULL_FILE_RANGE_REGEX = "^bytes=(0\\/\\*|0-|0)$";
 
-    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Request threads are pooled, so are the buffers.
+     */
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[TRANSFER_BUFFER_SIZE]);
 
     private static final String CRLF = "\r\n";
 
@@ -54,6 +73,25 @@ public class ArtifactControllerHelper
     {
     }
 
+    /**
+     * Writes the whole stream content into the response. Files are sent without copying them through the heap,
+     * other streams are just copied.
+     */
+    public static void transferToResponse(InputStream is,
+                                          HttpServletResponse response)
+            throws IOException
+    {
+        FileChannel fileChannel = getFileChannel(is);
+        if (fileChannel == null)
+        {
+            copyToResponse(is, response);
+
+            return;
+        }
+
+        transferToResponse(fileChannel, 0L, fileChannel.size(), response);
+    }
+
     public static void handlePartialDownload(InputStream is,
                                              HttpHeaders headers,
                                              HttpServletResponse response)
@@ -99,10 +137,18 @@ public class ArtifactControllerHelper
 
         if (byteRange.getOffset() < inputLength)
         {
-            StreamUtils.setCurrentByteRange(bris, byteRange);
-
             prepareResponseBuilderForPartialRequestWithSingleRange(byteRange, inputLength, response);
 
+            FileChannel fileChannel = getFileChannel(is);
+            if (fileChannel != null)
+            {
+                transferToResponse(fileChannel, byteRange.getOffset(), inputLength - byteRange.getOffset(), response);
+
+                return;
+            }
+
+            StreamUtils.setCurrentByteRange(bris, byteRange);
+
             copyToResponse(is, response);
         }
         else
@@ -201,21 +247,12 @@ public class ArtifactControllerHelper
 
         response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
 
-        path.getFileSystem().provider().resolveChecksumPathMap(path).forEach((key, value) -> {
-            String checksumValue;
-            try
-            {
-                checksumValue = new String(Files.readAllBytes(value), StandardCharsets.UTF_8).trim();
-            }
-            catch (IOException ioe)
-            {
-                return;
-            }
-
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+        provider.resolveChecksumValueMap(path).forEach((key, value) -> {
             String checksumName = String.format("Checksum-%s",
                                                 key.toUpperCase().replace("-", ""));
 
-            response.setHeader(checksumName, checksumValue);
+            response.setHeader(checksumName, value);
         });
     }
 
@@ -245,7 +282,9 @@ public class ArtifactControllerHelper
                                                            String contentType)
             throws IOException
     {
-        BufferedInputStream bis = new BufferedInputStream(is, DEFAULT_BUFFER_SIZE);
+        FileChannel fileChannel = getFileChannel(is);
+        BufferedInputStream bis = fileChannel == null ? new BufferedInputStream(is, TRANSFER_BUFFER_SIZE) : null;
+        byte[] buffer = TRANSFER_BUFFER.get();
         long inputLength = Long.parseLong(response.getHeader(HttpHeaders.CONTENT_LENGTH));
         long totalBytes = 0L;
 
@@ -274,42 +313,21 @@ public class ArtifactControllerHelper
 
                 os.write(toByteArray(""));
 
+                if (fileChannel != null)
+                {
+                    totalBytes += copyRange(fileChannel, start, length, buffer, os);
+                }
                 // Check if it is allowed to read the stream more than once.
-                if (bis.markSupported())
+                else if (bis.markSupported())
                 {
-                    int readLength;
-                    byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-                    long toRead = length;
-
-                    long markLimit = Math.max(toRead, DEFAULT_BUFFER_SIZE) + 1L;
-                    int markLimitInt = Math.toIntExact(markLimit);
+                    long markLimit = Math.max(start + length, TRANSFER_BUFFER_SIZE) + 1L;
                     // Needed for reading the stream more than once.
-                    bis.mark(markLimitInt);
+                    bis.mark(Math.toIntExact(markLimit));
 
                     // Skip to the byte range offset.
-                    bis.skip(start);
+                    IOUtils.skipFully(bis, start);
 
-                    while ((readLength = bis.read()) != -1)
-                    {
-                        toRead -= readLength;
-
-                        // Range length is greater than the buffer length.
-                        if (toRead > 0)
-                        {
-                            os.write(buffer, 0, readLength);
-                            os.flush();
-
-                            totalBytes += readLength;
-                        }
-                        else
-                        {
-                            os.write(buffer, 0, (int) toRead + readLength);
-                            os.flush();
-
-                            totalBytes += (toRead + readLength);
-                            break;
-                        }
-                    }
+                    totalBytes += copyRange(bis, length, buffer, os);
 
                     // Needed for reading the stream more than once.
                     bis.reset();
@@ -325,6 +343,108 @@ public class ArtifactControllerHelper
         }
     }
 
+    private static long copyRange(FileChannel fileChannel,
+                                  long start,
+                                  long length,
+                                  byte[] buffer,
+                                  OutputStream os)
+            throws IOException
+    {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+        long position = start;
+        long end = start + length;
+        while (position < end)
+        {
+            byteBuffer.clear();
+            byteBuffer.limit((int) Math.min(buffer.length, end - position));
+
+            int readLength = fileChannel.read(byteBuffer, position);
+            if (readLength == -1)
+            {
+                break;
+            }
+
+            os.write(buffer, 0, readLength);
+            position += readLength;
+        }
+        os.flush();
+
+        return position - start;
+    }
+
+    private static long copyRange(InputStream is,
+                                  long length,
+                                  byte[] buffer,
+                                  OutputStream os)
+            throws IOException
+    {
+        long toRead = length;
+        int readLength;
+        while (toRead > 0 && (readLength = is.read(buffer, 0, (int) Math.min(buffer.length, toRead))) != -1)
+        {
+            os.write(buffer, 0, readLength);
+            toRead -= readLength;
+        }
+        os.flush();
+
+        return length - toRead;
+    }
+
+    private static FileChannel getFileChannel(InputStream is)
+            throws IOException
+    {
+        if (!(is instanceof RepositoryInputStream))
+        {
+            return null;
+        }
+
+        return ((RepositoryInputStream) is).getFileChannel();
+    }
+
+    private static void transferToResponse(FileChannel fileChannel,
+                                           long position,
+                                           long count,
+                                           HttpServletResponse response)
+            throws IOException
+    {
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(count));
+
+        ServletOutputStream os = response.getOutputStream();
+        long end = position + count;
+        try
+        {
+            if (os instanceof HttpOutput)
+            {
+                // Jetty writes the mapped file regions straight into the socket, without copying them into the heap.
+                HttpOutput httpOutput = (HttpOutput) os;
+                for (long offset = position; offset < end; offset += MAPPED_REGION_SIZE)
+                {
+                    httpOutput.write(fileChannel.map(MapMode.READ_ONLY, offset, Math.min(MAPPED_REGION_SIZE, end - offset)));
+                }
+            }
+            else
+            {
+                WritableByteChannel target = Channels.newChannel(os);
+                for (long offset = position; offset < end; )
+                {
+                    long transferred = fileChannel.transferTo(offset, end - offset, target);
+                    if (transferred <= 0)
+                    {
+                        break;
+                    }
+                    offset += transferred;
+                }
+            }
+
+            response.flushBuffer();
+        }
+        catch (EofException e)
+        {
+            throw new Http202PropogateException("Socket has been closed. Possibly, user cancelled download.", e);
+        }
+    }
+
     private static byte[] toByteArray(String string)
     {
         return (string.concat(CRLF)).getBytes(StandardCharsets.UTF_8);
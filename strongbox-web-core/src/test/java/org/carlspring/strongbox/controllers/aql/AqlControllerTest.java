@@ -16,8 +16,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 
 
 /**
@@ -138,6 +140,76 @@ public class AqlControllerTest
                .body("artifact", hasSize(6));
     }
 
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testSearchWithoutSnippets(@MavenRepository(storageId = STORAGE_SC_TEST,
+                                                           repositoryId = REPOSITORY_RELEASES)
+                                          Repository repository,
+                                          @MavenTestArtifact(storageId = STORAGE_SC_TEST,
+                                                             repositoryId = REPOSITORY_RELEASES,
+                                                             resource = A1)
+                                          Path artifact1)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl();
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query",
+                           String.format("storage:%s+repository:%s+groupId:org.carlspring.strongbox.searches",
+                                         storageId,
+                                         repositoryId))
+               .queryParam("snippets", false)
+               .when()
+               .get(url)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifact", hasSize(2))
+               .body("artifact.snippets.flatten()", hasSize(0));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testSearchWithSnippets(@MavenRepository(storageId = STORAGE_SC_TEST,
+                                                        repositoryId = REPOSITORY_RELEASES)
+                                       Repository repository,
+                                       @MavenTestArtifact(storageId = STORAGE_SC_TEST,
+                                                          repositoryId = REPOSITORY_RELEASES,
+                                                          resource = A1)
+                                       Path artifact1)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String query = String.format("storage:%s+repository:%s+groupId:org.carlspring.strongbox.searches",
+                                           storageId,
+                                           repositoryId);
+
+        String url = getContextBaseUrl();
+
+        // The snippets are generated only on request.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifact", hasSize(2))
+               .body("artifact.snippets.flatten()", hasSize(0));
+
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .queryParam("snippets", true)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifact", hasSize(2))
+               .body("artifact.snippets.flatten()", not(empty()));
+    }
+
     @Test
     public void testSearchInvalidMavenCoordinates()
     {
@@ -7,6 +7,7 @@ import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmLayoutProvider;
+import org.carlspring.strongbox.providers.layout.NpmPackageJsonExtractor;
 import org.carlspring.strongbox.rest.common.NpmRestAssuredBaseTest;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
@@ -15,10 +16,18 @@ import org.carlspring.strongbox.testing.repository.NpmRepository;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
 
 import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
@@ -29,8 +38,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.carlspring.strongbox.artifact.generator.ArtifactGenerator.DEFAULT_BYTES_SIZE;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 
 /**
  * @author Pablo Tirado
@@ -42,6 +56,8 @@ public class NpmArtifactControllerTest
 
     private static final String REPOSITORY_RELEASES = "npm-releases-test";
 
+    private static final String NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE = "application/vnd.npm.install-v1+json";
+
     @Inject
     PropertiesBooter propertiesBooter;
 
@@ -156,6 +172,195 @@ public class NpmArtifactControllerTest
                .statusCode(HttpStatus.OK.value());
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPublishWithInvalidShasumKeepsPackage(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                                                 Repository repository,
+                                                         @NpmTestArtifact(id = "npm-test-shasum",
+                                                                 versions = "1.0.0",
+                                                                 scope = "@carlspring")
+                                                                 Path packagePath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-shasum", "1.0.0");
+
+        Path publishJsonPath = packagePath.resolveSibling("publish.json");
+        byte[] publishJsonContent = Files.readAllBytes(publishJsonPath);
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(publishJsonContent)
+               .when()
+               .put(url, storageId, repositoryId, coordinates.getId())
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        // Re-publish the same version with a shasum which doesn't match the tarball.
+        String invalidPublishJson = new String(publishJsonContent, StandardCharsets.UTF_8)
+                                            .replaceAll("\"shasum\"\\s*:\\s*\"[0-9a-fA-F]+\"",
+                                                        "\"shasum\":\"" + StringUtils.repeat('0', 40) + "\"");
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(invalidPublishJson.getBytes(StandardCharsets.UTF_8))
+               .when()
+               .put(url, storageId, repositoryId, coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        // The package which was published first is still there.
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.toResource())
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .assertThat()
+               .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(Files.size(packagePath))));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPublishWithTooLargePackageJson(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                                           Repository repository,
+                                                   @NpmTestArtifact(id = "npm-test-large-package-json",
+                                                           versions = "1.0.0",
+                                                           scope = "@carlspring")
+                                                           Path packagePath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-large-package-json",
+                                                                       "1.0.0");
+
+        // Replace the tarball with one which has a `package.json` over the limit.
+        ByteArrayOutputStream packageTgz = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new GzipCompressorOutputStream(packageTgz)))
+        {
+            byte[] packageJson = StringUtils.repeat(' ', NpmPackageJsonExtractor.MAX_PACKAGE_JSON_SIZE + 1)
+                                            .getBytes(StandardCharsets.UTF_8);
+
+            TarArchiveEntry entry = new TarArchiveEntry("package/package.json");
+            entry.setSize(packageJson.length);
+
+            tarOut.putArchiveEntry(entry);
+            tarOut.write(packageJson);
+            tarOut.closeArchiveEntry();
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode publishJson = (ObjectNode) objectMapper.readTree(packagePath.resolveSibling("publish.json").toFile());
+        ObjectNode attachment = (ObjectNode) publishJson.path("_attachments").elements().next();
+        attachment.put("data", packageTgz.toByteArray());
+        attachment.put("length", packageTgz.size());
+        ((ObjectNode) publishJson.path("versions").elements().next().path("dist")).remove("shasum");
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(objectMapper.writeValueAsBytes(publishJson))
+               .when()
+               .put(url, storageId, repositoryId, coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.toResource())
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPackageFeedCaching(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                               Repository repository,
+                                       @NpmTestArtifact(id = "npm-test-feed-cache",
+                                               versions = "1.0.0",
+                                               scope = "@carlspring")
+                                               Path packagePath,
+                                       TestInfo testInfo)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String packageId = "@carlspring/npm-test-feed-cache";
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(Files.readAllBytes(packagePath.resolveSibling("publish.json")))
+               .when()
+               .put(url, storageId, repositoryId, packageId)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        // Full document
+        String eTag = mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                             .when()
+                             .get(url, storageId, repositoryId, packageId)
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .header(HttpHeaders.VARY, equalTo(HttpHeaders.ACCEPT))
+                             .body("name", equalTo(packageId))
+                             .body("versions.'1.0.0'.version", equalTo("1.0.0"))
+                             .extract()
+                             .header(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+
+        // The same document is not sent again.
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url, storageId, repositoryId, packageId)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value())
+               .header(HttpHeaders.ETAG, equalTo(eTag));
+
+        // Abbreviated document, with only the install fields of the versions
+        String abbreviatedETag = mockMvc.header(HttpHeaders.ACCEPT, NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE)
+                                        .when()
+                                        .get(url, storageId, repositoryId, packageId)
+                                        .then()
+                                        .statusCode(HttpStatus.OK.value())
+                                        .contentType(containsString(NPM_ABBREVIATED_PACKAGE_FEED_MEDIA_TYPE))
+                                        .body("name", equalTo(packageId))
+                                        .body("versions.'1.0.0'.version", equalTo("1.0.0"))
+                                        .body("versions.'1.0.0'.dist", notNullValue())
+                                        .body("_rev", nullValue())
+                                        .extract()
+                                        .header(HttpHeaders.ETAG);
+        assertThat(abbreviatedETag).isNotEqualTo(eTag);
+
+        // A new version changes the document.
+        Path generatorBasePath = Paths.get(propertiesBooter.getVaultDirectory(),
+                                           ".temp",
+                                           testInfo.getTestClass().get().getSimpleName(),
+                                           testInfo.getTestMethod().get().getName()).toAbsolutePath().normalize();
+        Path artifact = new NpmArtifactGenerator(generatorBasePath).generateArtifact(packageId, "1.0.1",
+                                                                                       DEFAULT_BYTES_SIZE);
+        mockMvc.contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(Files.readAllBytes(artifact.resolveSibling("publish.json")))
+               .when()
+               .put(url, storageId, repositoryId, packageId)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(url, storageId, repositoryId, packageId)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header(HttpHeaders.ETAG, not(equalTo(eTag)))
+               .body("versions.'1.0.1'.version", equalTo("1.0.1"));
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
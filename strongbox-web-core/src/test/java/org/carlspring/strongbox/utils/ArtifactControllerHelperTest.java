@@ -3,6 +3,7 @@ package org.carlspring.strongbox.utils;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
@@ -12,12 +13,18 @@ import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementT
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
+import com.google.common.primitives.Bytes;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -54,6 +61,14 @@ class ArtifactControllerHelperTest
 
     private static final String REPOSITORY_RELEASES_8 = "acht-releases-8";
 
+    private static final String REPOSITORY_RELEASES_9 = "acht-releases-9";
+
+    private static final String REPOSITORY_RELEASES_10 = "acht-releases-10";
+
+    private static final String REPOSITORY_RELEASES_11 = "acht-releases-11";
+
+    private static final String REPOSITORY_RELEASES_12 = "acht-releases-12";
+
     @Inject
     private ArtifactResolutionService artifactResolutionService;
 
@@ -308,6 +323,174 @@ class ArtifactControllerHelperTest
     }
 
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void provideArtifactHeadersWithUpdatedChecksum(@MavenRepository(repositoryId = REPOSITORY_RELEASES_9)
+                                                   Repository repository,
+                                                   @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_9,
+                                                                      id = "org.carlspring.strongbox:provide-artifact-checksum-headers",
+                                                                      versions = "1.0")
+                                                   Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        RepositoryPath sha1Path = artifactRepositoryPath.resolveSibling(artifactRepositoryPath.getFileName() + ".sha1");
+        String sha1 = new String(Files.readAllBytes(sha1Path), StandardCharsets.UTF_8).trim();
+
+        HttpServletResponse response = new MockHttpServletResponse();
+        ArtifactControllerHelper.provideArtifactHeaders(response, artifactRepositoryPath);
+        assertThat(response.getHeader("Checksum-SHA1")).isEqualTo(sha1);
+
+        // When
+        String updatedSha1 = "0123456789abcdef0123456789abcdef01234567";
+        Files.write(sha1Path, updatedSha1.getBytes(StandardCharsets.UTF_8));
+
+        response = new MockHttpServletResponse();
+        ArtifactControllerHelper.provideArtifactHeaders(response, artifactRepositoryPath);
+
+        // Then
+        assertThat(response.getHeader("Checksum-SHA1")).isEqualTo(updatedSha1);
+    }
+
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void transferToResponse(@MavenRepository(repositoryId = REPOSITORY_RELEASES_10)
+                            Repository repository,
+                            @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_10,
+                                               id = "org.carlspring.strongbox:transfer-full",
+                                               versions = "1.0")
+                            Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] expectedContent = Files.readAllBytes(artifactRepositoryPath);
+
+        for (boolean fileChannel : new boolean[]{ true, false })
+        {
+            try (InputStream is = getInputStream(artifactRepositoryPath, fileChannel))
+            {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+
+                // When
+                ArtifactControllerHelper.transferToResponse(is, response);
+
+                // Then
+                assertThat(response.getContentAsByteArray()).as("fileChannel=%s", fileChannel)
+                                                             .isEqualTo(expectedContent);
+                assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).as("fileChannel=%s", fileChannel)
+                                                                          .isEqualTo(String.valueOf(expectedContent.length));
+            }
+        }
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void handlePartialDownloadWithSingleRangeContent(@MavenRepository(repositoryId = REPOSITORY_RELEASES_11)
+                                                     Repository repository,
+                                                     @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_11,
+                                                                        id = "org.carlspring.strongbox:transfer-single",
+                                                                        versions = "1.0")
+                                                     Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] content = Files.readAllBytes(artifactRepositoryPath);
+        byte[] expectedContent = Arrays.copyOfRange(content, 100, content.length);
+
+        for (boolean fileChannel : new boolean[]{ true, false })
+        {
+            try (InputStream is = getInputStream(artifactRepositoryPath, fileChannel))
+            {
+                HttpHeaders httpHeaders = getHttpHeaders("100-");
+                MockHttpServletResponse response = new MockHttpServletResponse();
+
+                // When
+                ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+
+                // Then
+                assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+                assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE))
+                        .isEqualTo(String.format("bytes 100-%d/%d", content.length - 1, content.length));
+                assertThat(response.getContentAsByteArray()).as("fileChannel=%s", fileChannel)
+                                                             .isEqualTo(expectedContent);
+            }
+        }
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    void handlePartialDownloadWithMultipleRangesContent(@MavenRepository(repositoryId = REPOSITORY_RELEASES_12)
+                                                        Repository repository,
+                                                        @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_12,
+                                                                           id = "org.carlspring.strongbox:transfer-multiple",
+                                                                           versions = "1.0")
+                                                        Path artifactPath)
+            throws IOException
+    {
+        // Given
+        RepositoryPath artifactRepositoryPath = (RepositoryPath) artifactPath.normalize();
+        byte[] content = Files.readAllBytes(artifactRepositoryPath);
+
+        List<byte[]> bodies = new ArrayList<>();
+        for (boolean fileChannel : new boolean[]{ true, false })
+        {
+            try (InputStream is = getInputStream(artifactRepositoryPath, fileChannel))
+            {
+                HttpHeaders httpHeaders = getHttpHeaders("0-500,510-519");
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length));
+
+                // When
+                ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+
+                // Then
+                byte[] body = response.getContentAsByteArray();
+
+                assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+                assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).as("fileChannel=%s", fileChannel)
+                                                                          .isEqualTo("511");
+                assertThat(Bytes.indexOf(body, Arrays.copyOfRange(content, 0, 501))).as("fileChannel=%s", fileChannel)
+                                                                                    .isNotNegative();
+                assertThat(Bytes.indexOf(body, Arrays.copyOfRange(content, 510, 520))).as("fileChannel=%s", fileChannel)
+                                                                                      .isNotNegative();
+
+                bodies.add(body);
+            }
+        }
+
+        assertThat(bodies.get(0)).isEqualTo(bodies.get(1));
+    }
+
+    /**
+     * The stream of a file based storage provides a {@link java.nio.channels.FileChannel}, the wrapped one stands for
+     * the storages which don't, so that the download falls back to copying the stream.
+     */
+    private InputStream getInputStream(RepositoryPath repositoryPath,
+                                       boolean fileChannel)
+            throws IOException
+    {
+        InputStream is = artifactResolutionService.getInputStream(repositoryPath);
+        if (fileChannel)
+        {
+            assertThat(((RepositoryInputStream) is).getFileChannel()).isNotNull();
+
+            return is;
+        }
+
+        return new FilterInputStream(is)
+        {
+        };
+    }
+
     private HttpHeaders getHttpHeaders(String byteRanges)
     {
         final HttpHeaders httpHeaders = new HttpHeaders();